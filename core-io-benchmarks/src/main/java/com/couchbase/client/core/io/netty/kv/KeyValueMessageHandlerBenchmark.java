@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueBenchmarkCore;
+import com.couchbase.client.core.msg.kv.KeyValueOperation;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full request/response round trip through the {@link KeyValueMessageHandler}.
+ *
+ * <p>Every invocation creates a new request, writes it through the handler (which encodes it and tracks it as
+ * in-flight) and then feeds the matching response into {@link KeyValueMessageHandler#channelRead}, which decodes
+ * it and completes the request.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyValueMessageHandlerBenchmark {
+
+  @Param({"GET", "UPSERT", "REMOVE", "INCREMENT", "SUBDOC_LOOKUP"})
+  public KeyValueOperation operation;
+
+  @Param({"256", "16384"})
+  public int contentSize;
+
+  private KeyValueBenchmarkCore core;
+  private EmbeddedChannel channel;
+  private byte[] content;
+
+  @Setup
+  public void setup() {
+    core = new KeyValueBenchmarkCore();
+    content = KeyValueBenchmarkCore.document(contentSize);
+
+    EndpointContext endpointContext = new EndpointContext(core.context(), new HostAndPort("127.0.0.1", 11210),
+      null, ServiceType.KV, Optional.empty(), Optional.of(KeyValueBenchmarkCore.BUCKET), Optional.empty());
+    channel = new EmbeddedChannel(
+      new KeyValueMessageHandler(null, endpointContext, Optional.of(KeyValueBenchmarkCore.BUCKET))
+    );
+    channel.attr(ChannelAttributes.SERVER_FEATURE_KEY).set(Arrays.asList(
+      ServerFeature.MUTATION_SEQNO,
+      ServerFeature.ALT_REQUEST,
+      ServerFeature.SYNC_REPLICATION,
+      ServerFeature.VATTR
+    ));
+    // re-initialize the channel context now that the features are present
+    channel.pipeline().fireChannelActive();
+  }
+
+  @TearDown
+  public void teardown() {
+    channel.finishAndReleaseAll();
+    core.shutdown();
+  }
+
+  @Benchmark
+  public Response roundTrip() throws Exception {
+    KeyValueRequest<Response> request = operation.request(core.context(), core.collection(), content);
+
+    channel.writeOutbound(request);
+    ByteBuf encoded = channel.readOutbound();
+    encoded.release();
+
+    channel.writeInbound(operation.response(channel.alloc(), request.opaque(), content));
+    return request.response().get();
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.msg.kv.KeyValueBenchmarkCore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noCas;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noDatatype;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the raw framing cost of {@link MemcacheProtocol#request} and {@link MemcacheProtocol#flexibleRequest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemcacheProtocolBenchmark {
+
+  @Param({"0", "256", "16384"})
+  public int contentSize;
+
+  private ByteBufAllocator alloc;
+  private ByteBuf key;
+  private ByteBuf extras;
+  private ByteBuf framingExtras;
+  private ByteBuf body;
+
+  @Setup
+  public void setup() {
+    alloc = PooledByteBufAllocator.DEFAULT;
+    key = alloc.buffer().writeBytes("airline_10226".getBytes(UTF_8));
+    extras = alloc.buffer(Integer.BYTES * 2).writeInt(0).writeInt(0);
+    framingExtras = alloc.buffer(4)
+      .writeByte(MemcacheProtocol.SYNC_REPLICATION_FLEXIBLE_IDENT | (byte) 0x03)
+      .writeByte(1)
+      .writeShort(2250);
+    body = alloc.buffer(contentSize).writeBytes(KeyValueBenchmarkCore.document(contentSize));
+  }
+
+  @TearDown
+  public void teardown() {
+    key.release();
+    extras.release();
+    framingExtras.release();
+    body.release();
+  }
+
+  /**
+   * Writing the source buffers into the request consumes them, so they need to be rewound for the next round.
+   */
+  private void rewind() {
+    key.readerIndex(0);
+    extras.readerIndex(0);
+    framingExtras.readerIndex(0);
+    body.readerIndex(0);
+  }
+
+  @Benchmark
+  public int request() {
+    ByteBuf request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.SET, noDatatype(), (short) 512,
+      1, noCas(), extras, key, body);
+    try {
+      return request.readableBytes();
+    } finally {
+      request.release();
+      rewind();
+    }
+  }
+
+  @Benchmark
+  public int flexibleRequest() {
+    ByteBuf request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.SET, noDatatype(), (short) 512,
+      1, noCas(), framingExtras, extras, key, body);
+    try {
+      return request.readableBytes();
+    } finally {
+      request.release();
+      rewind();
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Holds a {@link Core} which is never connected to a cluster, but provides everything the KV requests and
+ * handlers need to run in-memory.
+ */
+public class KeyValueBenchmarkCore {
+
+  public static final String BUCKET = "travel-sample";
+
+  private final CoreEnvironment env;
+  private final Core core;
+
+  public KeyValueBenchmarkCore() {
+    this.env = CoreEnvironment.create();
+    this.core = Core.create(env, PasswordAuthenticator.create("Administrator", "password"), Collections.emptySet());
+  }
+
+  public CoreContext context() {
+    return core.context();
+  }
+
+  public CollectionIdentifier collection() {
+    return CollectionIdentifier.fromDefault(BUCKET);
+  }
+
+  /**
+   * Creates a channel context which looks like all relevant features have been negotiated with the server.
+   *
+   * @param compression if snappy compression has been negotiated.
+   * @return the created channel context.
+   */
+  public KeyValueChannelContext channelContext(final boolean compression) {
+    return new KeyValueChannelContext(
+      compression ? CompressionConfig.create() : null,
+      false,
+      true,
+      Optional.of(BUCKET),
+      true,
+      true,
+      true,
+      core.configurationProvider().collectionMap(),
+      null,
+      true
+    );
+  }
+
+  /**
+   * Creates a (somewhat) JSON looking document of the given size.
+   *
+   * @param size the size in bytes.
+   * @return the document content.
+   */
+  public static byte[] document(final int size) {
+    byte[] pattern = "{\"type\":\"airline\",\"name\":\"Couchbase Airways\",\"country\":\"United States\"},"
+      .getBytes(UTF_8);
+    byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = pattern[i % pattern.length];
+    }
+    if (size > 1) {
+      content[0] = '[';
+      content[size - 1] = ']';
+    }
+    return content;
+  }
+
+  public void shutdown() {
+    core.shutdown().block();
+    env.shutdown();
+  }
+
+}
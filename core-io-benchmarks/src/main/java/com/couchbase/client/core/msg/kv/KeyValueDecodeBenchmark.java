@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+import com.couchbase.client.core.msg.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link KeyValueRequest#decode(ByteBuf, KeyValueChannelContext)} cost per operation.
+ *
+ * <p>The decoders only read through slices of the response, so the same response buffer is decoded
+ * over and over again.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyValueDecodeBenchmark {
+
+  @Param
+  public KeyValueOperation operation;
+
+  @Param({"256", "16384"})
+  public int contentSize;
+
+  private KeyValueBenchmarkCore core;
+  private KeyValueRequest<Response> request;
+  private KeyValueChannelContext channelContext;
+  private ByteBuf response;
+
+  @Setup
+  public void setup() {
+    core = new KeyValueBenchmarkCore();
+    channelContext = core.channelContext(false);
+    byte[] content = KeyValueBenchmarkCore.document(contentSize);
+    request = operation.request(core.context(), core.collection(), content);
+    response = operation.response(PooledByteBufAllocator.DEFAULT, request.opaque(), content);
+  }
+
+  @TearDown
+  public void teardown() {
+    response.release();
+    core.shutdown();
+  }
+
+  @Benchmark
+  public Response decode() {
+    return request.decode(response, channelContext);
+  }
+
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noCas;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noDatatype;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noExtras;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noKey;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Enumerates all KV operations covered by the benchmarks.
+ *
+ * <p>Each operation knows how to create its request and how a successful server response for it looks like
+ * on the wire, so encode and decode can be benchmarked symmetrically.</p>
+ */
+public enum KeyValueOperation {
+
+  GET(MemcacheProtocol.Opcode.GET) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new GetRequest(KEY, TIMEOUT, ctx, cid, RETRY, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return documentResponse(alloc, opcode(), opaque, content);
+    }
+  },
+  GET_AND_LOCK(MemcacheProtocol.Opcode.GET_AND_LOCK) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new GetAndLockRequest(KEY, TIMEOUT, ctx, cid, RETRY, Duration.ofSeconds(15), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return documentResponse(alloc, opcode(), opaque, content);
+    }
+  },
+  GET_AND_TOUCH(MemcacheProtocol.Opcode.GET_AND_TOUCH) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new GetAndTouchRequest(KEY, TIMEOUT, ctx, cid, RETRY, 60, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return documentResponse(alloc, opcode(), opaque, content);
+    }
+  },
+  GET_REPLICA(MemcacheProtocol.Opcode.GET_REPLICA) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new ReplicaGetRequest(KEY, TIMEOUT, ctx, cid, RETRY, (short) 1, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return documentResponse(alloc, opcode(), opaque, content);
+    }
+  },
+  GET_META(MemcacheProtocol.Opcode.GET_META) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new GetMetaRequest(KEY, TIMEOUT, ctx, cid, RETRY, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      // deleted (4), flags (4), expiry (4), seqno (8)
+      ByteBuf extras = alloc.buffer(20).writeInt(0).writeInt(0).writeInt(0).writeLong(1);
+      try {
+        return MemcacheProtocol.response(alloc, opcode(), noDatatype(), SUCCESS, opaque, CAS, extras,
+          noKey(), Unpooled.EMPTY_BUFFER);
+      } finally {
+        extras.release();
+      }
+    }
+  },
+  UPSERT(MemcacheProtocol.Opcode.SET) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new UpsertRequest(KEY, content, 0, 0, TIMEOUT, ctx, cid, RETRY, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  UPSERT_DURABLE(MemcacheProtocol.Opcode.SET) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new UpsertRequest(KEY, content, 0, 0, TIMEOUT, ctx, cid, RETRY,
+        Optional.of(DurabilityLevel.MAJORITY), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  INSERT(MemcacheProtocol.Opcode.ADD) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new InsertRequest(KEY, content, 0, 0, TIMEOUT, ctx, cid, RETRY, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  REPLACE(MemcacheProtocol.Opcode.REPLACE) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new ReplaceRequest(KEY, content, 0, 0, TIMEOUT, CAS, ctx, cid, RETRY, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  REMOVE(MemcacheProtocol.Opcode.DELETE) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new RemoveRequest(KEY, CAS, TIMEOUT, ctx, cid, RETRY, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  APPEND(MemcacheProtocol.Opcode.APPEND) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new AppendRequest(TIMEOUT, ctx, cid, RETRY, KEY, content, CAS, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  PREPEND(MemcacheProtocol.Opcode.PREPEND) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new PrependRequest(TIMEOUT, ctx, cid, RETRY, KEY, content, CAS, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  INCREMENT(MemcacheProtocol.Opcode.INCREMENT) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new IncrementRequest(TIMEOUT, ctx, cid, RETRY, KEY, 1, Optional.of(0L), 0, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return counterResponse(alloc, opcode(), opaque);
+    }
+  },
+  DECREMENT(MemcacheProtocol.Opcode.DECREMENT) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new DecrementRequest(TIMEOUT, ctx, cid, RETRY, KEY, 1, Optional.of(0L), 0, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return counterResponse(alloc, opcode(), opaque);
+    }
+  },
+  TOUCH(MemcacheProtocol.Opcode.TOUCH) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new TouchRequest(TIMEOUT, ctx, cid, RETRY, KEY, 60, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return emptyResponse(alloc, opcode(), opaque);
+    }
+  },
+  UNLOCK(MemcacheProtocol.Opcode.UNLOCK) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new UnlockRequest(TIMEOUT, ctx, cid, RETRY, KEY, CAS, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return emptyResponse(alloc, opcode(), opaque);
+    }
+  },
+  SUBDOC_LOOKUP(MemcacheProtocol.Opcode.SUBDOC_MULTI_LOOKUP) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new SubdocGetRequest(TIMEOUT, ctx, cid, RETRY, KEY, (byte) 0, Collections.singletonList(
+        new SubdocGetRequest.Command(SubdocCommandType.GET, SUBDOC_PATH, false, 0)
+      ), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      ByteBuf body = alloc.buffer(Short.BYTES + Integer.BYTES + SUBDOC_VALUE.length)
+        .writeShort(SUCCESS)
+        .writeInt(SUBDOC_VALUE.length)
+        .writeBytes(SUBDOC_VALUE);
+      try {
+        return MemcacheProtocol.response(alloc, opcode(), noDatatype(), SUCCESS, opaque, CAS, noExtras(),
+          noKey(), body);
+      } finally {
+        body.release();
+      }
+    }
+  },
+  SUBDOC_MUTATE(MemcacheProtocol.Opcode.SUBDOC_MULTI_MUTATE) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new SubdocMutateRequest(TIMEOUT, ctx, cid, null, RETRY, KEY, false, false, false, false,
+        Collections.singletonList(
+          new SubdocMutateRequest.Command(SubdocCommandType.DICT_UPSERT, SUBDOC_PATH, SUBDOC_VALUE, false, false, false, 0)
+        ), 0, CAS, Optional.empty(), null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return mutationResponse(alloc, opcode(), opaque, Unpooled.EMPTY_BUFFER);
+    }
+  },
+  OBSERVE_SEQNO(MemcacheProtocol.Opcode.OBSERVE_SEQ) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new ObserveViaSeqnoRequest(TIMEOUT, ctx, cid, RETRY, 0, true, 1234L, KEY, null);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      ByteBuf body = alloc.buffer(1 + Short.BYTES + Long.BYTES * 3)
+        .writeByte(0)
+        .writeShort(0)
+        .writeLong(1234L)
+        .writeLong(1)
+        .writeLong(1);
+      try {
+        return MemcacheProtocol.response(alloc, opcode(), noDatatype(), SUCCESS, opaque, noCas(), noExtras(),
+          noKey(), body);
+      } finally {
+        body.release();
+      }
+    }
+  },
+  OBSERVE_CAS(MemcacheProtocol.Opcode.OBSERVE_CAS) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new ObserveViaCasRequest(TIMEOUT, ctx, cid, RETRY, KEY, true, 0);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      byte[] key = KEY.getBytes(UTF_8);
+      ByteBuf body = alloc.buffer(Short.BYTES * 2 + key.length + 1 + Long.BYTES)
+        .writeShort(0)
+        .writeShort(key.length)
+        .writeBytes(key)
+        .writeByte(ObserveViaCasResponse.ObserveStatus.FOUND_PERSISTED.value())
+        .writeLong(CAS);
+      try {
+        return MemcacheProtocol.response(alloc, opcode(), noDatatype(), SUCCESS, opaque, noCas(), noExtras(),
+          noKey(), body);
+      } finally {
+        body.release();
+      }
+    }
+  },
+  NOOP(MemcacheProtocol.Opcode.NOOP) {
+    @Override
+    KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content) {
+      return new NoopRequest(TIMEOUT, ctx, RETRY, cid);
+    }
+
+    @Override
+    public ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content) {
+      return emptyResponse(alloc, opcode(), opaque);
+    }
+  };
+
+  private static final String KEY = "airline_10226";
+  private static final String SUBDOC_PATH = "name";
+  private static final byte[] SUBDOC_VALUE = "\"Couchbase Airways\"".getBytes(UTF_8);
+  private static final Duration TIMEOUT = Duration.ofSeconds(2);
+  private static final BestEffortRetryStrategy RETRY = BestEffortRetryStrategy.INSTANCE;
+  private static final long CAS = 1234567890L;
+  private static final short SUCCESS = MemcacheProtocol.Status.SUCCESS.status();
+
+  private final MemcacheProtocol.Opcode opcode;
+
+  KeyValueOperation(final MemcacheProtocol.Opcode opcode) {
+    this.opcode = opcode;
+  }
+
+  /**
+   * Returns the opcode used on the wire for this operation.
+   */
+  public MemcacheProtocol.Opcode opcode() {
+    return opcode;
+  }
+
+  /**
+   * Creates a new request for this operation.
+   *
+   * @param ctx the core context to attach.
+   * @param cid the collection identifier of the document.
+   * @param content the document content, ignored for operations which do not send one.
+   * @return the created request.
+   */
+  @SuppressWarnings({"unchecked"})
+  public KeyValueRequest<Response> request(final CoreContext ctx, final CollectionIdentifier cid,
+                                           final byte[] content) {
+    return (KeyValueRequest<Response>) create(ctx, cid, content);
+  }
+
+  abstract KeyValueRequest<? extends Response> create(CoreContext ctx, CollectionIdentifier cid, byte[] content);
+
+  /**
+   * Creates a successful server response for this operation.
+   *
+   * @param alloc the allocator to use.
+   * @param opaque the opaque of the request this response belongs to.
+   * @param content the document content, ignored for operations which do not return one.
+   * @return the encoded response, owned by the caller.
+   */
+  public abstract ByteBuf response(ByteBufAllocator alloc, int opaque, byte[] content);
+
+  private static ByteBuf documentResponse(final ByteBufAllocator alloc, final MemcacheProtocol.Opcode opcode,
+                                          final int opaque, final byte[] content) {
+    ByteBuf extras = alloc.buffer(Integer.BYTES).writeInt(CodecFlags.JSON_COMPAT_FLAGS);
+    try {
+      return MemcacheProtocol.response(alloc, opcode, noDatatype(), SUCCESS, opaque, CAS, extras, noKey(),
+        Unpooled.wrappedBuffer(content));
+    } finally {
+      extras.release();
+    }
+  }
+
+  private static ByteBuf mutationResponse(final ByteBufAllocator alloc, final MemcacheProtocol.Opcode opcode,
+                                          final int opaque, final ByteBuf body) {
+    // vbucket uuid and seqno, since the mutation tokens are negotiated
+    ByteBuf extras = alloc.buffer(Long.BYTES * 2).writeLong(1234L).writeLong(1);
+    try {
+      return MemcacheProtocol.response(alloc, opcode, noDatatype(), SUCCESS, opaque, CAS, extras, noKey(), body);
+    } finally {
+      extras.release();
+    }
+  }
+
+  private static ByteBuf counterResponse(final ByteBufAllocator alloc, final MemcacheProtocol.Opcode opcode,
+                                         final int opaque) {
+    ByteBuf body = alloc.buffer(Long.BYTES).writeLong(1);
+    try {
+      return mutationResponse(alloc, opcode, opaque, body);
+    } finally {
+      body.release();
+    }
+  }
+
+  private static ByteBuf emptyResponse(final ByteBufAllocator alloc, final MemcacheProtocol.Opcode opcode,
+                                       final int opaque) {
+    return MemcacheProtocol.response(alloc, opcode, noDatatype(), SUCCESS, opaque, CAS, noExtras(), noKey(),
+      Unpooled.EMPTY_BUFFER);
+  }
+
+}
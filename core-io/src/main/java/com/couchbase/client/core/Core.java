@@ -35,6 +35,8 @@ import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.DefaultConfigurationProvider;
 import com.couchbase.client.core.config.GlobalConfig;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.config.PortInfo;
 import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
@@ -44,6 +46,7 @@ import com.couchbase.client.core.error.GlobalConfigNotFoundException;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.error.RequestCanceledException;
 import com.couchbase.client.core.error.UnsupportedConfigMechanismException;
+import com.couchbase.client.core.io.netty.kv.sasl.ScramCredentialCache;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
@@ -57,14 +60,19 @@ import com.couchbase.client.core.node.ViewLocator;
 import com.couchbase.client.core.service.ServiceScope;
 import com.couchbase.client.core.service.ServiceState;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.service.kv.ObserveBatcher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
@@ -97,11 +105,6 @@ public class Core {
    */
   private static final AtomicInteger CORE_IDS = new AtomicInteger();
 
-  /**
-   * Locates the right node for the KV service.
-   */
-  private static final KeyValueLocator KEY_VALUE_LOCATOR = new KeyValueLocator();
-
   /**
    * Locates the right node for the manager service.
    */
@@ -180,6 +183,42 @@ public class Core {
 
   private final Set<SeedNode> seedNodes;
 
+  /**
+   * Locates the right node for the KV service.
+   *
+   * <p>Unlike the other locators this one is bound to the core instance, since it holds the routing tables
+   * which are built from the current config and node list.</p>
+   */
+  private final KeyValueLocator keyValueLocator = new KeyValueLocator();
+
+  /**
+   * Shares the observe rounds of all mutations waiting for legacy (observe based) durability.
+   */
+  private final ObserveBatcher observeBatcher = new ObserveBatcher();
+
+  /**
+   * Caches the keys derived during SCRAM authentication across all KV connections.
+   */
+  private final ScramCredentialCache scramCredentialCache = new ScramCredentialCache();
+
+  /**
+   * Holds a snapshot of the bucket configs applied during the last successful reconfiguration.
+   *
+   * <p>Together with {@link #lastAppliedGlobalConfig} this is used to diff the next config against, so that only
+   * the nodes and services which changed need to be touched. It is cleared if a reconfiguration fails.</p>
+   */
+  private volatile Map<String, BucketConfig> lastAppliedBucketConfigs = Collections.emptyMap();
+
+  /**
+   * Holds the global config applied during the last successful reconfiguration.
+   */
+  private volatile GlobalConfig lastAppliedGlobalConfig;
+
+  /**
+   * Set if a service could not be reconfigured during the current reconfiguration attempt.
+   */
+  private volatile boolean serviceReconfigurationFailed;
+
   /**
    * Creates a new {@link Core} with the given environment.
    *
@@ -291,6 +330,22 @@ public class Core {
     return coreContext;
   }
 
+  /**
+   * Returns the {@link ObserveBatcher} which shares observe rounds for legacy durability.
+   */
+  @Stability.Internal
+  public ObserveBatcher observeBatcher() {
+    return observeBatcher;
+  }
+
+  /**
+   * Returns the {@link ScramCredentialCache} shared by all KV connections of this core.
+   */
+  @Stability.Internal
+  public ScramCredentialCache scramCredentialCache() {
+    return scramCredentialCache;
+  }
+
   @Stability.Internal
   public Stream<EndpointDiagnostics> diagnostics() {
     return nodes.stream().flatMap(Node::diagnostics);
@@ -450,31 +505,12 @@ public class Core {
    * Check if the given {@link Node} needs to be removed from the cluster topology.
    *
    * @param node the node in question
-   * @param config the current config.
+   * @param presentNodes the identifiers of all nodes present in the current config.
    * @return a mono once disconnected (or completes immediately if there is no need to do so).
    */
-  private Mono<Void> maybeRemoveNode(final Node node, final ClusterConfig config) {
+  private Mono<Void> maybeRemoveNode(final Node node, final Set<NodeIdentifier> presentNodes) {
     return Mono.defer(() -> {
-      boolean stillPresentInBuckets = config
-        .bucketConfigs()
-        .values()
-        .stream()
-        .flatMap(bc -> bc.nodes().stream())
-        .anyMatch(ni -> ni.identifier().equals(node.identifier()));
-
-
-      boolean stillPresentInGlobal;
-      if (config.globalConfig() != null) {
-        stillPresentInGlobal = config
-          .globalConfig()
-          .portInfos()
-          .stream()
-          .anyMatch(ni -> ni.identifier().equals(node.identifier()));
-      } else {
-        stillPresentInGlobal = false;
-      }
-
-      if ((!stillPresentInBuckets && !stillPresentInGlobal) || !node.hasServicesEnabled()) {
+      if (!presentNodes.contains(node.identifier()) || !node.hasServicesEnabled()) {
         return node.disconnect().doOnTerminate(() -> nodes.remove(node));
       }
 
@@ -543,32 +579,46 @@ public class Core {
   private void reconfigure() {
     if (reconfigureInProgress.compareAndSet(false, true)) {
       final ClusterConfig configForThisAttempt = currentConfig;
+      final Map<String, BucketConfig> bucketConfigs = new HashMap<>(configForThisAttempt.bucketConfigs());
+      final GlobalConfig globalConfig = configForThisAttempt.globalConfig();
 
-      if (configForThisAttempt.bucketConfigs().isEmpty() && configForThisAttempt.globalConfig() == null) {
+      if (bucketConfigs.isEmpty() && globalConfig == null) {
         reconfigureDisconnectAll();
         return;
       }
 
       final long start = System.nanoTime();
-      Flux<BucketConfig> bucketConfigFlux = Flux
-        .just(configForThisAttempt)
-        .flatMap(cc -> Flux.fromIterable(cc.bucketConfigs().values()));
-
-      reconfigureBuckets(bucketConfigFlux)
-        .then(reconfigureGlobal(configForThisAttempt.globalConfig()))
-        .then(Mono.defer(() ->
-          Flux
+      final Set<NodeIdentifier> managedNodes = new HashSet<>();
+      for (Node node : nodes) {
+        managedNodes.add(node.identifier());
+      }
+      serviceReconfigurationFailed = false;
+
+      reconfigureBuckets(bucketConfigs.values(), lastAppliedBucketConfigs, managedNodes)
+        .then(reconfigureGlobal(globalConfig, lastAppliedGlobalConfig, managedNodes))
+        .then(Mono.defer(() -> {
+          Set<NodeIdentifier> presentNodes = presentNodes(bucketConfigs.values(), globalConfig);
+          return Flux
             .fromIterable(new ArrayList<>(nodes))
-            .flatMap(n -> maybeRemoveNode(n, configForThisAttempt))
-            .then()
-        ))
+            .flatMap(n -> maybeRemoveNode(n, presentNodes))
+            .then();
+        }))
         .subscribe(
         v -> {},
         e -> {
+          clearLastAppliedConfig();
+          keyValueLocator.updateRoutingTables(configForThisAttempt, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationErrorDetectedEvent(context(), e));
         },
         () -> {
+          if (serviceReconfigurationFailed) {
+            clearLastAppliedConfig();
+          } else {
+            lastAppliedBucketConfigs = bucketConfigs;
+            lastAppliedGlobalConfig = globalConfig;
+          }
+          keyValueLocator.updateRoutingTables(configForThisAttempt, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationCompletedEvent(
             Duration.ofNanos(System.nanoTime() - start),
@@ -597,10 +647,14 @@ public class Core {
       .subscribe(
         v -> {},
         e -> {
+          clearLastAppliedConfig();
+          keyValueLocator.updateRoutingTables(currentConfig, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationErrorDetectedEvent(context(), e));
         },
         () -> {
+          clearLastAppliedConfig();
+          keyValueLocator.updateRoutingTables(currentConfig, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationCompletedEvent(
             Duration.ofNanos(System.nanoTime() - start),
@@ -620,80 +674,38 @@ public class Core {
     }
   }
 
-  private Mono<Void> reconfigureGlobal(final GlobalConfig config) {
+  /**
+   * Forgets the last applied config, so that the next reconfiguration looks at all nodes and services again.
+   */
+  private void clearLastAppliedConfig() {
+    lastAppliedBucketConfigs = Collections.emptyMap();
+    lastAppliedGlobalConfig = null;
+  }
+
+  private Mono<Void> reconfigureGlobal(final GlobalConfig config, final GlobalConfig previousConfig,
+                                       final Set<NodeIdentifier> managedNodes) {
     return Mono.defer(() -> {
-      if (config == null) {
+      if (config == null || config == previousConfig) {
         return Mono.empty();
       }
 
+      Map<NodeIdentifier, ResolvedServices> previousNodes = new HashMap<>();
+      if (previousConfig != null) {
+        for (PortInfo pi : previousConfig.portInfos()) {
+          previousNodes.put(pi.identifier(), resolveServices(pi.alternateAddresses(), pi.ports(), pi.sslPorts()));
+        }
+      }
+
       return Flux
         .fromIterable(config.portInfos())
-        .flatMap(ni -> {
-          boolean tls = coreContext.environment().securityConfig().tlsEnabled();
-
-          Set<Map.Entry<ServiceType, Integer>> aServices = null;
-          Optional<String> alternateAddress = coreContext.alternateAddress();
-          String aHost = null;
-          if (alternateAddress.isPresent()) {
-            AlternateAddress aa = ni.alternateAddresses().get(alternateAddress.get());
-            aHost = aa.hostname();
-            aServices = tls ? aa.sslServices().entrySet() : aa.services().entrySet();
-          }
-
-          if (aServices == null || aServices.isEmpty()) {
-            aServices = tls ? ni.sslPorts().entrySet() : ni.ports().entrySet();
-          }
-
-          final String alternateHost = aHost;
-          final Set<Map.Entry<ServiceType, Integer>> services = aServices;
-
-          Flux<Void> serviceRemoveFlux = Flux
-            .fromIterable(Arrays.asList(ServiceType.values()))
-            .filter(s -> {
-              for (Map.Entry<ServiceType, Integer> inConfig : services) {
-                if (inConfig.getKey() == s) {
-                  return false;
-                }
-              }
-              return true;
-            })
-            .flatMap(s -> removeServiceFrom(
-              ni.identifier(),
-              s,
-              Optional.empty())
-              .onErrorResume(throwable -> {
-                eventBus.publish(new ServiceReconfigurationFailedEvent(
-                  coreContext,
-                  ni.hostname(),
-                  s,
-                  throwable
-                ));
-                return Mono.empty();
-              })
-            );
-
-
-          Flux<Void> serviceAddFlux = Flux
-            .fromIterable(services)
-            .flatMap(s -> ensureServiceAt(
-              ni.identifier(),
-              s.getKey(),
-              s.getValue(),
-              Optional.empty(),
-              Optional.ofNullable(alternateHost))
-              .onErrorResume(throwable -> {
-                eventBus.publish(new ServiceReconfigurationFailedEvent(
-                  coreContext,
-                  ni.hostname(),
-                  s.getKey(),
-                  throwable
-                ));
-                return Mono.empty();
-              })
-            );
-
-          return Flux.merge(serviceAddFlux, serviceRemoveFlux);
-        })
+        .flatMap(pi -> reconfigureNode(
+          pi.identifier(),
+          pi.hostname(),
+          resolveServices(pi.alternateAddresses(), pi.ports(), pi.sslPorts()),
+          previousNodes.get(pi.identifier()),
+          managedNodes,
+          Optional.empty()
+        ))
         .then();
     });
   }
@@ -701,79 +713,150 @@ public class Core {
   /**
    * Contains logic to perform reconfiguration for a bucket config.
    *
-   * @param bucketConfigs the flux of bucket configs currently open.
+   * <p>Buckets whose config has not been swapped since the last reconfiguration are skipped, and for all others
+   * only the nodes whose services changed are touched. A config which only changed the partition map therefore
+   * results in no node or service changes at all.</p>
+   *
+   * @param bucketConfigs the bucket configs currently open.
+   * @param previousConfigs the bucket configs applied during the last reconfiguration.
+   * @param managedNodes the identifiers of all nodes managed at the start of this reconfiguration.
    * @return a mono once reconfiguration for all buckets is complete
    */
-  private Mono<Void> reconfigureBuckets(final Flux<BucketConfig> bucketConfigs) {
-    return bucketConfigs.flatMap(bc ->
-      Flux.fromIterable(bc.nodes())
-        .flatMap(ni -> {
-          boolean tls = coreContext.environment().securityConfig().tlsEnabled();
-
-          Set<Map.Entry<ServiceType, Integer>> aServices = null;
-          Optional<String> alternateAddress = coreContext.alternateAddress();
-          String aHost = null;
-          if (alternateAddress.isPresent()) {
-            AlternateAddress aa = ni.alternateAddresses().get(alternateAddress.get());
-            aHost = aa.hostname();
-            aServices = tls ? aa.sslServices().entrySet() : aa.services().entrySet();
+  private Mono<Void> reconfigureBuckets(final Collection<BucketConfig> bucketConfigs,
+                                        final Map<String, BucketConfig> previousConfigs,
+                                        final Set<NodeIdentifier> managedNodes) {
+    return Flux
+      .fromIterable(bucketConfigs)
+      .flatMap(bc -> {
+        BucketConfig previousConfig = previousConfigs.get(bc.name());
+        if (previousConfig == bc) {
+          return Flux.empty();
+        }
+
+        Map<NodeIdentifier, ResolvedServices> previousNodes = new HashMap<>();
+        if (previousConfig != null) {
+          for (NodeInfo ni : previousConfig.nodes()) {
+            previousNodes.put(ni.identifier(), resolveServices(ni.alternateAddresses(), ni.services(), ni.sslServices()));
           }
+        }
 
+        return Flux
+          .fromIterable(bc.nodes())
+          .flatMap(ni -> reconfigureNode(
+            ni.identifier(),
+            ni.hostname(),
+            resolveServices(ni.alternateAddresses(), ni.services(), ni.sslServices()),
+            previousNodes.get(ni.identifier()),
+            managedNodes,
+            Optional.of(bc.name())
+          ));
+      })
+      .then();
+  }
 
-          if (isNullOrEmpty(aServices)) {
-            aServices = tls ? ni.sslServices().entrySet() : ni.services().entrySet();
-          }
+  /**
+   * Aligns the services of a single node with the config.
+   *
+   * <p>If the node has been seen with the same alternate address in the previously applied config (and it is
+   * still managed), only services which have been added, moved to a different port or removed are touched.
+   * Otherwise all services in the config are ensured and all others removed.</p>
+   *
+   * @param identifier the identifier of the node.
+   * @param hostname the hostname of the node, used for events.
+   * @param current the services of the node in the current config.
+   * @param previous the services of the node in the previously applied config, null if not present.
+   * @param managedNodes the identifiers of all nodes managed at the start of this reconfiguration.
+   * @param bucket the name of the bucket for bucket-scoped services, empty for the global config.
+   * @return a flux which completes once all services are aligned.
+   */
+  private Flux<Void> reconfigureNode(final NodeIdentifier identifier, final String hostname,
+                                     final ResolvedServices current, final ResolvedServices previous,
+                                     final Set<NodeIdentifier> managedNodes, final Optional<String> bucket) {
+    if (previous != null && previous.equals(current) && managedNodes.contains(identifier)) {
+      return Flux.empty();
+    }
 
-          final String alternateHost = aHost;
-          final Set<Map.Entry<ServiceType, Integer>> services = aServices;
+    final boolean incremental = previous != null
+      && managedNodes.contains(identifier)
+      && Objects.equals(previous.alternateHost, current.alternateHost);
+
+    Flux<Void> serviceRemoveFlux = Flux
+      .fromArray(ServiceType.values())
+      .filter(s -> !current.services.containsKey(s) && (!incremental || previous.services.containsKey(s)))
+      .flatMap(s -> removeServiceFrom(
+        identifier,
+        s,
+        s.scope() == ServiceScope.BUCKET ? bucket : Optional.empty())
+        .onErrorResume(throwable -> serviceReconfigurationFailed(hostname, s, throwable))
+      );
 
-          Flux<Void> serviceRemoveFlux = Flux
-            .fromIterable(Arrays.asList(ServiceType.values()))
-            .filter(s -> {
-              for (Map.Entry<ServiceType, Integer> inConfig : services) {
-                if (inConfig.getKey() == s) {
-                  return false;
-                }
-              }
-              return true;
-            })
-            .flatMap(s -> removeServiceFrom(
-              ni.identifier(),
-              s,
-              s.scope() == ServiceScope.BUCKET ? Optional.of(bc.name()) : Optional.empty())
-              .onErrorResume(throwable -> {
-                eventBus.publish(new ServiceReconfigurationFailedEvent(
-                  coreContext,
-                  ni.hostname(),
-                  s,
-                  throwable
-                ));
-                return Mono.empty();
-              })
-            );
-
-          Flux<Void> serviceAddFlux = Flux
-            .fromIterable(services)
-            .flatMap(s -> ensureServiceAt(
-              ni.identifier(),
-              s.getKey(),
-              s.getValue(),
-              s.getKey().scope() == ServiceScope.BUCKET ? Optional.of(bc.name()) : Optional.empty(),
-              Optional.ofNullable(alternateHost))
-              .onErrorResume(throwable -> {
-                eventBus.publish(new ServiceReconfigurationFailedEvent(
-                  coreContext,
-                  ni.hostname(),
-                  s.getKey(),
-                  throwable
-                ));
-                return Mono.empty();
-              })
-            );
-
-          return Flux.merge(serviceAddFlux, serviceRemoveFlux);
-        })
-    ).then();
+    Flux<Void> serviceAddFlux = Flux
+      .fromIterable(current.services.entrySet())
+      .filter(s -> !incremental || !s.getValue().equals(previous.services.get(s.getKey())))
+      .flatMap(s -> ensureServiceAt(
+        identifier,
+        s.getKey(),
+        s.getValue(),
+        s.getKey().scope() == ServiceScope.BUCKET ? bucket : Optional.empty(),
+        Optional.ofNullable(current.alternateHost))
+        .onErrorResume(throwable -> serviceReconfigurationFailed(hostname, s.getKey(), throwable))
+      );
+
+    return Flux.merge(serviceAddFlux, serviceRemoveFlux);
+  }
+
+  /**
+   * Publishes the failure of a single service and marks the reconfiguration as failed, so the next one
+   * looks at all nodes and services again.
+   */
+  private Mono<Void> serviceReconfigurationFailed(final String hostname, final ServiceType serviceType,
+                                                  final Throwable throwable) {
+    serviceReconfigurationFailed = true;
+    eventBus.publish(new ServiceReconfigurationFailedEvent(coreContext, hostname, serviceType, throwable));
+    return Mono.empty();
+  }
+
+  /**
+   * Resolves the services (and the alternate hostname, if used) which should be enabled for a node.
+   */
+  private ResolvedServices resolveServices(final Map<String, AlternateAddress> alternateAddresses,
+                                           final Map<ServiceType, Integer> services,
+                                           final Map<ServiceType, Integer> sslServices) {
+    boolean tls = coreContext.environment().securityConfig().tlsEnabled();
+
+    Map<ServiceType, Integer> aServices = null;
+    Optional<String> alternateAddress = coreContext.alternateAddress();
+    String aHost = null;
+    if (alternateAddress.isPresent()) {
+      AlternateAddress aa = alternateAddresses.get(alternateAddress.get());
+      aHost = aa.hostname();
+      aServices = tls ? aa.sslServices() : aa.services();
+    }
+
+    if (isNullOrEmpty(aServices)) {
+      aServices = tls ? sslServices : services;
+    }
+
+    return new ResolvedServices(aServices, aHost);
+  }
+
+  /**
+   * Collects the identifiers of all nodes present in either a bucket config or the global config.
+   */
+  private static Set<NodeIdentifier> presentNodes(final Collection<BucketConfig> bucketConfigs,
+                                                  final GlobalConfig globalConfig) {
+    Set<NodeIdentifier> present = new HashSet<>();
+    for (BucketConfig bc : bucketConfigs) {
+      for (NodeInfo ni : bc.nodes()) {
+        present.add(ni.identifier());
+      }
+    }
+    if (globalConfig != null) {
+      for (PortInfo pi : globalConfig.portInfos()) {
+        present.add(pi.identifier());
+      }
+    }
+    return present;
   }
 
   /**
@@ -782,10 +865,10 @@ public class Core {
    * @param serviceType the service type for which a locator should be returned.
    * @return the locator for the service type, or an exception if unknown.
    */
-  private static Locator locator(final ServiceType serviceType) {
+  private Locator locator(final ServiceType serviceType) {
     switch (serviceType) {
       case KV:
-        return KEY_VALUE_LOCATOR;
+        return keyValueLocator;
       case MANAGER:
         return MANAGER_LOCATOR;
       case QUERY:
@@ -801,4 +884,32 @@ public class Core {
     }
   }
 
+  /**
+   * The services (and alternate hostname, if used) resolved for a node in a config, used to diff
+   * subsequent configs against each other.
+   */
+  private static class ResolvedServices {
+
+    private final Map<ServiceType, Integer> services;
+    private final String alternateHost;
+
+    ResolvedServices(final Map<ServiceType, Integer> services, final String alternateHost) {
+      this.services = services;
+      this.alternateHost = alternateHost;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      ResolvedServices that = (ResolvedServices) o;
+      return Objects.equals(services, that.services) && Objects.equals(alternateHost, that.alternateHost);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(services, alternateHost);
+    }
+  }
+
 }
@@ -18,16 +18,21 @@ package com.couchbase.client.core.cnc;
 
 import com.couchbase.client.core.deps.org.jctools.queues.QueueFactory;
 import com.couchbase.client.core.deps.org.jctools.queues.spec.ConcurrentQueueSpec;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 /**
@@ -40,6 +45,13 @@ import java.util.function.Consumer;
  * <p>Subscribers of this API are considered to be non-blocking and if they have to blocking
  * tasks need to fan them out into their own thread pool.</p>
  *
+ * <p>Events are drained from the queue in batches. If no events are available, the thread parks for the idle
+ * sleep duration. If {@link Builder#wakeUpOnPublish(boolean)} is enabled, publishers unpark the thread so that
+ * events are delivered right away instead of after up to the idle sleep duration.</p>
+ *
+ * <p>Subscribers can also be registered for specific {@link Event.Category categories} only, in which case
+ * they are not invoked (and do not slow down the dispatch) for events of any other category.</p>
+ *
  * <p>Keep in mind to properly {@link #start()} and {@link #stop(Duration)} since it runs in its
  * own thread!</p>
  */
@@ -58,10 +70,20 @@ public class DefaultEventBus implements EventBus {
   private static final Duration DEFAULT_IDLE_SLEEP_DURATION = Duration.ofMillis(100);
 
   /**
-   * Holds all current event subscribers.
+   * By default, up to 256 events are drained from the queue before checking for shutdown or idling.
+   */
+  private static final int DEFAULT_DRAIN_BATCH_SIZE = 256;
+
+  /**
+   * Holds all current event subscribers for all categories.
    */
   private final CopyOnWriteArraySet<Consumer<Event>> subscribers;
 
+  /**
+   * Holds the event subscribers which only subscribed to specific categories, indexed by category path.
+   */
+  private final Map<String, CopyOnWriteArraySet<Consumer<Event>>> categorySubscribers;
+
   /**
    * Holds the bounded event mpsc queue dealing with all the events.
    */
@@ -88,6 +110,21 @@ public class DefaultEventBus implements EventBus {
    */
   private final Duration idleSleepDuration;
 
+  /**
+   * The maximum number of events drained from the queue at once.
+   */
+  private final int drainBatchSize;
+
+  /**
+   * If publishers should wake up the parked event bus thread.
+   */
+  private final boolean wakeUpOnPublish;
+
+  /**
+   * Set by the event bus thread while it is (about to be) parked and waiting for events.
+   */
+  private volatile boolean parked;
+
   /**
    * The scheduler used during i.e. shutdown.
    */
@@ -109,6 +146,7 @@ public class DefaultEventBus implements EventBus {
   private DefaultEventBus(final Builder builder) {
     scheduler = builder.scheduler;
     subscribers = new CopyOnWriteArraySet<>();
+    categorySubscribers = new ConcurrentHashMap<>();
     running = new AtomicBoolean(false);
 
     eventQueue = QueueFactory.newQueue(
@@ -117,6 +155,8 @@ public class DefaultEventBus implements EventBus {
     errorLogging = builder.errorLogging.orElse(null);
     threadName = builder.threadName;
     idleSleepDuration = builder.idleSleepDuration;
+    drainBatchSize = builder.drainBatchSize;
+    wakeUpOnPublish = builder.wakeUpOnPublish;
   }
 
   @Override
@@ -125,9 +165,26 @@ public class DefaultEventBus implements EventBus {
     return new EventSubscription(this, consumer);
   }
 
+  /**
+   * Subscribes a {@link Consumer} to receive only {@link Event Events} of the given categories.
+   *
+   * @param consumer the consumer which will receive events.
+   * @param categories the categories of events the consumer is interested in.
+   * @return a {@link EventSubscription} that can be used to unsubscribe.
+   */
+  public EventSubscription subscribe(final Consumer<Event> consumer, final Set<Event.Category> categories) {
+    for (Event.Category category : categories) {
+      categorySubscribers.computeIfAbsent(category.path(), c -> new CopyOnWriteArraySet<>()).add(consumer);
+    }
+    return new EventSubscription(this, consumer);
+  }
+
   @Override
   public void unsubscribe(final EventSubscription subscription) {
     subscribers.remove(subscription.consumer());
+    for (CopyOnWriteArraySet<Consumer<Event>> forCategory : categorySubscribers.values()) {
+      forCategory.remove(subscription.consumer());
+    }
   }
 
   @Override
@@ -135,6 +192,9 @@ public class DefaultEventBus implements EventBus {
     if (!isRunning()) {
       return PublishResult.SHUTDOWN;
     } else if (eventQueue.offer(event)) {
+      if (wakeUpOnPublish && parked) {
+        LockSupport.unpark(runningThread);
+      }
       return PublishResult.SUCCESS;
     } else {
       if (errorLogging != null) {
@@ -152,34 +212,30 @@ public class DefaultEventBus implements EventBus {
     return Mono.defer(() -> {
       if (running.compareAndSet(false, true)) {
         runningThread = new Thread(() -> {
-          long idleSleepTime = idleSleepDuration.toMillis();
+          long idleSleepNanos = idleSleepDuration.toNanos();
+          Event[] batch = new Event[drainBatchSize];
           while (isRunning() || !eventQueue.isEmpty()) {
-            Event event = eventQueue.poll();
-            while (event != null) {
-              for (Consumer<Event> subscriber : subscribers) {
-                try {
-                  subscriber.accept(event);
-                } catch (Throwable t) {
-                  // any exception thrown in the event consumer is
-                  // ignored, since it would otherwise kill the
-                  // event bus thread!
-                  if (errorLogging != null) {
-                    errorLogging.println("Exception caught in EventBus Consumer: " + t);
-                    t.printStackTrace();
-                  }
-                }
-              }
-              event = eventQueue.poll();
+            int drained = 0;
+            Event event;
+            while (drained < batch.length && (event = eventQueue.poll()) != null) {
+              batch[drained++] = event;
+            }
+
+            for (int i = 0; i < drained; i++) {
+              dispatch(batch[i]);
+              batch[i] = null;
             }
 
-            try {
-              if (isRunning()) {
-                Thread.sleep(idleSleepTime);
+            if (drained == 0 && isRunning()) {
+              // If this thread is interrupted (or unparked by a publisher), we continue
+              // into the loop early. so if interrupted for shutdown it completes quickly
+              // while parked
+              parked = true;
+              if (eventQueue.isEmpty() && isRunning()) {
+                LockSupport.parkNanos(this, idleSleepNanos);
               }
-            } catch (InterruptedException e) {
-              // If this thread is interrupted, we continue
-              // into the loop early. so if interrupted for
-              // shutdown it completes quickly while sleeping
+              parked = false;
+              Thread.interrupted();
             }
           }
         });
@@ -192,6 +248,39 @@ public class DefaultEventBus implements EventBus {
     });
   }
 
+  /**
+   * Dispatches the event to all subscribers for all categories and those subscribed to its category.
+   *
+   * @param event the event to dispatch.
+   */
+  private void dispatch(final Event event) {
+    dispatch(event, subscribers);
+
+    if (!categorySubscribers.isEmpty()) {
+      String category = event.category();
+      CopyOnWriteArraySet<Consumer<Event>> forCategory = category == null ? null : categorySubscribers.get(category);
+      if (forCategory != null) {
+        dispatch(event, forCategory);
+      }
+    }
+  }
+
+  private void dispatch(final Event event, final CopyOnWriteArraySet<Consumer<Event>> consumers) {
+    for (Consumer<Event> subscriber : consumers) {
+      try {
+        subscriber.accept(event);
+      } catch (Throwable t) {
+        // any exception thrown in the event consumer is
+        // ignored, since it would otherwise kill the
+        // event bus thread!
+        if (errorLogging != null) {
+          errorLogging.println("Exception caught in EventBus Consumer: " + t);
+          t.printStackTrace();
+        }
+      }
+    }
+  }
+
   /**
    * Stops the {@link DefaultEventBus} from running.
    */
@@ -219,7 +308,15 @@ public class DefaultEventBus implements EventBus {
    * True if there are subscribers on the event bus right now.
    */
   boolean hasSubscribers() {
-    return !subscribers.isEmpty();
+    if (!subscribers.isEmpty()) {
+      return true;
+    }
+    for (CopyOnWriteArraySet<Consumer<Event>> forCategory : categorySubscribers.values()) {
+      if (!forCategory.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -233,6 +330,8 @@ public class DefaultEventBus implements EventBus {
     Optional<PrintStream> errorLogging;
     String threadName;
     Duration idleSleepDuration;
+    int drainBatchSize;
+    boolean wakeUpOnPublish;
 
     Builder(Scheduler scheduler) {
       this.scheduler = scheduler;
@@ -241,6 +340,8 @@ public class DefaultEventBus implements EventBus {
       errorLogging = Optional.of(System.err);
       threadName = "cb-events";
       idleSleepDuration = DEFAULT_IDLE_SLEEP_DURATION;
+      drainBatchSize = DEFAULT_DRAIN_BATCH_SIZE;
+      wakeUpOnPublish = false;
     }
 
     public Builder queueCapacity(final int queueCapacity) {
@@ -263,6 +364,35 @@ public class DefaultEventBus implements EventBus {
       return this;
     }
 
+    /**
+     * Customizes the maximum number of events which are drained from the queue at once.
+     *
+     * @param drainBatchSize the batch size, needs to be greater than 0.
+     * @return this builder for chaining.
+     */
+    public Builder drainBatchSize(final int drainBatchSize) {
+      if (drainBatchSize <= 0) {
+        throw InvalidArgumentException.fromMessage("The drain batch size needs to be greater than 0");
+      }
+      this.drainBatchSize = drainBatchSize;
+      return this;
+    }
+
+    /**
+     * If enabled, publishing an event wakes up the idle event bus thread right away instead of waiting for
+     * the idle sleep duration to pass.
+     *
+     * <p>This allows for sub-millisecond event delivery (i.e. for consumers reacting to endpoint events), at the
+     * cost of a wake-up for the first event published after an idle period.</p>
+     *
+     * @param wakeUpOnPublish true if publishers should wake up the event bus thread.
+     * @return this builder for chaining.
+     */
+    public Builder wakeUpOnPublish(final boolean wakeUpOnPublish) {
+      this.wakeUpOnPublish = wakeUpOnPublish;
+      return this;
+    }
+
     public DefaultEventBus build() {
       return new DefaultEventBus(this);
     }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The {@link Meter} describes the metrics abstraction in the SDK.
+ * <p>
+ * Implementations hand out {@link ValueRecorder ValueRecorders} identified by a name and a set of tags, which the
+ * SDK feeds with the timings of every completed request. The core ships with a noop and an aggregating
+ * implementation, but others can be plugged in to forward the values into an external metrics system.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public interface Meter {
+
+  /**
+   * The name of the recorder which records the total (logical) request latency.
+   */
+  String REQUEST_TOTAL_LATENCY = "cb.requests.total";
+
+  /**
+   * The name of the recorder which records the latency of the last dispatch to the server.
+   */
+  String REQUEST_DISPATCH_LATENCY = "cb.requests.dispatch";
+
+  /**
+   * The name of the recorder which records the server-side duration, if reported by the server.
+   */
+  String REQUEST_SERVER_LATENCY = "cb.requests.server";
+
+  /**
+   * The name of the recorder which records the time it took to encode the request payload.
+   */
+  String REQUEST_ENCODE_LATENCY = "cb.requests.encode";
+
+  /**
+   * The name of the recorder which records the adaptive key-value concurrency limit of a node whenever it changes.
+   */
+  String KV_CONCURRENCY_LIMIT = "cb.limiter.kv";
+
+  /**
+   * The tag which identifies the service (i.e. "kv").
+   */
+  String TAG_SERVICE = "cb.service";
+
+  /**
+   * The tag which identifies the node (hostname and port) the request has last been dispatched to.
+   */
+  String TAG_NODE = "cb.node";
+
+  /**
+   * The tag which identifies the bucket, if the request is scoped to one.
+   */
+  String TAG_BUCKET = "cb.bucket";
+
+  /**
+   * The tag which identifies the operation (i.e. "GetRequest").
+   */
+  String TAG_OPERATION = "cb.operation";
+
+  /**
+   * Returns the value recorder for the given name and tags.
+   * <p>
+   * Implementations are encouraged to return the same recorder for the same name and tags, since this method is
+   * called for every completed request.
+   *
+   * @param name the name of the recorder.
+   * @param tags the tags which further identify the recorder.
+   * @return the value recorder, never null.
+   */
+  ValueRecorder valueRecorder(String name, Map<String, String> tags);
+
+  /**
+   * Starts the meter if it hasn't been started, might be a noop depending on the implementation.
+   */
+  Mono<Void> start();
+
+  /**
+   * Stops the meter if it has been started previously, might be a noop depending on the implementation.
+   */
+  Mono<Void> stop(Duration timeout);
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Records a distribution of values (i.e. latencies), as handed out by a {@link Meter}.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public interface ValueRecorder {
+
+  /**
+   * Records a single value.
+   *
+   * @param value the value to record, latencies are recorded in microseconds.
+   */
+  void recordValue(long value);
+
+}
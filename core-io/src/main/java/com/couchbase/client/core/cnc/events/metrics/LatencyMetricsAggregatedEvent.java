@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.events.metrics;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+import com.couchbase.client.core.json.Mapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits the latency percentiles which have been aggregated over the last emit interval.
+ */
+public class LatencyMetricsAggregatedEvent extends AbstractEvent {
+
+  private final List<Map<String, Object>> latencies;
+
+  public LatencyMetricsAggregatedEvent(final Duration duration, final List<Map<String, Object>> latencies) {
+    super(Severity.INFO, Category.METRICS, duration, null);
+    this.latencies = latencies;
+  }
+
+  public List<Map<String, Object>> latencies() {
+    return latencies;
+  }
+
+  @Override
+  public String description() {
+    return "Aggregated latencies: " + Mapper.encodeAsString(latencies);
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The default metrics implementation, which aggregates all recorded values into HDR histograms per name and tags
+ * and periodically emits their percentiles.
+ * <p>
+ * The percentiles of every interval are published as a {@link LatencyMetricsAggregatedEvent} on the event bus and
+ * are also available through {@link #latestInterval()} until the next interval has been collected.
+ *
+ * @since 2.1.0
+ */
+public class AggregatingMeter implements Meter {
+
+  private static final AtomicInteger METER_ID = new AtomicInteger();
+
+  private final Map<RecorderKey, AggregatingValueRecorder> recorders = new ConcurrentHashMap<>();
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final EventBus eventBus;
+  private final Duration emitInterval;
+  private final Thread worker;
+
+  private volatile List<Map<String, Object>> latestInterval = Collections.emptyList();
+
+  /**
+   * Creates a meter with config and a reference to the event bus.
+   *
+   * @param eventBus the event bus where the aggregated intervals will be emitted into.
+   * @param config the config that should be used.
+   * @return the created meter ready to be started.
+   */
+  public static AggregatingMeter create(final EventBus eventBus, final AggregatingMeterConfig config) {
+    return new AggregatingMeter(eventBus, config);
+  }
+
+  private AggregatingMeter(final EventBus eventBus, final AggregatingMeterConfig config) {
+    this.eventBus = eventBus;
+    this.emitInterval = config.emitInterval();
+
+    worker = new Thread(new Worker());
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
+    AggregatingValueRecorder recorder = recorders.get(new RecorderKey(name, tags));
+    if (recorder != null) {
+      return recorder;
+    }
+
+    Map<String, String> copiedTags = Collections.unmodifiableMap(new HashMap<>(tags));
+    AggregatingValueRecorder created = new AggregatingValueRecorder(name, copiedTags);
+    AggregatingValueRecorder existing = recorders.putIfAbsent(new RecorderKey(name, copiedTags), created);
+    return existing == null ? created : existing;
+  }
+
+  /**
+   * Returns the percentiles of all recorders which recorded values in the latest completed interval.
+   */
+  public List<Map<String, Object>> latestInterval() {
+    return latestInterval;
+  }
+
+  /**
+   * Collects the current interval from all recorders and publishes it if values have been recorded.
+   */
+  void collectInterval() {
+    List<Map<String, Object>> output = new ArrayList<>();
+    for (AggregatingValueRecorder recorder : recorders.values()) {
+      Map<String, Object> interval = recorder.collectInterval();
+      if (interval != null) {
+        output.add(interval);
+      }
+    }
+
+    latestInterval = Collections.unmodifiableList(output);
+    if (!output.isEmpty()) {
+      eventBus.publish(new LatencyMetricsAggregatedEvent(emitInterval, latestInterval));
+    }
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(false, true)) {
+        worker.start();
+      }
+      return Mono.empty();
+    });
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(true, false)) {
+        worker.interrupt();
+      }
+      return Mono.empty();
+    });
+  }
+
+  /**
+   * The worker collects and emits the interval histograms at the configured emit interval.
+   */
+  private class Worker implements Runnable {
+
+    @Override
+    public void run() {
+      Thread.currentThread().setName("cb-metrics-" + METER_ID.incrementAndGet());
+
+      while (running.get()) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(emitInterval.toNanos());
+          collectInterval();
+        } catch (final InterruptedException ex) {
+          if (!running.get()) {
+            return;
+          } else {
+            Thread.currentThread().interrupt();
+          }
+        } catch (final Exception ex) {
+          // ignored, the next interval will be collected regardless.
+        }
+      }
+    }
+  }
+
+  /**
+   * Identifies a recorder by its name and tags.
+   */
+  private static class RecorderKey {
+
+    private final String name;
+    private final Map<String, String> tags;
+
+    RecorderKey(final String name, final Map<String, String> tags) {
+      this.name = name;
+      this.tags = tags;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      RecorderKey that = (RecorderKey) o;
+      return Objects.equals(name, that.name) && Objects.equals(tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, tags);
+    }
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A value recorder which keeps an HDR histogram of all values recorded in the current interval.
+ * <p>
+ * Recording is wait-free, so it can happen concurrently from any thread (including the event loops), while the
+ * {@link AggregatingMeter} periodically swaps out the interval histogram to compute the percentiles.
+ */
+public class AggregatingValueRecorder implements ValueRecorder {
+
+  /**
+   * The highest value which can be tracked, larger values are clamped to it.
+   */
+  static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toMicros(5);
+
+  /**
+   * The percentiles which are exported for each interval.
+   */
+  private static final double[] PERCENTILES = new double[] { 50.0, 90.0, 99.0, 99.9, 100.0 };
+
+  private final String name;
+  private final Map<String, String> tags;
+  private final Recorder recorder;
+
+  /**
+   * Holds the previous interval histogram so it can be recycled, only accessed by the collecting thread.
+   */
+  private Histogram intervalHistogram;
+
+  AggregatingValueRecorder(final String name, final Map<String, String> tags) {
+    this.name = name;
+    this.tags = tags;
+    this.recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, 3);
+  }
+
+  @Override
+  public void recordValue(final long value) {
+    recorder.recordValue(Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public Map<String, String> tags() {
+    return tags;
+  }
+
+  /**
+   * Swaps out the current interval and exports its count and percentiles.
+   *
+   * @return the exported interval, or null if no values have been recorded in it.
+   */
+  synchronized Map<String, Object> collectInterval() {
+    intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+    long count = intervalHistogram.getTotalCount();
+    if (count == 0) {
+      return null;
+    }
+
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    for (double percentile : PERCENTILES) {
+      percentiles.put(Double.toString(percentile), intervalHistogram.getValueAtPercentile(percentile));
+    }
+
+    Map<String, Object> output = new LinkedHashMap<>();
+    output.put("name", name);
+    output.put("tags", tags);
+    output.put("count", count);
+    output.put("percentiles_us", percentiles);
+    return output;
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A simple NOOP implementation of the meter, used if metrics are disabled.
+ */
+public class NoopMeter implements Meter {
+
+  public static final NoopMeter INSTANCE = new NoopMeter();
+
+  private NoopMeter() { }
+
+  @Override
+  public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
+    return NoopValueRecorder.INSTANCE;
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return Mono.empty();
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.empty();
+  }
+
+}
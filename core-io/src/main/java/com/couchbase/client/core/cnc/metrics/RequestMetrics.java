@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.ScopedRequest;
+import com.couchbase.client.core.util.HostAndPort;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds the timings of a logically completed request into the {@link Meter}.
+ * <p>
+ * Since this runs for every completed request, the value recorders are looked up once per service, operation,
+ * node and bucket and then reused, so recording does not allocate tags or lookup keys on the hot path.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class RequestMetrics {
+
+  /**
+   * Used in place of the node or bucket if the request does not have one, since the cache does not allow nulls.
+   */
+  private static final Object ABSENT = new Object();
+
+  private final Meter meter;
+
+  /**
+   * Caches the recorders per request type, which also determines the service and the operation name.
+   */
+  private final ClassValue<OperationRecorders> operations = new ClassValue<OperationRecorders>() {
+    @Override
+    protected OperationRecorders computeValue(final Class<?> type) {
+      return new OperationRecorders(type.getSimpleName());
+    }
+  };
+
+  /**
+   * Creates the request metrics for the given meter.
+   *
+   * @param meter the meter to record into.
+   */
+  public RequestMetrics(final Meter meter) {
+    this.meter = meter;
+  }
+
+  /**
+   * Records all available timings of the given request.
+   *
+   * @param request the logically completed request.
+   */
+  public void record(final Request<?> request) {
+    if (meter == null || meter instanceof NoopMeter) {
+      return;
+    }
+
+    RequestContext ctx = request.context();
+    HostAndPort node = ctx.lastDispatchedTo();
+    String bucket = request instanceof ScopedRequest ? ((ScopedRequest) request).bucket() : null;
+    Recorders recorders = operations.get(request.getClass()).recorders(request, node, bucket);
+
+    recordNanos(recorders.total, ctx.logicalRequestLatency());
+    recordNanos(recorders.dispatch, ctx.dispatchLatency());
+    recordMicros(recorders.server, ctx.serverLatency());
+    recordNanos(recorders.encode, ctx.encodeLatency());
+  }
+
+  private static void recordNanos(final ValueRecorder recorder, final long nanos) {
+    if (nanos > 0) {
+      recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+  }
+
+  private static void recordMicros(final ValueRecorder recorder, final long micros) {
+    if (micros > 0) {
+      recorder.recordValue(micros);
+    }
+  }
+
+  /**
+   * Holds the recorders of a single request type, per node and bucket.
+   */
+  private class OperationRecorders {
+
+    private final String operation;
+    private final ConcurrentMap<Object, ConcurrentMap<Object, Recorders>> nodes = new ConcurrentHashMap<>();
+
+    OperationRecorders(final String operation) {
+      this.operation = operation;
+    }
+
+    Recorders recorders(final Request<?> request, final HostAndPort node, final String bucket) {
+      ConcurrentMap<Object, Recorders> buckets = nodes.computeIfAbsent(
+        node == null ? ABSENT : node,
+        k -> new ConcurrentHashMap<>()
+      );
+      Recorders recorders = buckets.get(bucket == null ? ABSENT : bucket);
+      if (recorders == null) {
+        recorders = buckets.computeIfAbsent(
+          bucket == null ? ABSENT : bucket,
+          k -> new Recorders(meter, tags(request, node, bucket))
+        );
+      }
+      return recorders;
+    }
+
+    private Map<String, String> tags(final Request<?> request, final HostAndPort node, final String bucket) {
+      Map<String, String> tags = new HashMap<>(8);
+      tags.put(Meter.TAG_SERVICE, request.serviceType().ident());
+      tags.put(Meter.TAG_OPERATION, operation);
+      if (node != null) {
+        tags.put(Meter.TAG_NODE, node.toString());
+      }
+      if (bucket != null) {
+        tags.put(Meter.TAG_BUCKET, bucket);
+      }
+      return tags;
+    }
+  }
+
+  /**
+   * The recorders for all timings of one service, operation, node and bucket.
+   */
+  private static class Recorders {
+
+    private final ValueRecorder total;
+    private final ValueRecorder dispatch;
+    private final ValueRecorder server;
+    private final ValueRecorder encode;
+
+    Recorders(final Meter meter, final Map<String, String> tags) {
+      this.total = meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags);
+      this.dispatch = meter.valueRecorder(Meter.REQUEST_DISPATCH_LATENCY, tags);
+      this.server = meter.valueRecorder(Meter.REQUEST_SERVER_LATENCY, tags);
+      this.encode = meter.valueRecorder(Meter.REQUEST_ENCODE_LATENCY, tags);
+    }
+  }
+
+}
@@ -21,9 +21,10 @@ import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.cnc.RequestTracer;
 import com.couchbase.client.core.cnc.events.tracing.OverThresholdRequestsRecordedEvent;
-import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscArrayQueue;
 import com.couchbase.client.core.env.ThresholdRequestTracerConfig;
 import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.util.HostAndPort;
 import reactor.core.publisher.Mono;
@@ -39,12 +40,18 @@ import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.couchbase.client.core.logging.RedactableArgument.redactSystem;
 
 /**
  * The default tracing implementation, which tracks the top N slowest requests per service and dumps them at
  * configurable intervals.
+ * <p>
+ * The memory used is fixed regardless of how many requests are over threshold: only a compact sample (timings and
+ * identifiers, but never the request itself) is captured at completion time and handed off through a bounded
+ * queue. Requests which cannot make it into the top N of the current interval are only counted.
  */
 public class ThresholdRequestTracer implements RequestTracer {
 
@@ -54,16 +61,41 @@ public class ThresholdRequestTracer implements RequestTracer {
   private static final String KEY_ENCODE_MICROS = "encode_us";
   private static final String KEY_SERVER_MICROS = "server_us";
 
+  /**
+   * The service identifiers, indexed by {@link #serviceIndex(ServiceType)}.
+   */
+  private static final String[] SERVICE_IDENTIFIERS = new String[] {
+    SERVICE_IDENTIFIER_KV,
+    SERVICE_IDENTIFIER_QUERY,
+    SERVICE_IDENTIFIER_VIEW,
+    SERVICE_IDENTIFIER_SEARCH,
+    SERVICE_IDENTIFIER_ANALYTICS
+  };
+
   private final AtomicBoolean running = new AtomicBoolean(false);
-  private final Queue<Request<?>> overThresholdQueue;
+  private final Queue<Sample> overThresholdQueue;
   private final EventBus eventBus;
   private final Thread worker;
 
-  private final long kvThreshold;
-  private final long queryThreshold;
-  private final long viewThreshold;
-  private final long searchThreshold;
-  private final long analyticsThreshold;
+  /**
+   * The thresholds in nanoseconds per service index.
+   */
+  private final long[] thresholds;
+
+  /**
+   * Counts all requests over threshold in the current interval per service index, including the ones which
+   * have not been sampled.
+   */
+  private final LongAdder[] overThresholdCounts;
+
+  /**
+   * The lowest latency which can still make it into the top N of the current interval per service index.
+   * <p>
+   * Updated by the worker once its sample set for the service is full, so that requests which would be evicted
+   * right away are not even captured.
+   */
+  private final AtomicLongArray admissionFloors;
+
   private final long emitIntervalNanos;
   private final int sampleSize;
 
@@ -107,12 +139,19 @@ public class ThresholdRequestTracer implements RequestTracer {
    */
   private ThresholdRequestTracer(final EventBus eventBus, ThresholdRequestTracerConfig config) {
     this.eventBus = eventBus;
-    this.overThresholdQueue = new MpscUnboundedArrayQueue<>(config.queueLength());
-    kvThreshold = config.kvThreshold().toNanos();
-    analyticsThreshold = config.analyticsThreshold().toNanos();
-    searchThreshold = config.searchThreshold().toNanos();
-    viewThreshold = config.viewThreshold().toNanos();
-    queryThreshold = config.queryThreshold().toNanos();
+    this.overThresholdQueue = new MpscArrayQueue<>(config.queueLength());
+    thresholds = new long[] {
+      config.kvThreshold().toNanos(),
+      config.queryThreshold().toNanos(),
+      config.viewThreshold().toNanos(),
+      config.searchThreshold().toNanos(),
+      config.analyticsThreshold().toNanos()
+    };
+    overThresholdCounts = new LongAdder[SERVICE_IDENTIFIERS.length];
+    for (int i = 0; i < overThresholdCounts.length; i++) {
+      overThresholdCounts[i] = new LongAdder();
+    }
+    admissionFloors = new AtomicLongArray(SERVICE_IDENTIFIERS.length);
     sampleSize = config.sampleSize();
     emitIntervalNanos = config.emitInterval().toNanos();
 
@@ -131,38 +170,49 @@ public class ThresholdRequestTracer implements RequestTracer {
   }
 
   /**
-   * Finishes the span (sends it off into the queue when over threshold).
+   * Finishes the span (captures a sample into the queue when over threshold).
    *
    * @param span the finished internal span from the toplevel request.
    */
   void finish(final ThresholdInternalSpan span) {
     final Request<?> request = span.requestContext().request();
-    if (isOverThreshold(request)) {
-      if (!overThresholdQueue.offer(request)) {
-        // TODO: what to do if dropped because queue full? raise event?
-      }
+    final int service = serviceIndex(request.serviceType());
+    if (service < 0) {
+      return;
+    }
+
+    final long tookNanos = request.context().logicalRequestLatency();
+    if (tookNanos < thresholds[service]) {
+      return;
+    }
+
+    overThresholdCounts[service].increment();
+    if (tookNanos > admissionFloors.get(service)) {
+      // If the queue is full the sample is dropped, but it has been counted above.
+      overThresholdQueue.offer(new Sample(service, tookNanos, request));
     }
   }
 
   /**
-   * Helper method to calculate if the given request is over the configured threshold for this service.
-   *
-   * @param request the request to check.
-   * @return true if over threshold, false otherwise.
+   * Returns the index of the service in the per-service arrays, or -1 if the service is not traced.
    */
-  private boolean isOverThreshold(final Request<?> request) {
-    final long tookNanos = request.context().logicalRequestLatency();
-    final ServiceType serviceType = request.serviceType();
-    if (serviceType == ServiceType.KV && tookNanos >= kvThreshold) {
-      return true;
-    } else if (serviceType == ServiceType.QUERY && tookNanos >= queryThreshold) {
-      return true;
-    } else if (serviceType == ServiceType.ANALYTICS && tookNanos >= analyticsThreshold) {
-      return true;
-    } else if (serviceType == ServiceType.SEARCH && tookNanos >= searchThreshold) {
-      return true;
-    } else {
-      return serviceType == ServiceType.VIEWS && tookNanos >= viewThreshold;
+  private static int serviceIndex(final ServiceType serviceType) {
+    if (serviceType == null) {
+      return -1;
+    }
+    switch (serviceType) {
+      case KV:
+        return 0;
+      case QUERY:
+        return 1;
+      case VIEWS:
+        return 2;
+      case SEARCH:
+        return 3;
+      case ANALYTICS:
+        return 4;
+      default:
+        return -1;
     }
   }
 
@@ -187,7 +237,44 @@ public class ThresholdRequestTracer implements RequestTracer {
   }
 
   /**
-   * The worker picks up requests from the queue and stores it in the per-service queues so that they can be dumped
+   * A compact, immutable sample of an over threshold request.
+   * <p>
+   * Only the timings and identifiers are captured so that neither the request nor its payload is retained.
+   */
+  private static final class Sample {
+
+    private final int service;
+    private final long totalNanos;
+    private final long encodeNanos;
+    private final long dispatchNanos;
+    /**
+     * The server duration is reported by the server in microseconds already.
+     */
+    private final long serverMicros;
+    private final String operationId;
+    private final String operationName;
+    private final HostAndPort local;
+    private final HostAndPort peer;
+    private final String localId;
+
+    Sample(final int service, final long totalNanos, final Request<?> request) {
+      RequestContext ctx = request.context();
+      this.service = service;
+      this.totalNanos = totalNanos;
+      this.encodeNanos = ctx.encodeLatency();
+      this.dispatchNanos = ctx.dispatchLatency();
+      this.serverMicros = ctx.serverLatency();
+      this.operationId = request.operationId();
+      // todo: does this need to be improved?
+      this.operationName = request.getClass().getSimpleName();
+      this.local = ctx.lastDispatchedFrom();
+      this.peer = ctx.lastDispatchedTo();
+      this.localId = ctx.lastChannelId();
+    }
+  }
+
+  /**
+   * The worker picks up samples from the queue and keeps the top N per service so that they can be dumped
    * when configured.
    */
   private class Worker implements Runnable {
@@ -201,27 +288,24 @@ public class ThresholdRequestTracer implements RequestTracer {
     );
 
     /**
-     * Compares request by their logical request latency for the priority threshold queues.
+     * Compares samples by their logical request latency for the priority threshold queues.
      */
-    private final Comparator<Request<?>> THRESHOLD_COMPARATOR = Comparator.comparingLong(
-      o -> o.context().logicalRequestLatency()
-    );
+    private final Comparator<Sample> THRESHOLD_COMPARATOR = Comparator.comparingLong(s -> s.totalNanos);
 
-    private final Queue<Request<?>> kvThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> n1qlThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> viewThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> ftsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> analyticsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-
-    private long kvThresholdCount = 0;
-    private long n1qlThresholdCount = 0;
-    private long viewThresholdCount = 0;
-    private long ftsThresholdCount = 0;
-    private long analyticsThresholdCount = 0;
+    /**
+     * The top N samples per service index, the one with the lowest latency at the head.
+     */
+    private final List<Queue<Sample>> topSamples = new ArrayList<>(SERVICE_IDENTIFIERS.length);
 
     private long lastThresholdLog;
     private boolean hasThresholdWritten;
 
+    Worker() {
+      for (int i = 0; i < SERVICE_IDENTIFIERS.length; i++) {
+        topSamples.add(new PriorityQueue<>(sampleSize + 1, THRESHOLD_COMPARATOR));
+      }
+    }
+
     @Override
     public void run() {
       Thread.currentThread().setName("cb-tracing-" + REQUEST_TRACER_ID.incrementAndGet());
@@ -254,30 +338,11 @@ public class ThresholdRequestTracer implements RequestTracer {
       }
 
       while (true) {
-        Request<?> request = overThresholdQueue.poll();
-        if (request == null) {
+        Sample sample = overThresholdQueue.poll();
+        if (sample == null) {
           return;
         }
-        final ServiceType serviceType = request.serviceType();
-        if (serviceType == ServiceType.KV) {
-          updateThreshold(kvThresholds, request);
-          kvThresholdCount += 1;
-        } else if (serviceType == ServiceType.QUERY) {
-          updateThreshold(n1qlThresholds, request);
-          n1qlThresholdCount += 1;
-        } else if (serviceType == ServiceType.VIEWS) {
-          updateThreshold(viewThresholds, request);
-          viewThresholdCount += 1;
-        } else if (serviceType == ServiceType.SEARCH) {
-          updateThreshold(ftsThresholds, request);
-          ftsThresholdCount += 1;
-        } else if (serviceType == ServiceType.ANALYTICS) {
-          updateThreshold(analyticsThresholds, request);
-          analyticsThresholdCount += 1;
-        } else {
-          // TODO: log error
-          // LOGGER.warn("Unknown service in span {}", service);
-        }
+        updateThreshold(sample);
       }
     }
 
@@ -291,85 +356,57 @@ public class ThresholdRequestTracer implements RequestTracer {
       hasThresholdWritten = false;
 
       List<Map<String, Object>> output = new ArrayList<>();
-      if (!kvThresholds.isEmpty()) {
-        output.add(convertThresholdMetadata(kvThresholds, kvThresholdCount, SERVICE_IDENTIFIER_KV));
-        kvThresholds.clear();
-        kvThresholdCount = 0;
-      }
-      if (!n1qlThresholds.isEmpty()) {
-        output.add(convertThresholdMetadata(n1qlThresholds, n1qlThresholdCount, SERVICE_IDENTIFIER_QUERY));
-        n1qlThresholds.clear();
-        n1qlThresholdCount = 0;
-      }
-      if (!viewThresholds.isEmpty()) {
-        output.add(convertThresholdMetadata(viewThresholds, viewThresholdCount, SERVICE_IDENTIFIER_VIEW));
-        viewThresholds.clear();
-        viewThresholdCount = 0;
-      }
-      if (!ftsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadata(ftsThresholds, ftsThresholdCount, SERVICE_IDENTIFIER_SEARCH));
-        ftsThresholds.clear();
-        ftsThresholdCount = 0;
-      }
-      if (!analyticsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadata(analyticsThresholds, analyticsThresholdCount, SERVICE_IDENTIFIER_ANALYTICS));
-        analyticsThresholds.clear();
-        analyticsThresholdCount = 0;
+      for (int i = 0; i < SERVICE_IDENTIFIERS.length; i++) {
+        Queue<Sample> samples = topSamples.get(i);
+        long count = overThresholdCounts[i].sumThenReset();
+        admissionFloors.set(i, 0);
+        if (!samples.isEmpty()) {
+          output.add(convertThresholdMetadata(samples, count, SERVICE_IDENTIFIERS[i]));
+          samples.clear();
+        }
       }
       logOverThreshold(output);
     }
 
     /**
-     * Converts the metadata of the requests into the format that is suitable for dumping.
+     * Converts the samples into the format that is suitable for dumping.
      *
-     * @param requests the request data to convert
+     * @param samples the samples to convert
      * @param count the total count
      * @param ident the identifier to use
      * @return the converted map
      */
-    private Map<String, Object> convertThresholdMetadata(final Queue<Request<?>> requests, final long count,
+    private Map<String, Object> convertThresholdMetadata(final Queue<Sample> samples, final long count,
                                                          final String ident) {
       Map<String, Object> output = new HashMap<>();
       List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      for (Sample sample : samples) {
         Map<String, Object> entry = new HashMap<>();
-        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(sample.totalNanos));
 
-        String operationId = request.operationId();
-        if (operationId != null) {
-          entry.put("last_operation_id", operationId);
+        if (sample.operationId != null) {
+          entry.put("last_operation_id", sample.operationId);
         }
 
-        // todo: does this need to be improved?
-        entry.put("operation_name", request.getClass().getSimpleName());
+        entry.put("operation_name", sample.operationName);
 
-        HostAndPort local = request.context().lastDispatchedFrom();
-        HostAndPort peer = request.context().lastDispatchedTo();
-        if (local != null) {
-          entry.put("last_local_address", redactSystem(local).toString());
+        if (sample.local != null) {
+          entry.put("last_local_address", redactSystem(sample.local).toString());
         }
-        if (peer != null) {
-          entry.put("last_remote_address", redactSystem(peer).toString());
+        if (sample.peer != null) {
+          entry.put("last_remote_address", redactSystem(sample.peer).toString());
         }
-
-        String localId = request.context().lastChannelId();
-        if (localId != null) {
-          entry.put("last_local_id", redactSystem(localId).toString());
+        if (sample.localId != null) {
+          entry.put("last_local_id", redactSystem(sample.localId).toString());
         }
-
-        long encodeDuration = request.context().encodeLatency();
-        if (encodeDuration > 0) {
-          entry.put(KEY_ENCODE_MICROS, encodeDuration);
+        if (sample.encodeNanos > 0) {
+          entry.put(KEY_ENCODE_MICROS, TimeUnit.NANOSECONDS.toMicros(sample.encodeNanos));
         }
-
-        long dispatchDuration = request.context().dispatchLatency();
-        if (dispatchDuration > 0) {
-          entry.put(KEY_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
+        if (sample.dispatchNanos > 0) {
+          entry.put(KEY_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(sample.dispatchNanos));
         }
-
-        long serverDuration = request.context().serverLatency();
-        if (serverDuration > 0) {
-          entry.put(KEY_SERVER_MICROS, TimeUnit.NANOSECONDS.toMicros(serverDuration));
+        if (sample.serverMicros > 0) {
+          entry.put(KEY_SERVER_MICROS, sample.serverMicros);
         }
 
         top.add(entry);
@@ -395,19 +432,25 @@ public class ThresholdRequestTracer implements RequestTracer {
     }
 
     /**
-     * Helper method which updates the list with the span and ensures that the sample
-     * size is respected.
+     * Helper method which adds the sample to its service and ensures that the sample size is respected.
+     * <p>
+     * Once the sample size is reached, the lowest retained latency becomes the admission floor for new samples.
      */
-    private void updateThreshold(final Queue<Request<?>> thresholds, final Request<?> request) {
-      thresholds.add(request);
+    private void updateThreshold(final Sample sample) {
+      Queue<Sample> samples = topSamples.get(sample.service);
+      samples.add(sample);
       // Remove the element with the lowest duration, so we only keep the highest ones consistently
-      while(thresholds.size() > sampleSize) {
-        thresholds.remove();
+      while (samples.size() > sampleSize) {
+        samples.remove();
+      }
+      if (samples.size() >= sampleSize && !samples.isEmpty()) {
+        admissionFloors.set(sample.service, samples.peek().totalNanos);
       }
       hasThresholdWritten = true;
     }
   }
 
+
   /**
    * The builder used to configure the {@link ThresholdRequestTracer}.
    */
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.compression;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.CodecFlags;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides on a per-document basis if compression should be attempted at all.
+ *
+ * <p>The policy is consulted before any compression work is done and after the size and enabled checks of the
+ * {@link com.couchbase.client.core.env.CompressionConfig} passed, so it allows to avoid burning CPU cycles on the
+ * event loops for content which is known to not compress well (i.e. images or other already compressed
+ * formats).</p>
+ *
+ * <p>The flags passed in are the ones set by the transcoder which encoded the document, so checking them
+ * effectively allows to decide per transcoder.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+@FunctionalInterface
+public interface CompressionPolicy {
+
+  /**
+   * Returns true if compression should be attempted for the document.
+   *
+   * @param collection the collection the document is written into.
+   * @param flags the flags of the document as set by the transcoder.
+   * @return true if compression should be attempted, false otherwise.
+   */
+  boolean shouldCompress(CollectionIdentifier collection, int flags);
+
+  /**
+   * Attempts compression for all documents (the default).
+   */
+  static CompressionPolicy always() {
+    return (collection, flags) -> true;
+  }
+
+  /**
+   * Skips compression for all documents which are flagged as binary (i.e. written through the
+   * RawBinaryTranscoder or the binary append and prepend operations).
+   */
+  static CompressionPolicy skipBinary() {
+    return (collection, flags) -> !CodecFlags.hasCommonFormat(flags, CodecFlags.BINARY_COMMON_FLAGS);
+  }
+
+  /**
+   * Skips compression for all documents written into one of the given collections.
+   *
+   * @param collections the collections for which compression should never be attempted.
+   */
+  static CompressionPolicy skipCollections(final Set<CollectionIdentifier> collections) {
+    final Set<CollectionIdentifier> skipped = Collections.unmodifiableSet(new HashSet<>(collections));
+    return (collection, flags) -> !skipped.contains(collection);
+  }
+
+  /**
+   * Returns a policy which only attempts compression if both this and the other policy agree.
+   *
+   * @param other the other policy to consult.
+   */
+  default CompressionPolicy and(final CompressionPolicy other) {
+    return (collection, flags) -> shouldCompress(collection, flags) && other.shouldCompress(collection, flags);
+  }
+
+}
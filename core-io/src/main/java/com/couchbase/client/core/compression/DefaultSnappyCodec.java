@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.compression;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
+
+/**
+ * The default {@link SnappyCodec} which is used unless a different one is configured.
+ *
+ * <p>Array-backed buffers are handled by the (fast) array based snappy implementation directly on their
+ * backing arrays, so no intermediate arrays are created. All other buffers (i.e. direct ones) are copied into an
+ * array first: the {@link ByteBuf} based snappy codec that ships with netty only supports inputs of up to 32KB,
+ * while documents can be up to 20MB in size.</p>
+ *
+ * @since 2.1.0
+ */
+public class DefaultSnappyCodec implements SnappyCodec {
+
+  public static final DefaultSnappyCodec INSTANCE = new DefaultSnappyCodec();
+
+  @Override
+  public ByteBuf compress(final ByteBufAllocator alloc, final ByteBuf input) {
+    int length = input.readableBytes();
+    int maxCompressedLength = Snappy.maxCompressedLength(length);
+
+    final byte[] uncompressed;
+    final int offset;
+    if (input.hasArray()) {
+      uncompressed = input.array();
+      offset = input.arrayOffset() + input.readerIndex();
+    } else {
+      uncompressed = ByteBufUtil.getBytes(input, input.readerIndex(), length, false);
+      offset = 0;
+    }
+
+    ByteBuf compressed = alloc.heapBuffer(maxCompressedLength);
+    try {
+      if (compressed.hasArray()) {
+        int written = Snappy.compress(
+          uncompressed,
+          offset,
+          length,
+          compressed.array(),
+          compressed.arrayOffset() + compressed.writerIndex()
+        );
+        compressed.writerIndex(compressed.writerIndex() + written);
+      } else {
+        byte[] output = new byte[maxCompressedLength];
+        int written = Snappy.compress(uncompressed, offset, length, output, 0);
+        compressed.writeBytes(output, 0, written);
+      }
+      return compressed;
+    } catch (RuntimeException ex) {
+      ReferenceCountUtil.release(compressed);
+      throw ex;
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the input.
+   *
+   * <p>The uncompressed length is stored in the snappy preamble, so the output array is sized exactly
+   * and the decompression writes straight into it.</p>
+   */
+  @Override
+  public byte[] decompress(final ByteBuf input) {
+    int length = input.readableBytes();
+
+    if (input.hasArray()) {
+      byte[] compressed = input.array();
+      int offset = input.arrayOffset() + input.readerIndex();
+      byte[] uncompressed = new byte[Snappy.getUncompressedLength(compressed, offset)];
+      Snappy.uncompress(compressed, offset, length, uncompressed, 0);
+      return uncompressed;
+    }
+
+    byte[] compressed = ByteBufUtil.getBytes(input, input.readerIndex(), length, false);
+    return Snappy.uncompress(compressed, 0, length);
+  }
+
+  @Override
+  public String toString() {
+    return "DefaultSnappyCodec";
+  }
+
+}
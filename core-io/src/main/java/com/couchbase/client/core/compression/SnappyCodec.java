@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.compression;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Compresses and decompresses KV document bodies in the snappy (raw block) format.
+ *
+ * <p>The server only understands snappy as a datatype, so every implementation must produce and consume the
+ * standard snappy block format (uncompressed length preamble followed by the literal and copy elements). Beyond
+ * that, implementations are free to choose how they get there - the {@link DefaultSnappyCodec} is used if no
+ * other codec is configured on the {@link com.couchbase.client.core.env.CompressionConfig}.</p>
+ *
+ * <p>Note that both methods are called from the IO event loops, so implementations must be thread safe and
+ * should never block.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public interface SnappyCodec {
+
+  /**
+   * Compresses the readable bytes of the input.
+   *
+   * <p>The input can be of any size up to the maximum document size (20MB), and can be array-backed or direct.</p>
+   *
+   * @param alloc the allocator which should be used to allocate the output buffer.
+   * @param input the uncompressed input, its reader index must not be modified.
+   * @return the compressed output which is owned (and released) by the caller.
+   */
+  ByteBuf compress(ByteBufAllocator alloc, ByteBuf input);
+
+  /**
+   * Decompresses the readable bytes of the input.
+   *
+   * @param input the compressed input, its reader index must not be modified.
+   * @return the uncompressed content.
+   */
+  byte[] decompress(ByteBuf input);
+
+}
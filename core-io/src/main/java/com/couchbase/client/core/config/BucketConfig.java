@@ -96,6 +96,15 @@ public interface BucketConfig {
    */
   long rev();
 
+  /**
+   * The epoch of the revision (optional), which takes precedence over the revision when comparing configs.
+   *
+   * @return the revision epoch, 0 if not present.
+   */
+  default long revEpoch() {
+    return 0;
+  }
+
   /**
    * The bucket type.
    *
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+
+import java.util.Objects;
+
+/**
+ * The version of a config, made up of the revision epoch and the revision.
+ * <p>
+ * Besides comparing versions, this class allows to peek at the version of a raw (JSON) config straight from its
+ * bytes, so that configs which are not newer than the current one can be dropped before they are turned into a
+ * string and parsed.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ConfigVersion {
+
+  private static final byte[] REV = new byte[] { 'r', 'e', 'v' };
+  private static final byte[] REV_EPOCH = new byte[] { 'r', 'e', 'v', 'E', 'p', 'o', 'c', 'h' };
+
+  private final long epoch;
+  private final long rev;
+
+  public ConfigVersion(final long epoch, final long rev) {
+    this.epoch = epoch;
+    this.rev = rev;
+  }
+
+  /**
+   * Returns the version of the given, already parsed config.
+   *
+   * @param config the config to extract the version from.
+   */
+  public static ConfigVersion of(final BucketConfig config) {
+    return new ConfigVersion(config.revEpoch(), config.rev());
+  }
+
+  public long epoch() {
+    return epoch;
+  }
+
+  public long rev() {
+    return rev;
+  }
+
+  /**
+   * Returns true if this version is strictly newer than the other one.
+   *
+   * @param other the version to compare against.
+   */
+  public boolean isNewerThan(final ConfigVersion other) {
+    return epoch > other.epoch || (epoch == other.epoch && rev > other.rev);
+  }
+
+  /**
+   * Checks if the raw config is not newer than the config currently applied for the same bucket.
+   * <p>
+   * If the version cannot be determined from the raw config, or no config is applied for the bucket yet, it is
+   * not considered outdated so that it goes through the regular parsing and checks.
+   *
+   * @param current the currently applied cluster config.
+   * @param bucket the name of the bucket.
+   * @param raw the raw JSON config.
+   * @return true if the raw config can be safely ignored.
+   */
+  public static boolean isOutdated(final ClusterConfig current, final String bucket, final ByteBuf raw) {
+    BucketConfig currentConfig = current == null ? null : current.bucketConfig(bucket);
+    if (currentConfig == null) {
+      return false;
+    }
+
+    ConfigVersion version = peek(raw);
+    return version != null && version.rev() > 0 && !version.isNewerThan(ConfigVersion.of(currentConfig));
+  }
+
+  /**
+   * Checks if the raw config is not newer than the config currently applied for the same bucket.
+   *
+   * @param current the currently applied cluster config.
+   * @param bucket the name of the bucket.
+   * @param raw the raw JSON config.
+   * @return true if the raw config can be safely ignored.
+   */
+  public static boolean isOutdated(final ClusterConfig current, final String bucket, final byte[] raw) {
+    return isOutdated(current, bucket, Unpooled.wrappedBuffer(raw));
+  }
+
+  /**
+   * Peeks at the top-level "rev" and "revEpoch" fields of the raw JSON config without parsing it.
+   * <p>
+   * The bytes are scanned only until both fields are found (or the top-level object ends), and the reader index
+   * of the buffer is not modified.
+   *
+   * @param raw the raw JSON config.
+   * @return the version if a revision has been found, null otherwise.
+   */
+  public static ConfigVersion peek(final ByteBuf raw) {
+    long rev = -1;
+    long epoch = 0;
+    boolean epochFound = false;
+    int depth = 0;
+    int end = raw.writerIndex();
+
+    for (int i = raw.readerIndex(); i < end; i++) {
+      byte b = raw.getByte(i);
+      if (b == '"') {
+        int start = i + 1;
+        i = skipString(raw, start, end);
+        if (depth == 1) {
+          int next = skipWhitespace(raw, i + 1, end);
+          if (next < end && raw.getByte(next) == ':') {
+            if (matches(raw, start, i, REV)) {
+              rev = parseNumber(raw, next + 1, end);
+            } else if (matches(raw, start, i, REV_EPOCH)) {
+              epoch = parseNumber(raw, next + 1, end);
+              epochFound = true;
+            }
+            i = next;
+          }
+        }
+      } else if (b == '{' || b == '[') {
+        depth++;
+      } else if (b == '}' || b == ']') {
+        if (--depth <= 0) {
+          break;
+        }
+      }
+
+      if (rev >= 0 && epochFound) {
+        break;
+      }
+    }
+
+    return rev < 0 ? null : new ConfigVersion(Math.max(epoch, 0), rev);
+  }
+
+  /**
+   * Returns the index of the closing quote of the string starting at the given index.
+   */
+  private static int skipString(final ByteBuf raw, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      byte b = raw.getByte(i);
+      if (b == '\\') {
+        i++;
+      } else if (b == '"') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int skipWhitespace(final ByteBuf raw, final int start, final int end) {
+    int i = start;
+    while (i < end) {
+      byte b = raw.getByte(i);
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        break;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Checks if the bytes between start (inclusive) and end (exclusive) are equal to the expected ones.
+   */
+  private static boolean matches(final ByteBuf raw, final int start, final int end, final byte[] expected) {
+    if (end - start != expected.length) {
+      return false;
+    }
+    for (int i = 0; i < expected.length; i++) {
+      if (raw.getByte(start + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses a non-negative integer value, returns -1 if there is none.
+   */
+  private static long parseNumber(final ByteBuf raw, final int start, final int end) {
+    int i = skipWhitespace(raw, start, end);
+    long value = -1;
+    while (i < end) {
+      byte b = raw.getByte(i);
+      if (b < '0' || b > '9') {
+        break;
+      }
+      value = (value < 0 ? 0 : value * 10) + (b - '0');
+      i++;
+    }
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ConfigVersion that = (ConfigVersion) o;
+    return epoch == that.epoch && rev == that.rev;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(epoch, rev);
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigVersion{" +
+      "epoch=" + epoch +
+      ", rev=" + rev +
+      '}';
+  }
+
+}
@@ -22,6 +22,7 @@ import com.couchbase.client.core.io.CollectionMap;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -108,6 +109,17 @@ public interface ConfigurationProvider  {
    */
   void proposeGlobalConfig(ProposedGlobalConfigContext ctx);
 
+  /**
+   * Signals that a KV connection negotiated cluster map change notifications, so the server pushes new configs.
+   *
+   * <p>Providers can use this to reduce polling for the bucket (or the global config if no bucket is present)
+   * to a slow fallback.</p>
+   *
+   * @param bucketName the name of the bucket the connection is bound to, empty for the global config.
+   */
+  default void configPushNegotiated(Optional<String> bucketName) {
+  }
+
   /**
    * Instructs the provider to try and load the global config, and then manage it.
    */
@@ -43,12 +43,14 @@ public class CouchbaseBucketConfig extends AbstractBucketConfig {
 
     private final boolean tainted;
     private final long rev;
+    private final long revEpoch;
     private final boolean ephemeral;
 
     /**
      * Creates a new {@link CouchbaseBucketConfig}.
      *
      * @param rev the revision of the config.
+     * @param revEpoch the epoch of the revision, 0 if not present.
      * @param name the name of the bucket.
      * @param uri the URI for this bucket.
      * @param streamingUri the streaming URI for this bucket.
@@ -59,6 +61,7 @@ public class CouchbaseBucketConfig extends AbstractBucketConfig {
     @JsonCreator
     public CouchbaseBucketConfig(
       @JsonProperty("rev") long rev,
+      @JsonProperty("revEpoch") long revEpoch,
       @JsonProperty("uuid") String uuid,
       @JsonProperty("name") String name,
       @JsonProperty("uri") String uri,
@@ -77,6 +80,7 @@ public class CouchbaseBucketConfig extends AbstractBucketConfig {
         this.partitionHosts = buildPartitionHosts(extendedNodeInfos, partitionInfo);
         this.nodesWithPrimaryPartitions = buildNodesWithPrimaryPartitions(nodeInfos, partitionInfo.partitions());
         this.rev = rev;
+        this.revEpoch = revEpoch;
 
         // Use bucket capabilities to identify if couchapi is missing (then its ephemeral). If its null then
         // we are running an old version of couchbase which doesn't have ephemeral buckets at all.
@@ -221,6 +225,11 @@ public class CouchbaseBucketConfig extends AbstractBucketConfig {
         return rev;
     }
 
+    @Override
+    public long revEpoch() {
+        return revEpoch;
+    }
+
     @Override
     public BucketType type() {
         return BucketType.COUCHBASE;
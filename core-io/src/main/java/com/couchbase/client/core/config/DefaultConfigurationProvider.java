@@ -401,6 +401,15 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     }
   }
 
+  @Override
+  public void configPushNegotiated(final Optional<String> bucketName) {
+    if (bucketName.isPresent()) {
+      keyValueRefresher.markPushEnabled(bucketName.get());
+    } else {
+      globalRefresher.markPushEnabled();
+    }
+  }
+
   @Override
   public void proposeGlobalConfig(final ProposedGlobalConfigContext ctx) {
     if (!shutdown.get()) {
@@ -570,7 +579,8 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     final String name = newConfig.name();
     final BucketConfig oldConfig = currentConfig.bucketConfig(name);
 
-    if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
+    if (newConfig.rev() > 0 && oldConfig != null
+      && !ConfigVersion.of(newConfig).isNewerThan(ConfigVersion.of(oldConfig))) {
       eventBus.publish(new ConfigIgnoredEvent(
         core.context(),
         ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
@@ -44,6 +44,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class MemcachedBucketConfig extends AbstractBucketConfig {
 
     private final long rev;
+    private final long revEpoch;
     private final TreeMap<Long, NodeInfo> ketamaNodes;
     private final MemcachedHashingStrategy hashingStrategy;
 
@@ -52,6 +53,7 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
      *
      * @param env the environment to use.
      * @param rev the revision of the config.
+     * @param revEpoch the epoch of the revision, 0 if not present.
      * @param name the name of the bucket.
      * @param uri the URI for this bucket.
      * @param streamingUri the streaming URI for this bucket.
@@ -62,6 +64,7 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
     public MemcachedBucketConfig(
             @JacksonInject("env") CoreEnvironment env,
             @JsonProperty("rev") long rev,
+            @JsonProperty("revEpoch") long revEpoch,
             @JsonProperty("uuid") String uuid,
             @JsonProperty("name") String name,
             @JsonProperty("uri") String uri,
@@ -74,6 +77,7 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
         super(uuid, name, BucketNodeLocator.KETAMA, uri, streamingUri, nodeInfos, portInfos, bucketCapabilities,
           origin, clusterCapabilities);
         this.rev = rev;
+        this.revEpoch = revEpoch;
         this.ketamaNodes = new TreeMap<>();
         this.hashingStrategy = StandardMemcachedHashingStrategy.INSTANCE;
         populateKetamaNodes();
@@ -89,6 +93,11 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
         return rev;
     }
 
+    @Override
+    public long revEpoch() {
+        return revEpoch;
+    }
+
     @Override
     public BucketType type() {
         return BucketType.MEMCACHED;
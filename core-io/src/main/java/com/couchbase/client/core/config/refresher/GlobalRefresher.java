@@ -37,6 +37,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static com.couchbase.client.core.config.refresher.KeyValueBucketRefresher.MAX_PARALLEL_FETCH;
 import static com.couchbase.client.core.config.refresher.KeyValueBucketRefresher.POLLER_INTERVAL;
+import static com.couchbase.client.core.config.refresher.KeyValueBucketRefresher.PUSH_FALLBACK_INTERVAL;
 import static com.couchbase.client.core.config.refresher.KeyValueBucketRefresher.clampConfigRequestTimeout;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -73,6 +74,16 @@ public class GlobalRefresher {
    */
   private volatile boolean started;
 
+  /**
+   * Indicates if the server pushes cluster map change notifications for the global config.
+   */
+  private volatile boolean pushEnabled;
+
+  /**
+   * Holds the timestamp of the last poll, used to fall back to a slow interval if configs are pushed.
+   */
+  private volatile long lastPoll;
+
   /**
    * The registration which is used to track the interval polls and needs to be disposed
    * on shutdown.
@@ -100,11 +111,32 @@ public class GlobalRefresher {
 
     pollRegistration = Flux
       .interval(POLLER_INTERVAL, core.context().environment().scheduler())
-      .filter(v -> started)
+      .filter(v -> started && shouldPoll())
       .flatMap(ign -> attemptUpdateGlobalConfig(filterEligibleNodes()))
       .subscribe(provider::proposeGlobalConfig);
   }
 
+  /**
+   * Checks if a poll should be performed in this interval.
+   *
+   * <p>If configs are pushed by the server, polling only happens at the fallback interval.</p>
+   */
+  private boolean shouldPoll() {
+    long now = System.nanoTime();
+    if (pushEnabled && (now - lastPoll) < Math.max(configPollIntervalNanos, PUSH_FALLBACK_INTERVAL.toNanos())) {
+      return false;
+    }
+    lastPoll = now;
+    return true;
+  }
+
+  /**
+   * Marks the global config as receiving cluster map change notifications, so it is only polled as a fallback.
+   */
+  public void markPushEnabled() {
+    pushEnabled = true;
+  }
+
   private Flux<ProposedGlobalConfigContext> attemptUpdateGlobalConfig(final Flux<PortInfo> nodes) {
     return nodes.flatMap(nodeInfo -> {
       CoreContext ctx = core.context();
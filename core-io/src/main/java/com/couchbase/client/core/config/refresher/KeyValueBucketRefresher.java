@@ -23,6 +23,7 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.config.BucketConfigRefreshFailedEvent;
 import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ConfigVersion;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.NodeInfo;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
@@ -75,6 +76,14 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   static final int MAX_PARALLEL_FETCH = 3;
 
+  /**
+   * The interval at which configs are still polled if the server pushes cluster map change notifications.
+   *
+   * <p>Polling is not needed in this case, but it is kept as a slow safety net in case a notification got lost.
+   * Buckets which are tainted (undergoing a rebalance) are still polled on every tick.</p>
+   */
+  static final Duration PUSH_FALLBACK_INTERVAL = Duration.ofSeconds(30);
+
   /**
    * Holds the core as a reference.
    */
@@ -108,6 +117,11 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   private final Set<String> tainted = ConcurrentHashMap.newKeySet();
 
+  /**
+   * Holds all buckets for which the server pushes cluster map change notifications.
+   */
+  private final Set<String> pushEnabled = ConcurrentHashMap.newKeySet();
+
   /**
    * Holds the allowable config poll interval in nanoseconds.
    */
@@ -180,7 +194,12 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   private Mono<ProposedBucketConfigContext> maybeUpdateBucket(final String name) {
     Long last = registrations.get(name);
-    boolean overInterval = last != null && (System.nanoTime() - last) >= configPollIntervalNanos;
+    boolean pushed = pushEnabled.contains(name);
+    long interval = pushed
+      ? Math.max(configPollIntervalNanos, PUSH_FALLBACK_INTERVAL.toNanos())
+      : configPollIntervalNanos;
+    boolean overInterval = last != null && (System.nanoTime() - last) >= interval;
+    // tainted buckets are polled on every tick even with push, to not rely on a single notification mid-rebalance
     boolean allowed = tainted.contains(name) || overInterval;
 
     return allowed
@@ -262,6 +281,8 @@ public class KeyValueBucketRefresher implements BucketRefresher {
           }
           return response.status().success();
         })
+        // Drop configs which are not newer than the current one before they are turned into a string and parsed.
+        .filter(response -> !ConfigVersion.isOutdated(provider.config(), name, response.content()))
         .map(response ->
           new ProposedBucketConfigContext(name, new String(response.content(), UTF_8), nodeInfo.hostname())
         ).onErrorResume(t -> {
@@ -301,6 +322,7 @@ public class KeyValueBucketRefresher implements BucketRefresher {
   public Mono<Void> deregister(final String name) {
     return Mono.defer(() -> {
       registrations.remove(name);
+      pushEnabled.remove(name);
       return Mono.empty();
     });
   }
@@ -315,6 +337,19 @@ public class KeyValueBucketRefresher implements BucketRefresher {
     tainted.remove(name);
   }
 
+  /**
+   * Marks the bucket as receiving cluster map change notifications, so it is only polled as a fallback.
+   *
+   * <p>The KV connections of a bucket are usually opened (and negotiate the notifications) before the bucket is
+   * registered with the refresher, so this is recorded independently of the registration and only cleared once
+   * the bucket is deregistered.</p>
+   *
+   * @param name the name of the bucket.
+   */
+  public void markPushEnabled(final String name) {
+    pushEnabled.add(name);
+  }
+
   @Override
   public Mono<Void> shutdown() {
     return Mono.defer(() -> {
@@ -31,6 +31,9 @@ import com.couchbase.client.core.cnc.events.endpoint.UnexpectedEndpointDisconnec
 import com.couchbase.client.core.deps.io.netty.channel.DefaultEventLoopGroup;
 import com.couchbase.client.core.deps.io.netty.channel.epoll.EpollChannelOption;
 import com.couchbase.client.core.deps.io.netty.channel.local.LocalChannel;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.Future;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.GenericFutureListener;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.SecurityConfig;
 import com.couchbase.client.core.error.BucketNotFoundException;
@@ -76,7 +79,9 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -99,6 +104,16 @@ import static com.couchbase.client.core.logging.RedactableArgument.redactMeta;
  */
 public abstract class BaseEndpoint implements Endpoint {
 
+  /**
+   * The chunk size of the pending writes queue (it grows in chunks of this size if needed).
+   */
+  private static final int PENDING_WRITES_CHUNK_SIZE = 256;
+
+  /**
+   * The maximum number of requests written in one go before flushing and yielding the event loop.
+   */
+  private static final int MAX_WRITES_PER_DRAIN = 1024;
+
   /**
    * Holds the current state of this endpoint.
    */
@@ -133,6 +148,12 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   private final AtomicInteger outstandingRequests;
 
+  /**
+   * The number of requests written into the channel of a pipelined endpoint which still wait for their
+   * response, maintained by the message handler of the channel.
+   */
+  private final AtomicInteger inFlightRequests = new AtomicInteger(0);
+
   /**
    * The event loop group used for this endpoint, passed to netty.
    */
@@ -147,6 +168,22 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   private final boolean pipelined;
 
+  /**
+   * Holds the requests of a pipelined endpoint which have been handed off by the application threads
+   * but not written into the channel yet.
+   */
+  private final Queue<Request<? extends Response>> pendingWrites;
+
+  /**
+   * Set if a task which drains the pending writes is scheduled on the event loop.
+   */
+  private final AtomicBoolean drainScheduled;
+
+  /**
+   * The task which drains the pending writes, allocated once per endpoint.
+   */
+  private final Runnable drainTask;
+
   /**
    * Once connected, contains the channel to work with.
    */
@@ -198,6 +235,9 @@ public abstract class BaseEndpoint implements Endpoint {
     this.lastResponseTimestamp = 0;
     this.eventLoopGroup = eventLoopGroup;
     this.serviceType = serviceType;
+    this.pendingWrites = pipelined ? new MpscUnboundedArrayQueue<>(PENDING_WRITES_CHUNK_SIZE) : null;
+    this.drainScheduled = new AtomicBoolean(false);
+    this.drainTask = this::drainPendingWrites;
   }
 
   @Override
@@ -534,16 +574,12 @@ public abstract class BaseEndpoint implements Endpoint {
         });
       }
 
-      channel
-        .writeAndFlush(request)
-        .addListener(f -> {
-          if (!f.isSuccess()) {
-            EndpointContext context = endpointContext.get();
-            Event.Severity severity = disconnect.get() ? Event.Severity.DEBUG : Event.Severity.WARN;
-            context.environment().eventBus().publish(new EndpointWriteFailedEvent(severity, context, f.cause()));
-            RetryOrchestrator.maybeRetry(context, request, RetryReason.ENDPOINT_NOT_WRITABLE);
-          }
-        });
+      if (pipelined) {
+        pendingWrites.offer(request);
+        scheduleDrain(channel);
+      } else {
+        channel.writeAndFlush(request).addListener(writeListener(request));
+      }
     } else {
       RetryReason retryReason = circuitBreaker.allowsRequest()
         ? RetryReason.ENDPOINT_NOT_WRITABLE
@@ -552,6 +588,74 @@ public abstract class BaseEndpoint implements Endpoint {
     }
   }
 
+  /**
+   * Makes sure that a drain task is scheduled on the event loop of the channel, unless one is pending already.
+   *
+   * <p>Application threads only enqueue into {@link #pendingWrites}, so under load many requests end up
+   * being written by a single event loop task and with a single flush.</p>
+   *
+   * @param channel the channel on whose event loop the drain should run.
+   */
+  private void scheduleDrain(final Channel channel) {
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        channel.eventLoop().execute(drainTask);
+      } catch (RejectedExecutionException ex) {
+        drainScheduled.set(false);
+        Request<? extends Response> request;
+        while ((request = pendingWrites.poll()) != null) {
+          RetryOrchestrator.maybeRetry(endpointContext.get(), request, RetryReason.ENDPOINT_NOT_WRITABLE);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all pending requests into the channel and flushes once at the end.
+   *
+   * <p>The flag is cleared before polling, so a request which is enqueued concurrently is either picked up
+   * by this run or schedules a new one.</p>
+   */
+  private void drainPendingWrites() {
+    drainScheduled.set(false);
+    final Channel channel = this.channel;
+
+    int written = 0;
+    Request<? extends Response> request;
+    while (written < MAX_WRITES_PER_DRAIN && (request = pendingWrites.poll()) != null) {
+      if (channel == null) {
+        RetryOrchestrator.maybeRetry(endpointContext.get(), request, RetryReason.ENDPOINT_NOT_WRITABLE);
+        continue;
+      }
+      channel.write(request).addListener(writeListener(request));
+      written++;
+    }
+
+    if (written > 0) {
+      channel.flush();
+    }
+    if (channel != null && !pendingWrites.isEmpty()) {
+      scheduleDrain(channel);
+    }
+  }
+
+  /**
+   * Creates the listener which sends the request into retry if the write failed.
+   *
+   * @param request the request which is written.
+   * @return the created listener.
+   */
+  private GenericFutureListener<Future<? super Void>> writeListener(final Request<? extends Response> request) {
+    return f -> {
+      if (!f.isSuccess()) {
+        EndpointContext context = endpointContext.get();
+        Event.Severity severity = disconnect.get() ? Event.Severity.DEBUG : Event.Severity.WARN;
+        context.environment().eventBus().publish(new EndpointWriteFailedEvent(severity, context, f.cause()));
+        RetryOrchestrator.maybeRetry(context, request, RetryReason.ENDPOINT_NOT_WRITABLE);
+      }
+    };
+  }
+
   @Override
   public boolean freeToWrite() {
     return pipelined || outstandingRequests.get() == 0;
@@ -562,6 +666,24 @@ public abstract class BaseEndpoint implements Endpoint {
     return outstandingRequests.get();
   }
 
+  /**
+   * Returns the requests waiting for a response plus, for pipelined endpoints, the ones queued to be written.
+   */
+  @Override
+  public long inFlightRequests() {
+    return pipelined ? inFlightRequests.get() + pendingWrites.size() : outstandingRequests.get();
+  }
+
+  /**
+   * Called from the message handler of a pipelined channel when requests are written into it or completed.
+   *
+   * @param delta the number of requests added (positive) or removed (negative).
+   */
+  @Stability.Internal
+  public void markRequestsInFlight(final int delta) {
+    inFlightRequests.addAndGet(delta);
+  }
+
   @Override
   public long lastResponseReceived() {
     return lastResponseTimestamp;
@@ -74,6 +74,16 @@ public interface Endpoint extends Stateful<EndpointState> {
    */
   long outstandingRequests();
 
+  /**
+   * Returns the number of requests which have been sent through this endpoint and still wait for a response.
+   * <p>
+   * Unlike {@link #outstandingRequests()} this is also tracked for pipelined endpoints, where many requests can be
+   * in flight on the same channel at once.
+   *
+   * @return the number of in-flight requests.
+   */
+  long inFlightRequests();
+
   /**
    * Holds the timestamp of the last response received (or 0 if no request ever sent).
    *
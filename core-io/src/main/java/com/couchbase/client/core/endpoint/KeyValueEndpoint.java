@@ -132,6 +132,14 @@ public class KeyValueEndpoint extends BaseEndpoint {
         features.add(ServerFeature.CREATE_AS_DELETED);
       }
 
+      boolean clustermapNotificationsEnabled = Boolean.parseBoolean(
+              System.getProperty("com.couchbase.clustermapNotificationsEnabled", "true")
+      );
+      if (clustermapNotificationsEnabled) {
+        features.add(ServerFeature.DUPLEX);
+        features.add(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION);
+      }
+
       return features;
     }
   }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.error.InvalidArgumentException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configures the {@link AggregatingMeter}, which is only used if enabled and no custom meter is set.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class AggregatingMeterConfig {
+
+  private static final boolean DEFAULT_ENABLED = false;
+  private static final Duration DEFAULT_EMIT_INTERVAL = Duration.ofSeconds(10);
+
+  private final boolean enabled;
+  private final Duration emitInterval;
+
+  private AggregatingMeterConfig(final Builder builder) {
+    enabled = builder.enabled;
+    emitInterval = builder.emitInterval;
+  }
+
+  public static AggregatingMeterConfig.Builder builder() {
+    return new AggregatingMeterConfig.Builder();
+  }
+
+  public static AggregatingMeterConfig create() {
+    return builder().build();
+  }
+
+  public static Builder enabled(final boolean enabled) {
+    return builder().enabled(enabled);
+  }
+
+  public static Builder emitInterval(final Duration emitInterval) {
+    return builder().emitInterval(emitInterval);
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  public Duration emitInterval() {
+    return emitInterval;
+  }
+
+  /**
+   * Returns this config as a map so it can be exported into i.e. JSON for display.
+   */
+  @Stability.Volatile
+  Map<String, Object> exportAsMap() {
+    Map<String, Object> export = new LinkedHashMap<>();
+    export.put("enabled", enabled);
+    export.put("emitIntervalMs", emitInterval.toMillis());
+    return export;
+  }
+
+  public static class Builder {
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private Duration emitInterval = DEFAULT_EMIT_INTERVAL;
+
+    /**
+     * Allows to enable the aggregating meter, which records the latencies of all requests.
+     *
+     * @param enabled true if it should be enabled.
+     * @return this builder for chaining.
+     */
+    public Builder enabled(final boolean enabled) {
+      this.enabled = enabled;
+      return this;
+    }
+
+    /**
+     * Allows to customize the emit interval.
+     *
+     * @param emitInterval the interval to use.
+     * @return this builder for chaining.
+     */
+    public Builder emitInterval(final Duration emitInterval) {
+      if (emitInterval.isZero()) {
+        throw InvalidArgumentException.fromMessage("Emit interval needs to be greater than 0");
+      }
+
+      this.emitInterval = emitInterval;
+      return this;
+    }
+
+    public AggregatingMeterConfig build() {
+      return new AggregatingMeterConfig(this);
+    }
+  }
+
+}
@@ -17,10 +17,16 @@
 package com.couchbase.client.core.env;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.compression.CompressionPolicy;
+import com.couchbase.client.core.compression.DefaultSnappyCodec;
+import com.couchbase.client.core.compression.SnappyCodec;
+import com.couchbase.client.core.io.CollectionIdentifier;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static com.couchbase.client.core.util.Validators.notNull;
+
 /**
  * Allows configuring and customizing the compression configuration.
  *
@@ -31,6 +37,8 @@ public class CompressionConfig {
   public static final boolean DEFAULT_ENABLED = true;
   public static final int DEFAULT_MIN_SIZE = 32;
   public static final double DEFAULT_MIN_RATIO = 0.83;
+  public static final SnappyCodec DEFAULT_CODEC = DefaultSnappyCodec.INSTANCE;
+  public static final CompressionPolicy DEFAULT_POLICY = CompressionPolicy.always();
 
   /**
    * If compression is enabled or not.
@@ -47,6 +55,16 @@ public class CompressionConfig {
    */
   private final double minRatio;
 
+  /**
+   * The codec which performs the actual compression and decompression.
+   */
+  private final SnappyCodec codec;
+
+  /**
+   * Decides on a per-document basis if compression should be attempted.
+   */
+  private final CompressionPolicy policy;
+
   /**
    * Creates a {@link CompressionConfig} with default arguments.
    *
@@ -100,6 +118,28 @@ public class CompressionConfig {
     return builder().minRatio(minRatio);
   }
 
+  /**
+   * Allows to use a different snappy implementation for compression and decompression.
+   *
+   * @param codec the codec to use.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  @Stability.Volatile
+  public static Builder codec(SnappyCodec codec) {
+    return builder().codec(codec);
+  }
+
+  /**
+   * Allows to decide on a per-document basis if compression should be attempted at all.
+   *
+   * @param policy the policy to use.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  @Stability.Volatile
+  public static Builder policy(CompressionPolicy policy) {
+    return builder().policy(policy);
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -109,6 +149,7 @@ public class CompressionConfig {
     export.put("enabled", enabled);
     export.put("minRatio", minRatio);
     export.put("minSize", minSize);
+    export.put("codec", codec.toString());
     return export;
   }
 
@@ -121,6 +162,8 @@ public class CompressionConfig {
     this.enabled = builder.enabled;
     this.minRatio = builder.minRatio;
     this.minSize = builder.minSize;
+    this.codec = builder.codec;
+    this.policy = builder.policy;
   }
 
   /**
@@ -150,6 +193,39 @@ public class CompressionConfig {
     return enabled;
   }
 
+  /**
+   * Returns the codec which performs the actual compression and decompression.
+   *
+   * @return the configured codec.
+   */
+  @Stability.Volatile
+  public SnappyCodec codec() {
+    return codec;
+  }
+
+  /**
+   * Returns the policy which decides on a per-document basis if compression should be attempted.
+   *
+   * @return the configured policy.
+   */
+  @Stability.Volatile
+  public CompressionPolicy policy() {
+    return policy;
+  }
+
+  /**
+   * Checks if compression should be attempted for the given document.
+   *
+   * @param collection the collection the document is written into.
+   * @param flags the flags of the document.
+   * @param length the length of the uncompressed content.
+   * @return true if compression should be attempted, false otherwise.
+   */
+  @Stability.Internal
+  public boolean shouldCompress(final CollectionIdentifier collection, final int flags, final int length) {
+    return enabled && length >= minSize && policy.shouldCompress(collection, flags);
+  }
+
   /**
    * This builder allows to customize the {@link CompressionConfig}.
    */
@@ -158,6 +234,8 @@ public class CompressionConfig {
     private boolean enabled = DEFAULT_ENABLED;
     private int minSize = DEFAULT_MIN_SIZE;
     private double minRatio = DEFAULT_MIN_RATIO;
+    private SnappyCodec codec = DEFAULT_CODEC;
+    private CompressionPolicy policy = DEFAULT_POLICY;
 
     public CompressionConfig build() {
       return new CompressionConfig(this);
@@ -197,6 +275,35 @@ public class CompressionConfig {
       return this;
     }
 
+    /**
+     * Allows to use a different snappy implementation for compression and decompression.
+     *
+     * <p>The codec must produce and understand the raw snappy block format, since that is what the server
+     * expects if the snappy datatype is set.</p>
+     *
+     * @param codec the codec to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder codec(SnappyCodec codec) {
+      this.codec = notNull(codec, "SnappyCodec");
+      return this;
+    }
+
+    /**
+     * Allows to decide on a per-document basis if compression should be attempted at all.
+     *
+     * <p>The default policy attempts compression for every document which is larger than the minimum size.</p>
+     *
+     * @param policy the policy to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder policy(CompressionPolicy policy) {
+      this.policy = notNull(policy, "CompressionPolicy");
+      return this;
+    }
+
   }
 
 }
@@ -22,9 +22,13 @@ import com.couchbase.client.core.cnc.Context;
 import com.couchbase.client.core.cnc.DefaultEventBus;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.OrphanReporter;
 import com.couchbase.client.core.cnc.RequestTracer;
 import com.couchbase.client.core.cnc.events.config.HighIdleHttpConnectionTimeoutConfiguredEvent;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.cnc.metrics.RequestMetrics;
 import com.couchbase.client.core.cnc.tracing.ThresholdRequestTracer;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.CancellationReason;
@@ -106,6 +110,9 @@ public class CoreEnvironment {
   private final OrphanReporterConfig orphanReporterConfig;
   private final ThresholdRequestTracerConfig thresholdRequestTracerConfig;
   private final Supplier<RequestTracer> requestTracer;
+  private final AggregatingMeterConfig aggregatingMeterConfig;
+  private final Supplier<Meter> meter;
+  private final RequestMetrics requestMetrics;
   private final LoggerConfig loggerConfig;
   private final RetryStrategy retryStrategy;
   private final Supplier<Scheduler> scheduler;
@@ -147,6 +154,7 @@ public class CoreEnvironment {
     this.loggerConfig = builder.loggerConfig.build();
     this.orphanReporterConfig = builder.orphanReporterConfig.build();
     this.thresholdRequestTracerConfig = builder.thresholdRequestTracerConfig.build();
+    this.aggregatingMeterConfig = builder.aggregatingMeterConfig.build();
 
     if (eventBus instanceof OwnedSupplier) {
       eventBus.get().start().block();
@@ -161,6 +169,17 @@ public class CoreEnvironment {
       requestTracer.get().start().block();
     }
 
+    this.meter = Optional.ofNullable(builder.meter).orElse(new OwnedSupplier<Meter>(
+      aggregatingMeterConfig.enabled()
+        ? AggregatingMeter.create(eventBus.get(), aggregatingMeterConfig)
+        : NoopMeter.INSTANCE
+    ));
+
+    if (meter instanceof OwnedSupplier) {
+      meter.get().start().block();
+    }
+    this.requestMetrics = new RequestMetrics(meter.get());
+
     orphanReporter = new OrphanReporter(eventBus.get(), orphanReporterConfig);
     orphanReporter.start().block();
 
@@ -317,6 +336,24 @@ public class CoreEnvironment {
     return requestTracer.get();
   }
 
+  /**
+   * Returns the meter which records the request latencies for metrics.
+   * <p>
+   * Note that this right now is unsupported, volatile API and subject to change!
+   */
+  @Stability.Volatile
+  public Meter meter() {
+    return meter.get();
+  }
+
+  /**
+   * Returns the request metrics which feed the timings of completed requests into the {@link #meter()}.
+   */
+  @Stability.Internal
+  public RequestMetrics requestMetrics() {
+    return requestMetrics;
+  }
+
   /**
    * Returns the timer used to schedule timeouts and retries amongst other tasks.
    */
@@ -391,6 +428,12 @@ public class CoreEnvironment {
         }
         return Mono.empty();
       }))
+      .then(Mono.defer(() -> {
+        if (meter instanceof OwnedSupplier) {
+          return meter.get().stop(timeout);
+        }
+        return Mono.empty();
+      }))
       .then(Mono.defer(() -> orphanReporter.stop(timeout)))
       .then(Mono.defer(() -> {
         if (scheduler instanceof OwnedSupplier) {
@@ -449,9 +492,11 @@ public class CoreEnvironment {
     input.put("loggerConfig", loggerConfig.exportAsMap());
     input.put("orphanReporterConfig", orphanReporterConfig.exportAsMap());
     input.put("thresholdRequestTracerConfig", thresholdRequestTracerConfig.exportAsMap());
+    input.put("aggregatingMeterConfig", aggregatingMeterConfig.exportAsMap());
 
     input.put("retryStrategy", retryStrategy.getClass().getSimpleName());
     input.put("requestTracer", requestTracer.get().getClass().getSimpleName());
+    input.put("meter", meter.get().getClass().getSimpleName());
 
     return format.apply(input);
   }
@@ -471,9 +516,11 @@ public class CoreEnvironment {
     private LoggerConfig.Builder loggerConfig = LoggerConfig.builder();
     private OrphanReporterConfig.Builder orphanReporterConfig = OrphanReporterConfig.builder();
     private ThresholdRequestTracerConfig.Builder thresholdRequestTracerConfig = ThresholdRequestTracerConfig.builder();
+    private AggregatingMeterConfig.Builder aggregatingMeterConfig = AggregatingMeterConfig.builder();
     private Supplier<EventBus> eventBus = null;
     private Supplier<Scheduler> scheduler = null;
     private Supplier<RequestTracer> requestTracer = null;
+    private Supplier<Meter> meter = null;
     private RetryStrategy retryStrategy = null;
     private long maxNumRequestsInRetry = DEFAULT_MAX_NUM_REQUESTS_IN_RETRY;
 
@@ -590,6 +637,22 @@ public class CoreEnvironment {
       return thresholdRequestTracerConfig;
     }
 
+    /**
+     * Allows to enable and customize the aggregating meter, which is used if no custom meter is set.
+     *
+     * @param aggregatingMeterConfig the configuration which should be used.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF aggregatingMeterConfig(final AggregatingMeterConfig.Builder aggregatingMeterConfig) {
+      this.aggregatingMeterConfig = notNull(aggregatingMeterConfig, "AggregatingMeterConfig");
+      return self();
+    }
+
+    public AggregatingMeterConfig.Builder aggregatingMeterConfig() {
+      return aggregatingMeterConfig;
+    }
+
     /**
      * Allows to customize document value compression settings.
      * <p>
@@ -739,6 +802,20 @@ public class CoreEnvironment {
       return self();
     }
 
+    /**
+     * Allows to configure a custom meter implementation.
+     * <p>
+     * <strong>IMPORTANT:</strong> this is a volatile, likely to change API!
+     *
+     * @param meter the custom meter to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF meter(final Meter meter) {
+      this.meter = new ExternalSupplier<>(notNull(meter, "Meter"));
+      return self();
+    }
+
     /**
      * Turns this builder into a real {@link CoreEnvironment}.
      *
@@ -43,6 +43,8 @@ public class IoConfig {
   public static final int DEFAULT_MAX_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_ENDPOINTS;
   public static final Duration DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT = AbstractPooledEndpointServiceConfig.DEFAULT_IDLE_TIME;
   public static final Duration DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT = Duration.ofMinutes(5);
+  public static final boolean DEFAULT_KV_LOAD_AWARE_ENDPOINT_SELECTION = false;
+  public static final boolean DEFAULT_KV_CONCURRENCY_LIMIT_ENABLED = false;
 
   private final boolean mutationTokensEnabled;
   private final Duration configPollInterval;
@@ -61,6 +63,8 @@ public class IoConfig {
   private final int maxHttpConnections;
   private final Duration idleHttpConnectionTimeout;
   private final Duration configIdleRedialTimeout;
+  private final boolean kvLoadAwareEndpointSelection;
+  private final boolean kvConcurrencyLimitEnabled;
 
   private IoConfig(Builder builder) {
     mutationTokensEnabled = builder.mutationTokensEnabled;
@@ -84,6 +88,8 @@ public class IoConfig {
     maxHttpConnections = builder.maxHttpConnections;
     idleHttpConnectionTimeout = builder.idleHttpConnectionTimeout;
     configIdleRedialTimeout = builder.configIdleRedialTimeout;
+    kvLoadAwareEndpointSelection = builder.kvLoadAwareEndpointSelection;
+    kvConcurrencyLimitEnabled = builder.kvConcurrencyLimitEnabled;
   }
 
   public static IoConfig create() {
@@ -173,6 +179,16 @@ public class IoConfig {
     return builder().configIdleRedialTimeout(configIdleRedialTimeout);
   }
 
+  @Stability.Volatile
+  public static Builder enableKvLoadAwareEndpointSelection(boolean kvLoadAwareEndpointSelection) {
+    return builder().enableKvLoadAwareEndpointSelection(kvLoadAwareEndpointSelection);
+  }
+
+  @Stability.Volatile
+  public static Builder enableKvConcurrencyLimit(boolean kvConcurrencyLimitEnabled) {
+    return builder().enableKvConcurrencyLimit(kvConcurrencyLimitEnabled);
+  }
+
   public CircuitBreakerConfig kvCircuitBreakerConfig() {
     return kvCircuitBreakerConfig;
   }
@@ -246,6 +262,16 @@ public class IoConfig {
     return configIdleRedialTimeout;
   }
 
+  @Stability.Volatile
+  public boolean kvLoadAwareEndpointSelectionEnabled() {
+    return kvLoadAwareEndpointSelection;
+  }
+
+  @Stability.Volatile
+  public boolean kvConcurrencyLimitEnabled() {
+    return kvConcurrencyLimitEnabled;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -269,6 +295,8 @@ public class IoConfig {
     export.put("maxHttpConnections", maxHttpConnections);
     export.put("idleHttpConnectionTimeoutMs", idleHttpConnectionTimeout.toMillis());
     export.put("configIdleRedialTimeoutMs", configIdleRedialTimeout.toMillis());
+    export.put("kvLoadAwareEndpointSelection", kvLoadAwareEndpointSelection);
+    export.put("kvConcurrencyLimitEnabled", kvConcurrencyLimitEnabled);
     return export;
   }
 
@@ -291,6 +319,8 @@ public class IoConfig {
     private int maxHttpConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
     private Duration idleHttpConnectionTimeout = DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT;
     private Duration configIdleRedialTimeout = DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT;
+    private boolean kvLoadAwareEndpointSelection = DEFAULT_KV_LOAD_AWARE_ENDPOINT_SELECTION;
+    private boolean kvConcurrencyLimitEnabled = DEFAULT_KV_CONCURRENCY_LIMIT_ENABLED;
 
     public IoConfig build() {
       return new IoConfig(this);
@@ -462,5 +492,40 @@ public class IoConfig {
       this.configIdleRedialTimeout = configIdleRedialTimeout;
       return this;
     }
+
+    /**
+     * Configures whether key-value requests are sent to the least loaded connection of a node instead of always
+     * to the one pinned by their partition.
+     * <p>
+     * This only has an effect if more than one key-value connection is opened per node (see
+     * {@link #numKvConnections(int)}). Note that requests for the same partition might then be processed out of
+     * order.
+     *
+     * @param kvLoadAwareEndpointSelection true if load-aware selection should be enabled.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder enableKvLoadAwareEndpointSelection(final boolean kvLoadAwareEndpointSelection) {
+      this.kvLoadAwareEndpointSelection = kvLoadAwareEndpointSelection;
+      return this;
+    }
+
+    /**
+     * Configures whether the number of key-value requests in flight towards each node is limited adaptively.
+     * <p>
+     * When enabled, the limit per node shrinks when the (server-reported, if available) latency of the node
+     * degrades or requests time out, and grows back once it recovers. Requests over the limit are not dispatched
+     * but go through the retry strategy with
+     * {@link com.couchbase.client.core.retry.RetryReason#NODE_CONCURRENCY_LIMIT_REACHED}. The current limit of
+     * each node is recorded into the meter under {@link com.couchbase.client.core.cnc.Meter#KV_CONCURRENCY_LIMIT}.
+     *
+     * @param kvConcurrencyLimitEnabled true if the adaptive limit should be enabled.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder enableKvConcurrencyLimit(final boolean kvConcurrencyLimitEnabled) {
+      this.kvConcurrencyLimitEnabled = kvConcurrencyLimitEnabled;
+      return this;
+    }
   }
 }
@@ -22,7 +22,7 @@ import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.DecodingFailureException;
-import com.couchbase.client.core.json.stream.CopyingStreamWindow;
+import com.couchbase.client.core.json.stream.CompositeStreamWindow;
 import com.couchbase.client.core.json.stream.JsonStreamParser;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.chunk.ChunkHeader;
@@ -167,7 +167,7 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
   @Override
   public void initialize(final ChannelConfig channelConfig) {
     cleanup();
-    parser = parserBuilder().build(scratchBuffer, new CopyingStreamWindow(channelConfig.getAllocator()));
+    parser = parserBuilder().build(scratchBuffer, new CompositeStreamWindow(channelConfig.getAllocator()));
     this.channelConfig = channelConfig;
     this.trailer = MonoProcessor.create();
     this.requested.set(0);
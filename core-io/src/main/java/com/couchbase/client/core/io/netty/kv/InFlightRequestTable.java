@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import java.util.function.Consumer;
+
+/**
+ * Tracks the in-flight requests of a single KV channel, keyed by their opaque.
+ *
+ * <p>This is an open-addressing (linear probing) hash table which stores the request and the primitive dispatch
+ * timestamp side by side, so no boxing happens when a request is written or completed. Removal shifts the
+ * following entries of the probe sequence back instead of leaving tombstones, so lookups never degrade over the
+ * lifetime of the channel.</p>
+ *
+ * <p>The table grows as needed, but never beyond the configured maximum number of entries. Note that it is not
+ * thread safe, it is meant to be only accessed from the event loop which owns the channel.</p>
+ *
+ * @since 2.1.0
+ */
+class InFlightRequestTable<T> {
+
+  /**
+   * The initial number of slots, must be a power of two.
+   */
+  static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+  /**
+   * The default maximum number of in-flight requests per channel.
+   */
+  static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+  private final int maxSize;
+
+  private int[] keys;
+  private Object[] values;
+  private long[] timestamps;
+  private int mask;
+  private int size;
+
+  InFlightRequestTable() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a new table.
+   *
+   * @param initialCapacity the initial number of slots, must be a power of two.
+   * @param maxSize the maximum number of entries this table accepts.
+   */
+  InFlightRequestTable(final int initialCapacity, final int maxSize) {
+    if (Integer.bitCount(initialCapacity) != 1) {
+      throw new IllegalArgumentException("The initial capacity must be a power of two");
+    }
+    this.maxSize = maxSize;
+    allocate(initialCapacity);
+  }
+
+  private void allocate(final int capacity) {
+    keys = new int[capacity];
+    values = new Object[capacity];
+    timestamps = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Spreads the (usually sequential) opaques over the table.
+   */
+  private int slotFor(final int key) {
+    int h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Stores the value with its dispatch timestamp, replacing any previous value with the same key.
+   *
+   * @param key the opaque of the request.
+   * @param value the request, must not be null.
+   * @param timestamp the dispatch timestamp.
+   * @return true if stored, false if the table is at its maximum size.
+   */
+  boolean put(final int key, final T value, final long timestamp) {
+    int slot = slotFor(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        timestamps[slot] = timestamp;
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    if (size >= maxSize) {
+      return false;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    timestamps[slot] = timestamp;
+    size++;
+
+    // Keep the load factor at or below 0.5 so that probe sequences stay short.
+    if (size > (mask + 1) >>> 1) {
+      rehash((mask + 1) << 1);
+    }
+    return true;
+  }
+
+  private void rehash(final int newCapacity) {
+    int[] oldKeys = keys;
+    Object[] oldValues = values;
+    long[] oldTimestamps = timestamps;
+    allocate(newCapacity);
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int slot = slotFor(oldKeys[i]);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        timestamps[slot] = oldTimestamps[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the slot for the given key, or -1 if not present.
+   *
+   * @param key the opaque to look up.
+   */
+  int find(final int key) {
+    int slot = slotFor(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the value stored in the given (occupied) slot.
+   */
+  @SuppressWarnings({"unchecked"})
+  T valueAt(final int slot) {
+    return (T) values[slot];
+  }
+
+  /**
+   * Returns the timestamp stored in the given (occupied) slot.
+   */
+  long timestampAt(final int slot) {
+    return timestamps[slot];
+  }
+
+  /**
+   * Removes the entry in the given (occupied) slot.
+   *
+   * <p>All following entries of the probe sequence which would not be reachable anymore are shifted back into
+   * the freed slot, so no tombstones are needed.</p>
+   *
+   * @param slot the slot to free.
+   */
+  void removeAt(int slot) {
+    size--;
+    int next = (slot + 1) & mask;
+    while (values[next] != null) {
+      int ideal = slotFor(keys[next]);
+      // Move the entry back if its ideal slot is not within (slot, next], taking wrap-around into account.
+      if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+        keys[slot] = keys[next];
+        values[slot] = values[next];
+        timestamps[slot] = timestamps[next];
+        slot = next;
+      }
+      next = (next + 1) & mask;
+    }
+    values[slot] = null;
+  }
+
+  /**
+   * Removes the value for the given key.
+   *
+   * @param key the opaque to remove.
+   * @return the removed value, or null if not present.
+   */
+  T remove(final int key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return null;
+    }
+    T value = valueAt(slot);
+    removeAt(slot);
+    return value;
+  }
+
+  /**
+   * Calls the consumer for every value currently stored.
+   *
+   * @param consumer the consumer to call.
+   */
+  @SuppressWarnings({"unchecked"})
+  void forEachValue(final Consumer<? super T> consumer) {
+    for (Object value : values) {
+      if (value != null) {
+        consumer.accept((T) value);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries currently stored.
+   */
+  int size() {
+    return size;
+  }
+
+}
@@ -24,14 +24,15 @@ import com.couchbase.client.core.cnc.events.io.KeyValueErrorMapCodeHandledEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
+import com.couchbase.client.core.config.ConfigVersion;
+import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
+import com.couchbase.client.core.config.ProposedGlobalConfigContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectHashMap;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectMap;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CompressionConfig;
@@ -74,14 +75,9 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
   private final EndpointContext endpointContext;
 
   /**
-   * Holds all outstanding requests based on their opaque.
+   * Holds all outstanding requests and their dispatch timestamps based on their opaque.
    */
-  private final IntObjectMap<KeyValueRequest<Response>> writtenRequests;
-
-  /**
-   * Holds the start timestamps for the outstanding dispatched requests.
-   */
-  private final IntObjectMap<Long> writtenRequestDispatchTimings;
+  private final InFlightRequestTable<KeyValueRequest<Response>> writtenRequests;
 
   /**
    * The compression config used for this handler.
@@ -118,6 +114,11 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private ErrorMap errorMap;
 
+  /**
+   * Set once the channel went inactive, after which all remaining in-flight requests have been accounted for.
+   */
+  private boolean inactive;
+
   /**
    * Creates a new {@link KeyValueMessageHandler}.
    *
@@ -127,8 +128,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
                                 final Optional<String> bucketName) {
     this.endpoint = endpoint;
     this.endpointContext = endpointContext;
-    this.writtenRequests = new IntObjectHashMap<>();
-    this.writtenRequestDispatchTimings = new IntObjectHashMap<>();
+    this.writtenRequests = new InFlightRequestTable<>();
     this.compressionConfig = endpointContext.environment().compressionConfig();
     this.eventBus = endpointContext.environment().eventBus();
     this.bucketName = bucketName;
@@ -162,6 +162,8 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     boolean altRequest = features != null && features.contains(ServerFeature.ALT_REQUEST);
     boolean vattrEnabled = features != null && features.contains(ServerFeature.VATTR);
     boolean createAsDeleted = features != null && features.contains(ServerFeature.CREATE_AS_DELETED);
+    boolean clustermapNotifications = features != null && features.contains(ServerFeature.DUPLEX)
+      && features.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION);
 
     if (syncReplication && !altRequest) {
       throw new IllegalStateException("If Synchronous Replication is enabled, the server also " +
@@ -181,6 +183,10 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       createAsDeleted
     );
 
+    if (clustermapNotifications) {
+      ioContext.core().configurationProvider().configPushNegotiated(bucketName);
+    }
+
     ctx.fireChannelActive();
   }
 
@@ -191,15 +197,33 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       KeyValueRequest<Response> request = (KeyValueRequest<Response>) msg;
 
       int opaque = request.opaque();
-      writtenRequests.put(opaque, request);
       try {
-        ctx.write(request.encode(ctx.alloc(), opaque, channelContext), promise);
-        writtenRequestDispatchTimings.put(opaque, (Long) System.nanoTime());
+        ByteBuf encoded = request.encode(ctx.alloc(), opaque, channelContext);
+        if (!writtenRequests.put(opaque, request, System.nanoTime())) {
+          ReferenceCountUtil.release(encoded);
+          if (endpoint != null) {
+            endpoint.markRequestCompletion();
+          }
+          promise.tryFailure(new IllegalStateException("Too many requests in-flight on this channel ("
+            + writtenRequests.size() + ")"));
+          return;
+        }
+        inFlightChanged(1);
+        if (!promise.isVoid()) {
+          promise.addListener(f -> {
+            if (!f.isSuccess() && !inactive && writtenRequests.remove(opaque) != null) {
+              inFlightChanged(-1);
+            }
+          });
+        }
+        ctx.write(encoded, promise);
         if (request.internalSpan() != null) {
           request.internalSpan().startDispatch();
         }
       } catch (Throwable err) {
-        writtenRequests.remove(opaque);
+        if (writtenRequests.remove(opaque) != null) {
+          inFlightChanged(-1);
+        }
         if (err instanceof CollectionNotFoundException) {
           if (channelContext.collectionsEnabled()) {
             if (ioContext.core().configurationProvider().collectionMapRefreshInProgress()) {
@@ -223,6 +247,15 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+    if (msg instanceof ByteBuf && ((ByteBuf) msg).getByte(0) == MemcacheProtocol.Magic.SERVER_REQUEST.magic()) {
+      try {
+        handleServerRequest((ByteBuf) msg);
+      } finally {
+        ReferenceCountUtil.release(msg);
+      }
+      return;
+    }
+
     try {
       if (msg instanceof ByteBuf) {
         decode(ctx, (ByteBuf) msg);
@@ -242,12 +275,26 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
-    for (KeyValueRequest<Response> request : writtenRequests.values()) {
-      RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT);
-    }
+    inactive = true;
+    inFlightChanged(-writtenRequests.size());
+    writtenRequests.forEachValue(request ->
+      RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT)
+    );
     ctx.fireChannelInactive();
   }
 
+  /**
+   * Reports requests added to or removed from the in-flight table to the endpoint, so that the load of this
+   * channel can be judged from the outside (the table itself must only be accessed from the event loop).
+   *
+   * @param delta the number of requests added (positive) or removed (negative).
+   */
+  private void inFlightChanged(final int delta) {
+    if (endpoint != null && delta != 0) {
+      endpoint.markRequestsInFlight(delta);
+    }
+  }
+
   /**
    * Main method to start dispatching the decode.
    *
@@ -256,17 +303,21 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private void decode(final ChannelHandlerContext ctx, final ByteBuf response) {
     int opaque = MemcacheProtocol.opaque(response);
-    KeyValueRequest<Response> request = writtenRequests.remove(opaque);
+    int slot = writtenRequests.find(opaque);
 
-    if (request == null) {
+    if (slot < 0) {
       handleUnknownResponseReceived(ctx, response);
       return;
     }
 
+    KeyValueRequest<Response> request = writtenRequests.valueAt(slot);
+    long start = writtenRequests.timestampAt(slot);
+    writtenRequests.removeAt(slot);
+    inFlightChanged(-1);
+
     long serverTime = MemcacheProtocol.parseServerDurationFromResponse(response);
     request.context().serverLatency(serverTime);
 
-    long start = writtenRequestDispatchTimings.remove(opaque);
     request.context().dispatchLatency(System.nanoTime() - start);
 
     if (request.internalSpan() != null) {
@@ -440,6 +491,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.KV_NOT_MY_VBUCKET);
 
     body(response)
+      .filter(b -> !ConfigVersion.isOutdated(ioContext.core().clusterConfig(), request.bucket(), b))
       .map(b -> b.toString(UTF_8).trim())
       .filter(c -> c.startsWith("{"))
       .ifPresent(c -> ioContext.core().configurationProvider().proposeBucketConfig(
@@ -447,6 +499,34 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       ));
   }
 
+  /**
+   * Handles a request initiated by the server, which is only sent if duplex mode has been negotiated.
+   *
+   * <p>Cluster map change notifications carry the bucket name as the key (empty for the global config) and the
+   * config as the body. No response is sent back for them.</p>
+   *
+   * @param request the server request to handle.
+   */
+  private void handleServerRequest(final ByteBuf request) {
+    if (MemcacheProtocol.opcode(request) != MemcacheProtocol.ServerPushOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode()) {
+      return;
+    }
+
+    Optional<ByteBuf> config = body(request);
+    if (!config.isPresent()) {
+      return;
+    }
+
+    String origin = endpointContext.remoteSocket().hostname();
+    String bucket = MemcacheProtocol.key(request).map(k -> k.toString(UTF_8)).orElse("");
+    ConfigurationProvider provider = ioContext.core().configurationProvider();
+    if (bucket.isEmpty()) {
+      provider.proposeGlobalConfig(new ProposedGlobalConfigContext(config.get().toString(UTF_8), origin));
+    } else if (!ConfigVersion.isOutdated(provider.config(), bucket, config.get())) {
+      provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config.get().toString(UTF_8), origin));
+    }
+  }
+
   /**
    * Helper method to redispatch a request and signal that we need to refresh the collection map.
    *
@@ -18,6 +18,8 @@ package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.events.io.DurabilityTimeoutCoercedEvent;
+import com.couchbase.client.core.compression.DefaultSnappyCodec;
+import com.couchbase.client.core.compression.SnappyCodec;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.context.KeyValueErrorContext;
@@ -31,6 +33,7 @@ import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
 
 import java.time.Duration;
@@ -247,6 +250,29 @@ public enum MemcacheProtocol {
     return message.getLong(CAS_OFFSET);
   }
 
+  /**
+   * Returns the key of the message if available.
+   *
+   * @param message the message to extract the key from.
+   * @return an optional either containing the key of the message or none.
+   */
+  public static Optional<ByteBuf> key(final ByteBuf message) {
+    if (message == null) {
+      return Optional.empty();
+    }
+    boolean flexible = message.getByte(0) == Magic.FLEXIBLE_RESPONSE.magic();
+
+    int keyLength = flexible ? message.getByte(3) : message.getShort(2);
+    int flexibleExtrasLength = flexible ? message.getByte(2) : 0;
+    byte extrasLength = message.getByte(4);
+
+    if (keyLength > 0) {
+      return Optional.of(message.slice(MemcacheProtocol.HEADER_SIZE + flexibleExtrasLength + extrasLength, keyLength));
+    } else {
+      return Optional.empty();
+    }
+  }
+
   /**
    * Returns the body of the message if available.
    *
@@ -390,7 +416,8 @@ public enum MemcacheProtocol {
     int bodyPlusHeader = response.getInt(TOTAL_LENGTH_OFFSET) + MemcacheProtocol.HEADER_SIZE;
 
     return
-      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic())
+      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic()
+        || magic == Magic.SERVER_REQUEST.magic())
       && readableBytes == bodyPlusHeader;
   }
 
@@ -717,11 +744,40 @@ public enum MemcacheProtocol {
    * @return a {@link ByteBuf} if compressed, or null if below the min ratio.
    */
   public static ByteBuf tryCompression(byte[] input, double minRatio) {
-    byte[] compressed = Snappy.compress(input);
-    if (((double) compressed.length / input.length) > minRatio) {
+    return tryCompression(UnpooledByteBufAllocator.DEFAULT, Unpooled.wrappedBuffer(input), minRatio);
+  }
+
+  /**
+   * Try to compress the input into a buffer of the given allocator with the default codec, but if it is below
+   * the min ratio then it will return null.
+   *
+   * @param alloc the allocator to use for the compressed output.
+   * @param input the input buffer, its reader index is not modified.
+   * @param minRatio the minimum ratio to accept and return the buffer.
+   * @return a {@link ByteBuf} which must be released by the caller if compressed, or null if below the min ratio.
+   */
+  public static ByteBuf tryCompression(final ByteBufAllocator alloc, final ByteBuf input, final double minRatio) {
+    return tryCompression(alloc, input, minRatio, DefaultSnappyCodec.INSTANCE);
+  }
+
+  /**
+   * Try to compress the input into a buffer of the given allocator, but if it is below the min ratio then it
+   * will return null.
+   *
+   * @param alloc the allocator to use for the compressed output.
+   * @param input the input buffer, its reader index is not modified.
+   * @param minRatio the minimum ratio to accept and return the buffer.
+   * @param codec the codec which performs the actual compression.
+   * @return a {@link ByteBuf} which must be released by the caller if compressed, or null if below the min ratio.
+   */
+  public static ByteBuf tryCompression(final ByteBufAllocator alloc, final ByteBuf input, final double minRatio,
+                                       final SnappyCodec codec) {
+    ByteBuf compressed = codec.compress(alloc, input);
+    if (((double) compressed.readableBytes() / input.readableBytes()) > minRatio) {
+      compressed.release();
       return null;
     }
-    return Unpooled.wrappedBuffer(compressed);
+    return compressed;
   }
 
   /**
@@ -741,6 +797,71 @@ public enum MemcacheProtocol {
     return input;
   }
 
+  /**
+   * Returns the readable bytes of the input as an array, decompressing them on the fly if the datatype has
+   * the snappy flag enabled.
+   *
+   * @param input the input buffer, its reader index is not modified.
+   * @param datatype the datatype for the response.
+   * @return the byte array, either decoded or a copy of the input.
+   */
+  public static byte[] tryDecompression(final ByteBuf input, final byte datatype) {
+    if ((datatype & Datatype.SNAPPY.datatype()) == Datatype.SNAPPY.datatype()) {
+      return DefaultSnappyCodec.INSTANCE.decompress(input);
+    }
+    return ByteBufUtil.getBytes(input);
+  }
+
+  /**
+   * Returns the body of the message as a byte array, decompressing it on the fly with the default codec if
+   * the datatype of the message has the snappy flag enabled.
+   *
+   * @param message the message to extract the body from.
+   * @return the (decompressed) body, or null if there is none.
+   */
+  public static byte[] bodyAsDecompressedBytes(final ByteBuf message) {
+    return bodyAsDecompressedBytes(message, (KeyValueChannelContext) null);
+  }
+
+  /**
+   * Returns the body of the message as a byte array, decompressing it on the fly if the datatype of the
+   * message has the snappy flag enabled.
+   *
+   * <p>Compared to {@link #bodyAsBytes(ByteBuf)} followed by {@link #tryDecompression(byte[], byte)}, the
+   * compressed body is never copied out of the network buffer, only the uncompressed content is allocated.</p>
+   *
+   * @param message the message to extract the body from.
+   * @param ctx the channel context which holds the configured codec, if null the default one is used.
+   * @return the (decompressed) body, or null if there is none.
+   */
+  public static byte[] bodyAsDecompressedBytes(final ByteBuf message, final KeyValueChannelContext ctx) {
+    if (message == null) {
+      return null;
+    }
+
+    boolean flexible = message.getByte(0) == Magic.FLEXIBLE_RESPONSE.magic();
+
+    int totalBodyLength = message.getInt(TOTAL_LENGTH_OFFSET);
+    int keyLength = flexible ? message.getByte(3) : message.getShort(2);
+    int flexibleExtrasLength = flexible ? message.getByte(2) : 0;
+    byte extrasLength = message.getByte(4);
+    int bodyLength = totalBodyLength - keyLength - extrasLength - flexibleExtrasLength;
+
+    if (bodyLength > 0) {
+      int bodyOffset = MemcacheProtocol.HEADER_SIZE + flexibleExtrasLength + extrasLength + keyLength;
+      byte datatype = datatype(message);
+      if ((datatype & Datatype.SNAPPY.datatype()) == Datatype.SNAPPY.datatype()) {
+        SnappyCodec codec = ctx != null && ctx.compressionConfig() != null
+          ? ctx.compressionConfig().codec()
+          : DefaultSnappyCodec.INSTANCE;
+        return codec.decompress(message.slice(bodyOffset, bodyLength));
+      }
+      return ByteBufUtil.getBytes(message, bodyOffset, bodyLength);
+    }
+
+    return null;
+  }
+
   /**
    * Helper method during development and debugging to dump the raw message as a
    * verbose string.
@@ -801,7 +922,11 @@ public enum MemcacheProtocol {
     REQUEST((byte) 0x80),
     RESPONSE((byte) 0x81),
     FLEXIBLE_REQUEST((byte) 0x08),
-    FLEXIBLE_RESPONSE((byte) 0x18);
+    FLEXIBLE_RESPONSE((byte) 0x18),
+    /**
+     * A request initiated by the server (i.e. a push notification), only sent if duplex mode is negotiated.
+     */
+    SERVER_REQUEST((byte) 0x82);
 
     private final byte magic;
 
@@ -828,6 +953,8 @@ public enum MemcacheProtocol {
           return Magic.FLEXIBLE_REQUEST;
         case 0x18:
           return Magic.FLEXIBLE_RESPONSE;
+        case (byte) 0x82:
+          return Magic.SERVER_REQUEST;
       }
       return null;
     }
@@ -984,6 +1111,31 @@ public enum MemcacheProtocol {
     }
   }
 
+  /**
+   * Contains all known/used opcodes of requests initiated by the server (only used in duplex mode).
+   */
+  public enum ServerPushOpcode {
+    /**
+     * The server pushes a new cluster map (config), no response is expected.
+     */
+    CLUSTERMAP_CHANGE_NOTIFICATION((byte) 0x01);
+
+    private final byte opcode;
+
+    ServerPushOpcode(byte opcode) {
+      this.opcode = opcode;
+    }
+
+    /**
+     * Returns the opcode for the given command.
+     *
+     * @return the opcode for the command.
+     */
+    public byte opcode() {
+      return opcode;
+    }
+  }
+
   public enum Status {
     /**
      * Successful message.
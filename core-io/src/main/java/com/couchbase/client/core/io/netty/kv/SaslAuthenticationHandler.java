@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.io.netty.kv;
 
+import com.couchbase.client.core.Core;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.io.SaslAuthenticationCompletedEvent;
 import com.couchbase.client.core.cnc.events.io.SaslAuthenticationFailedEvent;
@@ -34,6 +35,7 @@ import com.couchbase.client.core.error.AuthenticationFailureException;
 import com.couchbase.client.core.error.context.KeyValueIoErrorContext;
 import com.couchbase.client.core.io.IoContext;
 import com.couchbase.client.core.io.netty.kv.sasl.CouchbaseSaslClientFactory;
+import com.couchbase.client.core.io.netty.kv.sasl.ScramSaslClientFactory;
 import com.couchbase.client.core.json.Mapper;
 import com.couchbase.client.core.msg.kv.BaseKeyValueRequest;
 import com.couchbase.client.core.util.Bytes;
@@ -47,6 +49,7 @@ import javax.security.sasl.SaslClient;
 import javax.security.sasl.SaslException;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -348,12 +351,18 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
    * @throws SaslException if something went wrong during the creation.
    */
   private SaslClient createSaslClient(final Set<SaslMechanism> selected) throws SaslException {
+    // the keys derived by SCRAM are shared across all connections of the core
+    Core core = endpointContext.core();
+    Map<String, ?> props = core == null || core.scramCredentialCache() == null
+      ? null
+      : Collections.singletonMap(ScramSaslClientFactory.CREDENTIAL_CACHE_PROPERTY, core.scramCredentialCache());
+
     return new CouchbaseSaslClientFactory().createSaslClient(
       selected.stream().map(SaslMechanism::mech).toArray(String[]::new),
       null,
       "couchbase",
       ioContext.remoteSocket().toString(),
-      null,
+      props,
       this
     );
   }
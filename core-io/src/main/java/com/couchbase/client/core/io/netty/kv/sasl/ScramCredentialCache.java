@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.util.ConcurrentLRUCache;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Caches the keys derived from the password during SCRAM authentication, so they are not derived again on every
+ * new connection.
+ * <p>
+ * Deriving the salted password runs thousands of HMAC iterations, which adds up when many connections are opened
+ * at once (i.e. when reconnecting to all nodes after a network partition). Since the server only changes the salt
+ * and the iteration count when the password changes, the derived keys can be reused for all connections with the
+ * same credentials. The password itself is not part of the key, only a digest of it, so a changed password on
+ * the client side never picks up stale keys.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ScramCredentialCache {
+
+  /**
+   * The default number of credentials to cache, which is plenty since usually only one user is in use.
+   */
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private final ConcurrentLRUCache<Key, Credentials> cache;
+
+  /**
+   * Creates a new cache with the default capacity.
+   */
+  public ScramCredentialCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new cache with a custom capacity.
+   *
+   * @param capacity the maximum number of credentials to cache.
+   */
+  public ScramCredentialCache(final int capacity) {
+    this.cache = new ConcurrentLRUCache<>(capacity);
+  }
+
+  /**
+   * Returns the number of authentications which reused cached credentials.
+   */
+  public long hits() {
+    return cache.hits();
+  }
+
+  /**
+   * Returns the number of authentications which had to derive the credentials.
+   */
+  public long misses() {
+    return cache.misses();
+  }
+
+  Credentials get(final Key key) {
+    return cache.get(key);
+  }
+
+  void put(final Key key, final Credentials credentials) {
+    cache.put(key, credentials);
+  }
+
+  @Override
+  public String toString() {
+    return "ScramCredentialCache{" +
+      "hits=" + hits() +
+      ", misses=" + misses() +
+      '}';
+  }
+
+  /**
+   * The keys derived from the password, which must not be modified once cached.
+   */
+  static class Credentials {
+
+    private final byte[] clientKey;
+    private final byte[] serverKey;
+
+    Credentials(final byte[] clientKey, final byte[] serverKey) {
+      this.clientKey = clientKey;
+      this.serverKey = serverKey;
+    }
+
+    byte[] clientKey() {
+      return clientKey;
+    }
+
+    byte[] serverKey() {
+      return serverKey;
+    }
+  }
+
+  /**
+   * Identifies the inputs the credentials have been derived from.
+   */
+  static class Key {
+
+    private final String mechanism;
+    private final String username;
+    private final byte[] passwordDigest;
+    private final byte[] salt;
+    private final int iterations;
+
+    Key(final String mechanism, final String username, final byte[] passwordDigest, final byte[] salt,
+        final int iterations) {
+      this.mechanism = mechanism;
+      this.username = username;
+      this.passwordDigest = passwordDigest;
+      this.salt = salt;
+      this.iterations = iterations;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return iterations == key.iterations &&
+        Objects.equals(mechanism, key.mechanism) &&
+        Objects.equals(username, key.username) &&
+        Arrays.equals(passwordDigest, key.passwordDigest) &&
+        Arrays.equals(salt, key.salt);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(mechanism, username, iterations);
+      result = 31 * result + Arrays.hashCode(passwordDigest);
+      result = 31 * result + Arrays.hashCode(salt);
+      return result;
+    }
+  }
+
+}
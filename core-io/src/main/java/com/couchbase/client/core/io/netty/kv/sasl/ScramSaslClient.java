@@ -50,10 +50,12 @@ class ScramSaslClient implements SaslClient  {
   private final String hmacAlgorithm;
   private final CallbackHandler callbacks;
   private final MessageDigest digest;
+  private final ScramCredentialCache credentialCache;
 
   private String clientNonce;
+  private String username;
   private byte[] salt;
-  private byte[] saltedPassword;
+  private ScramCredentialCache.Credentials credentials;
   private int iterationCount;
   private String clientFirstMessage;
   private String clientFirstMessageBare;
@@ -64,7 +66,20 @@ class ScramSaslClient implements SaslClient  {
 
   ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler)
     throws NoSuchAlgorithmException  {
+    this(mode, callbackHandler, null);
+  }
+
+  /**
+   * Creates a new SCRAM client.
+   *
+   * @param mode the SCRAM mode to use.
+   * @param callbackHandler the handler to fetch the username and password from.
+   * @param credentialCache the cache to reuse derived keys across clients, may be null.
+   */
+  ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler,
+                  final ScramCredentialCache credentialCache) throws NoSuchAlgorithmException  {
     callbacks = callbackHandler;
+    this.credentialCache = credentialCache;
 
     switch (mode) {
       case SCRAM_SHA512:
@@ -110,7 +125,8 @@ class ScramSaslClient implements SaslClient  {
         throw new SaslException("Initial challenge should be without input data");
       }
 
-      clientFirstMessage = "n,,n=" + getUserName() + ",r=" + clientNonce;
+      username = getUserName();
+      clientFirstMessage = "n,,n=" + username + ",r=" + clientNonce;
       clientFirstMessageBare = clientFirstMessage.substring(3);
       return clientFirstMessage.getBytes(UTF_8);
     } else if (serverFirstMessage == null) {
@@ -145,8 +161,8 @@ class ScramSaslClient implements SaslClient  {
         throw InvalidArgumentException.fromMessage("missing mandatory key in serverFirstMessage");
       }
 
-      // We have the salt, time to generate the salted password
-      generateSaltedPassword();
+      // We have the salt, time to derive the keys from the salted password
+      deriveCredentials();
 
       clientFinalMessageNoProof = "c=biws,r=" + nonce;
       String client_final_message = clientFinalMessageNoProof + ",p=" + Base64.getEncoder().encodeToString(getClientProof());
@@ -300,7 +316,11 @@ class ScramSaslClient implements SaslClient  {
     }
   }
 
-  private void generateSaltedPassword() throws SaslException {
+  /**
+   * Derives the client and server keys from the password, or reuses them from the cache if the same
+   * credentials have been derived before.
+   */
+  private void deriveCredentials() throws SaslException {
     final PasswordCallback passwordCallback = new PasswordCallback("Password", false);
     try {
       callbacks.handle(new Callback[]{passwordCallback});
@@ -314,8 +334,26 @@ class ScramSaslClient implements SaslClient  {
     }
 
     String password = new String(pw);
-    saltedPassword = pbkdf2(password, salt, iterationCount);
     passwordCallback.clearPassword();
+
+    ScramCredentialCache.Key key = null;
+    if (credentialCache != null) {
+      key = new ScramCredentialCache.Key(name, username, digest.digest(password.getBytes(UTF_8)), salt,
+        iterationCount);
+      credentials = credentialCache.get(key);
+      if (credentials != null) {
+        return;
+      }
+    }
+
+    byte[] saltedPassword = pbkdf2(password, salt, iterationCount);
+    credentials = new ScramCredentialCache.Credentials(
+      hmac(saltedPassword, CLIENT_KEY),
+      hmac(saltedPassword, SERVER_KEY)
+    );
+    if (key != null) {
+      credentialCache.put(key, credentials);
+    }
   }
 
   /**
@@ -326,8 +364,7 @@ class ScramSaslClient implements SaslClient  {
    * ServerSignature := HMAC(ServerKey, AuthMessage)</p>
    */
   private byte[] getServerSignature() {
-    byte[] serverKey = hmac(saltedPassword, SERVER_KEY);
-    return hmac(serverKey, getAuthMessage().getBytes(UTF_8));
+    return hmac(credentials.serverKey(), getAuthMessage().getBytes(UTF_8));
   }
 
   /**
@@ -343,7 +380,8 @@ class ScramSaslClient implements SaslClient  {
    * ClientProof     := ClientKey XOR ClientSignature</p>
    */
   private byte[] getClientProof() {
-    byte[] clientKey = hmac(saltedPassword, CLIENT_KEY);
+    // copy the client key since it is xored in place below and might be cached
+    byte[] clientKey = credentials.clientKey().clone();
     byte[] storedKey = digest.digest(clientKey);
     byte[] clientSignature = hmac(storedKey, getAuthMessage().getBytes(UTF_8));
 
@@ -37,6 +37,11 @@ import java.util.stream.Stream;
  */
 public class ScramSaslClientFactory implements SaslClientFactory {
 
+  /**
+   * The property under which a {@link ScramCredentialCache} can be passed in to reuse derived keys.
+   */
+  public static final String CREDENTIAL_CACHE_PROPERTY = "com.couchbase.client.core.sasl.scram.credentialCache";
+
   @Override
   public SaslClient createSaslClient(final String[] mechanisms, final String authorizationId,
                                      final String protocol, final String serverName,
@@ -56,7 +61,12 @@ public class ScramSaslClientFactory implements SaslClientFactory {
     }
 
     try {
-      return new ScramSaslClient(mode.get(), cbh);
+      Object cache = props == null ? null : props.get(CREDENTIAL_CACHE_PROPERTY);
+      return new ScramSaslClient(
+        mode.get(),
+        cbh,
+        cache instanceof ScramCredentialCache ? (ScramCredentialCache) cache : null
+      );
     } catch (NoSuchAlgorithmException e) {
       throw new SaslException("Selected algorithm not supported.", e);
     }
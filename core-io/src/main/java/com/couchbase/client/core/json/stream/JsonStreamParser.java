@@ -52,9 +52,9 @@ public class JsonStreamParser implements Closeable {
   private final ByteArrayFeeder feeder;
 
   /**
-   * KLUDGE: An unpooled heap buffer used for feeding Jackson. As of Jackson 2.9.8,
-   * the non-blocking parser can only be fed from offset zero of a byte array.
-   * Input is copied to this buffer's backing array before being fed to Jackson.
+   * An unpooled heap buffer used for feeding Jackson, which can only be fed from a byte array.
+   * Input without a backing array (direct buffers) is copied to this buffer before being fed to Jackson;
+   * heap buffers are fed from their own backing array.
    */
   private final ByteBuf scratchBuffer;
 
@@ -100,9 +100,8 @@ public class JsonStreamParser implements Closeable {
 
   private static ByteBuf checkScratchBuffer(ByteBuf buf) {
     // Must have backing array because Jackson 2.x can only be fed from array.
-    // Must have offset 0 due to https://github.com/FasterXML/jackson-core/issues/531
     // Must have unlimited capacity because we don't know how big the feeding buffers will be.
-    if (buf.hasArray() && buf.arrayOffset() == 0 && buf.maxCapacity() == Integer.MAX_VALUE) {
+    if (buf.hasArray() && buf.maxCapacity() == Integer.MAX_VALUE) {
       return buf;
     }
     throw InvalidArgumentException.fromMessage("Expected uncapped unpooled heap buffer but got " + buf);
@@ -118,6 +117,9 @@ public class JsonStreamParser implements Closeable {
    *                                 or if a value consumer throws an exception.
    */
   public void feed(ByteBuf input) throws DecodingFailureException {
+    // Jackson reads directly from the backing array of heap buffers, so keep them
+    // accessible until all tokens are processed (the window may release them right away).
+    final ByteBuf fedDirectly = input.hasArray() ? input.retain() : null;
     try {
       feedJackson(input);
       processTokens();
@@ -125,6 +127,10 @@ public class JsonStreamParser implements Closeable {
 
     } catch (Throwable t) {
       throw new DecodingFailureException(t);
+    } finally {
+      if (fedDirectly != null) {
+        fedDirectly.release();
+      }
     }
   }
 
@@ -146,12 +152,27 @@ public class JsonStreamParser implements Closeable {
   }
 
   private void feedJackson(ByteBuf input) throws IOException {
-    // Until a ByteBufferFeeder implementation arrives in Jackson 3, must copy input
-    // to a heap buffer and feed from the backing array.
-    input.markReaderIndex();
-    scratchBuffer.clear();
-    scratchBuffer.writeBytes(input);
-    input.resetReaderIndex();
+    final byte[] array;
+    final int start;
+    final int end;
+
+    if (input.hasArray()) {
+      // Heap buffer, feed straight from its backing array (the caller retained it for the duration of the feed).
+      array = input.array();
+      start = input.arrayOffset() + input.readerIndex();
+      end = start + input.readableBytes();
+    } else {
+      // Until a ByteBufferFeeder implementation arrives in Jackson 3, must copy direct input
+      // to a heap buffer and feed from the backing array.
+      input.markReaderIndex();
+      scratchBuffer.clear();
+      scratchBuffer.writeBytes(input);
+      input.resetReaderIndex();
+
+      array = scratchBuffer.array();
+      start = scratchBuffer.arrayOffset();
+      end = start + scratchBuffer.writerIndex();
+    }
 
     // Do this after copying into the feeder buffer because the input buffer is
     // not guaranteed to be accessible after it's added to the history window.
@@ -159,7 +180,7 @@ public class JsonStreamParser implements Closeable {
     // to make sure the input buffer is released when parser is closed.
     window.add(input);
 
-    feeder.feedInput(scratchBuffer.array(), scratchBuffer.arrayOffset(), scratchBuffer.writerIndex());
+    feeder.feedInput(array, start, end);
   }
 
   private void processTokens() throws IOException {
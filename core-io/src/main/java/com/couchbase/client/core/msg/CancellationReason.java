@@ -78,6 +78,13 @@ public class CancellationReason {
   public static final CancellationReason TARGET_NODE_REMOVED =
     new CancellationReason("TARGET_NODE_REMOVED", null);
 
+  /**
+   * The same operation has been sent more than once (i.e. as a hedged read against a replica) and another one of
+   * the requests already completed, so the result of this one is not needed anymore.
+   */
+  public static final CancellationReason SUPERSEDED =
+    new CancellationReason("SUPERSEDED", null);
+
   private final String identifier;
   private final Object innerReason;
 
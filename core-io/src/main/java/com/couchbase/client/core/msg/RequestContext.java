@@ -18,6 +18,8 @@ package com.couchbase.client.core.msg;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.metrics.RequestMetrics;
+import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.util.HostAndPort;
@@ -28,8 +30,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static com.couchbase.client.core.logging.RedactableArgument.redactMeta;
 import static com.couchbase.client.core.logging.RedactableArgument.redactSystem;
@@ -42,6 +44,23 @@ import static com.couchbase.client.core.util.Validators.notNull;
  */
 public class RequestContext extends CoreContext {
 
+  /**
+   * Atomic updater for the {@link #retryReasons} field.
+   * <p>
+   * Field updaters are used instead of atomic wrappers since a context is allocated with every single request.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final AtomicReferenceFieldUpdater<RequestContext, Set<RetryReason>> RETRY_REASONS_UPDATER =
+    (AtomicReferenceFieldUpdater) AtomicReferenceFieldUpdater.newUpdater(
+      RequestContext.class, Set.class, "retryReasons"
+    );
+
+  /**
+   * Atomic updater for the {@link #retryAttempts} field.
+   */
+  private static final AtomicIntegerFieldUpdater<RequestContext> RETRY_ATTEMPTS_UPDATER =
+    AtomicIntegerFieldUpdater.newUpdater(RequestContext.class, "retryAttempts");
+
   /**
    * Holds the dispatch latency if set already (or at all).
    */
@@ -95,12 +114,12 @@ public class RequestContext extends CoreContext {
   /**
    * Holds a set of retry reasons.
    */
-  private volatile AtomicReference<Set<RetryReason>> retryReasons = new AtomicReference<>(null);
+  private volatile Set<RetryReason> retryReasons;
 
   /**
    * The number of times the attached request has been retried.
    */
-  private final AtomicInteger retryAttempts;
+  private volatile int retryAttempts;
 
   /**
    * The last retry duration for this request.
@@ -117,7 +136,6 @@ public class RequestContext extends CoreContext {
   public RequestContext(CoreContext ctx, final Request<? extends Response> request) {
     super(ctx.core(), ctx.id(), ctx.environment(), ctx.authenticator());
     this.request = request;
-    this.retryAttempts = new AtomicInteger(0);
   }
 
   /**
@@ -184,15 +202,22 @@ public class RequestContext extends CoreContext {
     if (request.internalSpan() != null) {
       request.internalSpan().finish();
     }
+    CoreEnvironment env = environment();
+    if (env != null) {
+      RequestMetrics metrics = env.requestMetrics();
+      if (metrics != null) {
+        metrics.record(request);
+      }
+    }
     return this;
   }
 
   public int retryAttempts() {
-    return retryAttempts.get();
+    return retryAttempts;
   }
 
   public Set<RetryReason> retryReasons() {
-    return retryReasons.get();
+    return retryReasons;
   }
 
   public Duration lastRetryDuration() {
@@ -222,7 +247,7 @@ public class RequestContext extends CoreContext {
     notNull(lastRetryDuration, "Retry Duration");
     notNull(reason, "Retry Reason");
 
-    retryReasons.getAndUpdate(retryReasons -> {
+    RETRY_REASONS_UPDATER.getAndUpdate(this, retryReasons -> {
       if (retryReasons == null) {
         retryReasons = EnumSet.of(reason);
       } else {
@@ -230,7 +255,7 @@ public class RequestContext extends CoreContext {
       }
       return retryReasons;
     });
-    retryAttempts.incrementAndGet();
+    RETRY_ATTEMPTS_UPDATER.incrementAndGet(this);
     this.lastRetryDuration = lastRetryDuration;
     return this;
   }
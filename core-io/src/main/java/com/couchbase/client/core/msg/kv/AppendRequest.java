@@ -63,8 +63,10 @@ public class AppendRequest extends BaseKeyValueRequest<AppendResponse> implement
 
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+      if (config != null && config.shouldCompress(collectionIdentifier(), CodecFlags.BINARY_COMPAT_FLAGS, this.content.length)) {
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(
+          alloc, Unpooled.wrappedBuffer(this.content), config.minRatio(), config.codec()
+        );
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
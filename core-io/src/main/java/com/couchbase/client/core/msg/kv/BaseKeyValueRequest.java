@@ -20,6 +20,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.CollectionNotFoundException;
 import com.couchbase.client.core.error.FeatureNotAvailableException;
 import com.couchbase.client.core.error.InvalidArgumentException;
@@ -33,6 +34,7 @@ import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.util.Bytes;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -83,6 +85,12 @@ public abstract class BaseKeyValueRequest<R extends Response>
    */
   private volatile short partition;
 
+  /**
+   * Caches the key including its collection prefix, so it does not need to be rebuilt every time
+   * the request is (re-)encoded.
+   */
+  private volatile CollectionPrefixedKey prefixedKey;
+
   protected BaseKeyValueRequest(final Duration timeout, final CoreContext ctx, final RetryStrategy retryStrategy,
                                 final String key, final CollectionIdentifier collectionIdentifier) {
     this(timeout, ctx, retryStrategy, key, collectionIdentifier, null);
@@ -124,6 +132,10 @@ public abstract class BaseKeyValueRequest<R extends Response>
    * This method with return an encoded key with or without the collection prefix, depending on the
    * context provided.
    *
+   * <p>The returned buffer wraps an array which is built once and then reused across retries for as long
+   * as the collection prefix does not change, so it must only be read from. It still needs to be released
+   * by the caller like any other buffer.</p>
+   *
    * @param alloc the buffer allocator to use.
    * @param ctx the channel context.
    * @return the encoded ID, maybe with the collection prefix in place.
@@ -135,16 +147,18 @@ public abstract class BaseKeyValueRequest<R extends Response>
         throw CollectionNotFoundException.forCollection(collectionIdentifier.collection().orElse(""));
       }
 
-      int totalLength = key.length + collection.length;
-      checkKeyLength(totalLength);
-      return alloc
-        .buffer(totalLength)
-        .writeBytes(collection)
-        .writeBytes(key);
+      CollectionPrefixedKey cached = prefixedKey;
+      if (cached == null || !cached.hasPrefix(collection)) {
+        int totalLength = key.length + collection.length;
+        checkKeyLength(totalLength);
+        cached = new CollectionPrefixedKey(collection, key);
+        prefixedKey = cached;
+      }
+      return Unpooled.wrappedBuffer(cached.encoded);
     } else {
       if (collectionIdentifier.isDefault()) {
         checkKeyLength(key.length);
-        return alloc.buffer(key.length).writeBytes(key);
+        return Unpooled.wrappedBuffer(key);
       } else {
         throw new FeatureNotAvailableException("Collections are not supported (or enabled) on the cluster");
       }
@@ -218,4 +232,25 @@ public abstract class BaseKeyValueRequest<R extends Response>
     return "0x" + Integer.toHexString(opaque);
   }
 
+  /**
+   * Holds the key with the collection prefix it has been encoded with.
+   */
+  private static class CollectionPrefixedKey {
+
+    private final byte[] prefix;
+    private final byte[] encoded;
+
+    CollectionPrefixedKey(final byte[] prefix, final byte[] key) {
+      this.prefix = prefix;
+      this.encoded = new byte[prefix.length + key.length];
+      System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+      System.arraycopy(key, 0, encoded, prefix.length, key.length);
+    }
+
+    boolean hasPrefix(final byte[] prefix) {
+      return this.prefix == prefix || Arrays.equals(this.prefix, prefix);
+    }
+
+  }
+
 }
@@ -78,8 +78,10 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
       key = encodedKeyWithCollection(alloc, ctx);
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+      if (config != null && config.shouldCompress(collectionIdentifier(), flags, this.content.length)) {
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(
+          alloc, Unpooled.wrappedBuffer(this.content), config.minRatio(), config.codec()
+        );
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.ValueRecorder;
+
+/**
+ * Adapts the number of requests allowed in flight towards a node based on the observed latency (AIMD).
+ * <p>
+ * Every completed request feeds a latency sample: as long as the short-term average latency stays within a
+ * tolerance of the long-term average, the limit grows additively (by roughly one per "round trip" of the limit).
+ * Once the short-term latency exceeds that tolerance, or a request times out, the limit shrinks multiplicatively.
+ * To avoid a single burst collapsing the limit, it is only reduced once per window of samples the size of the
+ * current limit.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class AdaptiveConcurrencyLimiter {
+
+  public static final int DEFAULT_INITIAL_LIMIT = 512;
+  public static final int DEFAULT_MIN_LIMIT = 16;
+  public static final int DEFAULT_MAX_LIMIT = 8192;
+
+  /**
+   * The factor the limit is multiplied with once the node is considered overloaded.
+   */
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /**
+   * How much slower the short-term latency is allowed to be compared to the long-term one.
+   */
+  private static final double LATENCY_TOLERANCE = 2.0;
+
+  private static final double SHORT_TERM_WEIGHT = 1.0 / 16;
+  private static final double LONG_TERM_WEIGHT = 1.0 / 512;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final ValueRecorder limitRecorder;
+
+  private double limit;
+  private double shortTermLatency;
+  private double longTermLatency;
+  private long samplesSinceBackoff;
+
+  /**
+   * The current limit, read on every dispatch without taking the lock.
+   */
+  private volatile int currentLimit;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param initialLimit the limit to start with.
+   * @param minLimit the limit never goes below this value.
+   * @param maxLimit the limit never goes above this value.
+   * @param limitRecorder receives the new limit every time it changes.
+   */
+  public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                                    final ValueRecorder limitRecorder) {
+    if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException("Expected 0 < minLimit <= initialLimit <= maxLimit, but got "
+        + minLimit + ", " + initialLimit + " and " + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limitRecorder = limitRecorder;
+    this.limit = initialLimit;
+    this.currentLimit = initialLimit;
+  }
+
+  /**
+   * Returns true if another request can be dispatched with the given number already in flight.
+   *
+   * @param inFlight the number of requests currently in flight towards the node.
+   */
+  public boolean allows(final long inFlight) {
+    return inFlight < currentLimit;
+  }
+
+  /**
+   * Returns the current limit.
+   */
+  public int limit() {
+    return currentLimit;
+  }
+
+  /**
+   * Feeds the outcome of a completed request into the limiter.
+   *
+   * @param latencyMicros the latency of the request in microseconds, 0 if not known.
+   * @param dropped true if the request did not complete in time (i.e. timed out).
+   */
+  public synchronized void onSample(final long latencyMicros, final boolean dropped) {
+    boolean overloaded = dropped;
+    if (!dropped && latencyMicros > 0) {
+      if (longTermLatency == 0) {
+        shortTermLatency = latencyMicros;
+        longTermLatency = latencyMicros;
+      } else {
+        shortTermLatency += (latencyMicros - shortTermLatency) * SHORT_TERM_WEIGHT;
+        longTermLatency += (latencyMicros - longTermLatency) * LONG_TERM_WEIGHT;
+      }
+      overloaded = shortTermLatency > longTermLatency * LATENCY_TOLERANCE;
+    }
+
+    samplesSinceBackoff++;
+    if (overloaded) {
+      if (samplesSinceBackoff >= limit) {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        samplesSinceBackoff = 0;
+      }
+    } else {
+      limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    int newLimit = (int) limit;
+    if (newLimit != currentLimit) {
+      currentLimit = newLimit;
+      if (limitRecorder != null) {
+        limitRecorder.recordValue(newLimit);
+      }
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "AdaptiveConcurrencyLimiter{" +
+      "limit=" + currentLimit +
+      ", minLimit=" + minLimit +
+      ", maxLimit=" + maxLimit +
+      ", shortTermLatencyUs=" + (long) shortTermLatency +
+      ", longTermLatencyUs=" + (long) longTermLatency +
+      '}';
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.couchbase.client.core.node;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.node.NodePartitionLengthNotEqualEvent;
 import com.couchbase.client.core.config.BucketCapabilities;
 import com.couchbase.client.core.config.BucketConfig;
@@ -37,9 +38,12 @@ import com.couchbase.client.core.msg.kv.SyncDurabilityRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.zip.CRC32;
 
 /**
  * A {@link Locator} responsible for locating the right node based on the partition of the
@@ -52,6 +56,70 @@ import java.util.zip.CRC32;
  */
 public class KeyValueLocator implements Locator {
 
+  /**
+   * Lookup table for the (reflected) CRC32 polynomial, used to hash keys without allocating.
+   */
+  private static final int[] CRC32_TABLE = crc32Table();
+
+  /**
+   * Holds the precomputed routing table for each couchbase bucket, keyed by bucket name.
+   */
+  private volatile Map<String, KeyValueRoutingTable> routingTables = Collections.emptyMap();
+
+  /**
+   * Holds the nodes the current routing tables have been built against.
+   */
+  private volatile List<Node> routedNodes = Collections.emptyList();
+
+  /**
+   * Rebuilds the routing tables for all couchbase buckets in the given config.
+   *
+   * <p>Tables are rebuilt incrementally: if the node list did not change, the table of a bucket whose config has
+   * not been swapped is kept as-is, and for a swapped config only the partitions are re-resolved against the
+   * already known nodes.</p>
+   *
+   * <p>This should be called once the nodes have been aligned with a new config. Until then (or if a bucket
+   * config is swapped without calling this method) the locator notices that the table is stale and falls
+   * back to resolving the node from the config directly.</p>
+   *
+   * @param config the current cluster configuration.
+   * @param nodes the current list of managed nodes.
+   */
+  @Stability.Internal
+  public void updateRoutingTables(final ClusterConfig config, final List<Node> nodes) {
+    List<Node> currentNodes = new ArrayList<>(nodes);
+    boolean sameNodes = sameNodes(routedNodes, currentNodes);
+    Map<String, KeyValueRoutingTable> previousTables = routingTables;
+
+    Map<String, KeyValueRoutingTable> tables = new HashMap<>();
+    for (Map.Entry<String, BucketConfig> entry : config.bucketConfigs().entrySet()) {
+      if (entry.getValue() instanceof CouchbaseBucketConfig) {
+        CouchbaseBucketConfig bucketConfig = (CouchbaseBucketConfig) entry.getValue();
+        KeyValueRoutingTable previous = sameNodes ? previousTables.get(entry.getKey()) : null;
+        tables.put(entry.getKey(), previous != null && previous.config() == bucketConfig
+          ? previous
+          : KeyValueRoutingTable.create(bucketConfig, currentNodes, previous));
+      }
+    }
+    routingTables = tables;
+    routedNodes = currentNodes;
+  }
+
+  /**
+   * Checks if both lists contain the very same node instances in the same order.
+   */
+  private static boolean sameNodes(final List<Node> left, final List<Node> right) {
+    if (left.size() != right.size()) {
+      return false;
+    }
+    for (int i = 0; i < left.size(); i++) {
+      if (left.get(i) != right.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public void dispatch(final Request<? extends Response> request, final List<Node> nodes,
                        final ClusterConfig config, final CoreContext ctx) {
@@ -72,7 +140,7 @@ public class KeyValueLocator implements Locator {
       }
 
       if (bucketConfig instanceof CouchbaseBucketConfig) {
-        couchbaseBucket(r, nodes, (CouchbaseBucketConfig) bucketConfig, ctx);
+        couchbaseBucket(r, nodes, (CouchbaseBucketConfig) bucketConfig, routingTables.get(bucket), ctx);
       } else if (bucketConfig instanceof MemcachedBucketConfig) {
         memcacheBucket(r, nodes, (MemcachedBucketConfig) bucketConfig, ctx);
       } else {
@@ -123,7 +191,8 @@ public class KeyValueLocator implements Locator {
   }
 
   private static void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
-                                      final CouchbaseBucketConfig config, CoreContext ctx) {
+                                      final CouchbaseBucketConfig config, final KeyValueRoutingTable routingTable,
+                                      final CoreContext ctx) {
     if(!precheckCouchbaseBucket(request, config)) {
       return;
     }
@@ -131,7 +200,23 @@ public class KeyValueLocator implements Locator {
     int partitionId = partitionForKey(request.key(), config.numberOfPartitions());
     request.partition((short) partitionId);
 
-    int nodeId = calculateNodeId(partitionId, request, config);
+    // Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
+    // attempts have been made always goes tot he active first. And then since it might or might not have
+    // been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
+    // and non-fast-forward maps to give it the greatest chance of eventually completing.
+    boolean useFastForward = config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
+
+    if (routingTable != null && routingTable.config() == config) {
+      Node node = isReplicaRequest(request)
+        ? routingTable.nodeAtIndex(calculateNodeId(partitionId, request, config, useFastForward))
+        : routingTable.activeNode(partitionId, useFastForward);
+      if (node != null) {
+        node.send(request);
+        return;
+      }
+    }
+
+    int nodeId = calculateNodeId(partitionId, request, config, useFastForward);
     if (nodeId < 0) {
       RetryOrchestrator.maybeRetry(ctx, request, RetryReason.NODE_NOT_AVAILABLE);
       return;
@@ -176,17 +261,11 @@ public class KeyValueLocator implements Locator {
    * @param partitionId the partition id.
    * @param request the request used.
    * @param config the current bucket configuration.
+   * @param useFastForward if the fast forward map should be used.
    * @return the calculated node id.
    */
   private static int calculateNodeId(int partitionId, final KeyValueRequest<?> request,
-                                     final CouchbaseBucketConfig config) {
-
-    // Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
-    // attempts have been made always goes tot he active first. And then since it might or might not have
-    // been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
-    // and non-fast-forward maps to give it the greatest chance of eventually completing.
-    boolean useFastForward = config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
-
+                                     final CouchbaseBucketConfig config, final boolean useFastForward) {
     if (request instanceof ReplicaGetRequest) {
       return config.nodeIndexForReplica(partitionId, ((ReplicaGetRequest) request).replica() - 1, useFastForward);
     } else if (request instanceof ObserveViaSeqnoRequest && ((ObserveViaSeqnoRequest) request).replica() > 0) {
@@ -196,6 +275,14 @@ public class KeyValueLocator implements Locator {
     }
   }
 
+  /**
+   * Returns true if the request needs to be dispatched to a replica instead of the active node.
+   */
+  private static boolean isReplicaRequest(final KeyValueRequest<?> request) {
+    return request instanceof ReplicaGetRequest
+      || (request instanceof ObserveViaSeqnoRequest && ((ObserveViaSeqnoRequest) request).replica() > 0);
+  }
+
 
   /**
    * Locates the proper {@link Node}s for a Memcache bucket.
@@ -266,10 +353,27 @@ public class KeyValueLocator implements Locator {
    * @return the calculated partition.
    */
   public static int partitionForKey(final byte[] id, final int numPartitions) {
-    CRC32 crc32 = new CRC32();
-    crc32.update(id, 0, id.length);
-    long rv = (crc32.getValue() >> 16) & 0x7fff;
-    return (int) rv &numPartitions - 1;
+    int crc = 0xFFFFFFFF;
+    for (byte b : id) {
+      crc = (crc >>> 8) ^ CRC32_TABLE[(crc ^ b) & 0xFF];
+    }
+    int rv = (~crc >>> 16) & 0x7fff;
+    return rv & numPartitions - 1;
+  }
+
+  /**
+   * Builds the lookup table for the reflected CRC32 polynomial (the same one used by {@link java.util.zip.CRC32}).
+   */
+  private static int[] crc32Table() {
+    int[] table = new int[256];
+    for (int i = 0; i < table.length; i++) {
+      int c = i;
+      for (int k = 0; k < 8; k++) {
+        c = (c & 1) != 0 ? 0xEDB88320 ^ (c >>> 1) : c >>> 1;
+      }
+      table[i] = c;
+    }
+    return table;
   }
 
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+
+import java.util.List;
+
+/**
+ * An immutable routing table which maps the partitions of one {@link CouchbaseBucketConfig} straight to the
+ * {@link Node}s that serve them.
+ *
+ * <p>The table is built once per config (and node list) so that the {@link KeyValueLocator} does not need to
+ * resolve the node index and then scan the node list on every request. Entries which cannot be resolved (i.e.
+ * because the node has not been added yet) are null, in which case the locator falls back to the regular
+ * lookup.</p>
+ *
+ * @since 2.1.0
+ */
+class KeyValueRoutingTable {
+
+  /**
+   * The config this table has been built from.
+   */
+  private final CouchbaseBucketConfig config;
+
+  /**
+   * The node for each index in the partition host list of the config.
+   */
+  private final Node[] nodesByIndex;
+
+  /**
+   * The active node for each partition.
+   */
+  private final Node[] active;
+
+  /**
+   * The active node for each partition in the fast forward map, or null if there is no such map.
+   */
+  private final Node[] forwardActive;
+
+  private KeyValueRoutingTable(final CouchbaseBucketConfig config, final Node[] nodesByIndex, final Node[] active,
+                               final Node[] forwardActive) {
+    this.config = config;
+    this.nodesByIndex = nodesByIndex;
+    this.active = active;
+    this.forwardActive = forwardActive;
+  }
+
+  /**
+   * Builds the routing table for the given config and currently managed nodes.
+   *
+   * @param config the bucket config to build the table from.
+   * @param nodes the current list of managed nodes.
+   * @return the created routing table.
+   */
+  static KeyValueRoutingTable create(final CouchbaseBucketConfig config, final List<Node> nodes) {
+    return create(config, nodes, null);
+  }
+
+  /**
+   * Builds the routing table for the given config, reusing the node lookups of a previous table.
+   *
+   * <p>The previous table must have been built against the same node list. Node indexes which point to the same
+   * node in both configs are taken over, so if only the partition map changed no node needs to be looked up.</p>
+   *
+   * @param config the bucket config to build the table from.
+   * @param nodes the current list of managed nodes.
+   * @param previous the previous table for the same bucket, can be null.
+   * @return the created routing table.
+   */
+  static KeyValueRoutingTable create(final CouchbaseBucketConfig config, final List<Node> nodes,
+                                     final KeyValueRoutingTable previous) {
+    int numPartitions = config.numberOfPartitions();
+    boolean fastForward = config.hasFastForwardMap();
+
+    int maxIndex = -1;
+    for (int p = 0; p < numPartitions; p++) {
+      maxIndex = Math.max(maxIndex, maxNodeIndex(config, p, false));
+      if (fastForward) {
+        maxIndex = Math.max(maxIndex, maxNodeIndex(config, p, true));
+      }
+    }
+
+    Node[] nodesByIndex = new Node[maxIndex + 1];
+    for (int i = 0; i < nodesByIndex.length; i++) {
+      NodeInfo nodeInfo = config.nodeAtIndex(i);
+      if (previous != null && i < previous.nodesByIndex.length && nodeInfo != null
+        && sameIdentifier(nodeInfo, previous.config.nodeAtIndex(i))) {
+        nodesByIndex[i] = previous.nodesByIndex[i];
+      } else {
+        nodesByIndex[i] = findNode(nodeInfo, nodes);
+      }
+    }
+
+    Node[] active = new Node[numPartitions];
+    Node[] forwardActive = fastForward ? new Node[numPartitions] : null;
+    for (int p = 0; p < numPartitions; p++) {
+      active[p] = nodeAtIndex(nodesByIndex, config.nodeIndexForActive(p, false));
+      if (fastForward) {
+        forwardActive[p] = nodeAtIndex(nodesByIndex, config.nodeIndexForActive(p, true));
+      }
+    }
+
+    return new KeyValueRoutingTable(config, nodesByIndex, active, forwardActive);
+  }
+
+  private static int maxNodeIndex(final CouchbaseBucketConfig config, final int partition,
+                                  final boolean useFastForward) {
+    int max = config.nodeIndexForActive(partition, useFastForward);
+    for (int r = 0; r < config.numberOfReplicas(); r++) {
+      max = Math.max(max, config.nodeIndexForReplica(partition, r, useFastForward));
+    }
+    return max;
+  }
+
+  private static boolean sameIdentifier(final NodeInfo left, final NodeInfo right) {
+    return right != null && left.identifier().equals(right.identifier());
+  }
+
+  private static Node findNode(final NodeInfo nodeInfo, final List<Node> nodes) {
+    if (nodeInfo == null) {
+      return null;
+    }
+    for (Node node : nodes) {
+      if (node.identifier().equals(nodeInfo.identifier())) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  private static Node nodeAtIndex(final Node[] nodesByIndex, final int index) {
+    return index >= 0 && index < nodesByIndex.length ? nodesByIndex[index] : null;
+  }
+
+  /**
+   * Returns the config this table has been built from.
+   */
+  CouchbaseBucketConfig config() {
+    return config;
+  }
+
+  /**
+   * Returns the active node for the given partition, or null if it cannot be resolved.
+   *
+   * @param partition the partition id.
+   * @param useFastForward if the fast forward map should be used.
+   */
+  Node activeNode(final int partition, final boolean useFastForward) {
+    Node[] nodes = useFastForward ? forwardActive : active;
+    return nodes != null && partition < nodes.length ? nodes[partition] : null;
+  }
+
+  /**
+   * Returns the node at the given index of the partition host list, or null if it cannot be resolved.
+   *
+   * @param index the node index as stored in the partition map.
+   */
+  Node nodeAtIndex(final int index) {
+    return nodeAtIndex(nodesByIndex, index);
+  }
+
+}
@@ -18,6 +18,7 @@ package com.couchbase.client.core.node;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.events.node.NodeConnectedEvent;
 import com.couchbase.client.core.cnc.events.node.NodeDisconnectIgnoredEvent;
 import com.couchbase.client.core.cnc.events.node.NodeDisconnectedEvent;
@@ -30,7 +31,9 @@ import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.ScopedRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
@@ -56,10 +59,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -99,6 +104,11 @@ public class Node implements Stateful<NodeState> {
    */
   private final AtomicInteger enabledServices = new AtomicInteger(0);
 
+  /**
+   * Limits the key-value requests in flight towards this node, null if not enabled.
+   */
+  private final AdaptiveConcurrencyLimiter kvLimiter;
+
   public static Node create(final CoreContext ctx, final NodeIdentifier identifier,
                             final Optional<String> alternateAddress) {
     return new Node(ctx, identifier, alternateAddress);
@@ -111,6 +121,9 @@ public class Node implements Stateful<NodeState> {
     this.services = new ConcurrentHashMap<>();
     this.disconnect = new AtomicBoolean(false);
     this.alternateAddress = alternateAddress;
+    this.kvLimiter = ctx.environment().ioConfig().kvConcurrencyLimitEnabled()
+      ? createKvLimiter(ctx.environment(), identifier)
+      : null;
     this.serviceStates = CompositeStateful.create(NodeState.DISCONNECTED, serviceStates -> {
       if (serviceStates.isEmpty()) {
         return NodeState.DISCONNECTED;
@@ -379,10 +392,67 @@ public class Node implements Stateful<NodeState> {
       return;
     }
 
+    if (kvLimiter != null && request.serviceType() == ServiceType.KV) {
+      if (!kvLimiter.allows(kvInFlightRequests())) {
+        RetryOrchestrator.maybeRetry(ctx, request, RetryReason.NODE_CONCURRENCY_LIMIT_REACHED);
+        return;
+      }
+      if (!identifier.equals(request.context().lastDispatchedToNode())) {
+        // only register once per request, even if it is retried against this node
+        request.response().whenComplete((response, failure) -> sampleKvLatency(request, failure));
+      }
+    }
+
     request.context().lastDispatchedToNode(identifier);
     service.send(request);
   }
 
+  /**
+   * Creates the adaptive limiter for key-value requests, which records its limit into the meter.
+   */
+  private static AdaptiveConcurrencyLimiter createKvLimiter(final CoreEnvironment env,
+                                                            final NodeIdentifier identifier) {
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, ServiceType.KV.ident());
+    tags.put(Meter.TAG_NODE, String.valueOf(identifier.address()));
+    return new AdaptiveConcurrencyLimiter(
+      AdaptiveConcurrencyLimiter.DEFAULT_INITIAL_LIMIT,
+      AdaptiveConcurrencyLimiter.DEFAULT_MIN_LIMIT,
+      AdaptiveConcurrencyLimiter.DEFAULT_MAX_LIMIT,
+      env.meter().valueRecorder(Meter.KV_CONCURRENCY_LIMIT, tags)
+    );
+  }
+
+  /**
+   * Returns the key-value requests in flight towards this node, summed up over the services of all buckets.
+   */
+  private long kvInFlightRequests() {
+    long inFlight = 0;
+    for (Map<ServiceType, Service> scope : services.values()) {
+      Service service = scope.get(ServiceType.KV);
+      if (service != null) {
+        inFlight += service.inFlightRequests();
+      }
+    }
+    return inFlight;
+  }
+
+  /**
+   * Feeds the latency of a completed key-value request into the limiter, preferring the server-reported duration.
+   */
+  private void sampleKvLatency(final Request<? extends Response> request, final Throwable failure) {
+    RequestContext context = request.context();
+    if (!identifier.equals(context.lastDispatchedToNode())) {
+      // the request has been moved to a different node in the meantime
+      return;
+    }
+
+    long latencyMicros = context.serverLatency() > 0
+      ? context.serverLatency()
+      : TimeUnit.NANOSECONDS.toMicros(context.dispatchLatency());
+    kvLimiter.onSample(latencyMicros, failure instanceof TimeoutException);
+  }
+
   /**
    * Retries the request.
    *
@@ -88,6 +88,10 @@ public enum RetryReason {
    * The endpoint is connected, but for some reason cannot be written to at the moment.
    */
   ENDPOINT_NOT_WRITABLE(true, false),
+  /**
+   * The adaptive concurrency limit for the target node has been reached, so the request has not been dispatched.
+   */
+  NODE_CONCURRENCY_LIMIT_REACHED(true, false),
   /**
    * The underlying channel on the endpoint closed while this operation was still in-flight and we
    * do not have a response yet.
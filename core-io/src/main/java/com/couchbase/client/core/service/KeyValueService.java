@@ -20,6 +20,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.endpoint.Endpoint;
 import com.couchbase.client.core.endpoint.KeyValueEndpoint;
 import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.service.strategy.LoadAwarePartitionSelectionStrategy;
 import com.couchbase.client.core.service.strategy.PartitionSelectionStrategy;
 
 import java.util.Optional;
@@ -30,11 +31,13 @@ import java.util.Optional;
 public class KeyValueService extends PooledService {
 
   private static final EndpointSelectionStrategy STRATEGY = new PartitionSelectionStrategy();
+  private static final EndpointSelectionStrategy LOAD_AWARE_STRATEGY = new LoadAwarePartitionSelectionStrategy();
 
   private final String hostname;
   private final int port;
   private final Optional<String> bucketname;
   private final Authenticator authenticator;
+  private final EndpointSelectionStrategy selectionStrategy;
 
   public KeyValueService(final ServiceConfig serviceConfig, final CoreContext coreContext,
                          final String hostname, final int port, final Optional<String> bucketname,
@@ -44,6 +47,9 @@ public class KeyValueService extends PooledService {
     this.port = port;
     this.bucketname = bucketname;
     this.authenticator = authenticator;
+    this.selectionStrategy = coreContext.environment().ioConfig().kvLoadAwareEndpointSelectionEnabled()
+      ? LOAD_AWARE_STRATEGY
+      : STRATEGY;
   }
 
   @Override
@@ -53,7 +59,7 @@ public class KeyValueService extends PooledService {
 
   @Override
   protected EndpointSelectionStrategy selectionStrategy() {
-    return STRATEGY;
+    return selectionStrategy;
   }
 
   @Override
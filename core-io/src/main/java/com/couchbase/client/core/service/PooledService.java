@@ -273,6 +273,15 @@ abstract class PooledService implements Service {
    */
   protected abstract EndpointSelectionStrategy selectionStrategy();
 
+  @Override
+  public long inFlightRequests() {
+    long inFlight = 0;
+    for (Endpoint endpoint : endpoints) {
+      inFlight += endpoint.inFlightRequests();
+    }
+    return inFlight;
+  }
+
   @Override
   public <R extends Request<? extends Response>> void send(final R request) {
     if (request.completed()) {
@@ -76,4 +76,9 @@ public interface Service extends Stateful<ServiceState> {
    * Returns diagnostics information for this service.
    */
   Stream<EndpointDiagnostics> diagnostics();
+
+  /**
+   * Returns the number of requests sent through all endpoints of this service which still wait for a response.
+   */
+  long inFlightRequests();
 }
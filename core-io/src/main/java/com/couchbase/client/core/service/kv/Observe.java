@@ -16,16 +16,13 @@
 
 package com.couchbase.client.core.service.kv;
 
-import com.couchbase.client.core.Reactor;
-import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.error.FeatureNotAvailableException;
 import com.couchbase.client.core.error.ReplicaNotConfiguredException;
 import com.couchbase.client.core.msg.kv.MutationToken;
-import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
-import com.couchbase.client.core.retry.RetryStrategy;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
 import com.couchbase.client.core.retry.reactor.Repeat;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -62,46 +59,37 @@ public class Observe {
       BucketConfig config = ctx.core().clusterConfig().bucketConfig(ctx.collectionIdentifier().bucket());
       return Flux.just(validateReplicas(config, ctx.persistTo(), ctx.replicateTo()));
     })
-    .flatMap(replicas -> viaMutationToken(replicas, ctx, parentSpan));
+    .flatMap(replicas -> viaMutationToken(replicas, ctx));
     return maybeRetry(observed, ctx).timeout(ctx.timeout(), ctx.environment().scheduler()).doFinally(t -> parentSpan.finish());
   }
 
-  private static Flux<ObserveItem> viaMutationToken(final int bucketReplicas, final ObserveContext ctx,
-                                                    final RequestSpan parent) {
+  /**
+   * Observes all the nodes needed for the durability requirements for a single round.
+   * <p>
+   * The observe requests are not sent per mutation, but shared with all other mutations waiting on the same
+   * vbucket through the {@link ObserveBatcher} of the core.
+   */
+  private static Flux<ObserveItem> viaMutationToken(final int bucketReplicas, final ObserveContext ctx) {
     if (!ctx.mutationToken().isPresent()) {
       throw new IllegalStateException("MutationToken is not present, this is a bug!");
     }
 
-    Duration timeout = ctx.timeout();
-    RetryStrategy retryStrategy = ctx.retryStrategy();
     MutationToken mutationToken = ctx.mutationToken().get();
-    String id = ctx.key();
+    ObserveBatcher batcher = ctx.core().observeBatcher();
 
-    List<ObserveViaSeqnoRequest> requests = new ArrayList<>();
+    List<Mono<ObserveViaSeqnoResponse>> observations = new ArrayList<>();
     if (ctx.persistTo() != ObservePersistTo.NONE) {
-      final InternalSpan span = ctx.environment().requestTracer()
-        .internalSpan(ObserveViaSeqnoRequest.OPERATION_NAME, parent);
-      requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, 0, true,
-        mutationToken.partitionUUID(), id, span));
+      observations.add(batcher.observe(ctx, (short) 0, true));
     }
 
     if (ctx.persistTo().touchesReplica() || ctx.replicateTo().touchesReplica()) {
       for (short i = 1; i <= bucketReplicas; i++) {
-        final InternalSpan span = ctx.environment().requestTracer()
-          .internalSpan(ObserveViaSeqnoRequest.OPERATION_NAME, parent);
-        requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, i, false,
-          mutationToken.partitionUUID(), id, span));
+        observations.add(batcher.observe(ctx, i, false));
       }
     }
 
-    return Flux.fromIterable(requests)
-      .flatMap(request -> {
-        ctx.core().send(request);
-        return Reactor
-          .wrap(request, request.response(), true)
-          .onErrorResume(t-> Mono.empty())
-          .doFinally(signalType -> request.context().logicallyComplete());
-      })
+    return Flux.fromIterable(observations)
+      .flatMap(observation -> observation.onErrorResume(t -> Mono.empty()))
       .map(response -> ObserveItem.fromMutationToken(mutationToken, response));
   }
 
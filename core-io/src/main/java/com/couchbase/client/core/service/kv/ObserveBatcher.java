@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.MutationToken;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import com.couchbase.client.core.node.NodeIdentifier;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares observe rounds between all mutations which wait for durability on the same vbucket.
+ * <p>
+ * An observe via sequence number returns the current and persisted sequence numbers of the whole vbucket, so a
+ * single response can be checked against the mutation tokens of every pending mutation in it. For every vbucket
+ * (and replica) at most one request is in flight at a time: observations which arrive in the meantime are collected
+ * and answered by the next round, which is sent once the in-flight one completed. Joining the next round instead of
+ * the in-flight one makes sure the response was generated after the mutation completed.
+ * <p>
+ * Batches are keyed by the node, bucket and vbucket which is observed, independent of the collection the mutation
+ * belongs to. Including the node makes sure that observations which arrive after a vbucket moved during a rebalance
+ * do not wait for a round which is still in flight to the old node.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ObserveBatcher {
+
+  private final ConcurrentMap<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+
+  /**
+   * Observes the vbucket of the mutation in the given context, sharing the request with other observations.
+   *
+   * @param ctx the observe context of the mutation.
+   * @param replica the replica to observe, 0 for the active.
+   * @param active true if the active is observed.
+   * @return a mono which completes with the response of the next observe round.
+   */
+  public Mono<ObserveViaSeqnoResponse> observe(final ObserveContext ctx, final short replica, final boolean active) {
+    return Mono.defer(() -> {
+      MutationToken token = ctx.mutationToken().orElseThrow(
+        () -> new IllegalStateException("MutationToken is not present, this is a bug!")
+      );
+      String bucket = ctx.collectionIdentifier().bucket();
+      BatchKey key = new BatchKey(nodeFor(ctx.core(), bucket, token.partitionID(), replica), bucket,
+        token.partitionID(), token.partitionUUID(), replica, active);
+
+      Batch batch = batches.computeIfAbsent(key, k -> new Batch());
+      final MonoProcessor<ObserveViaSeqnoResponse> round;
+      final boolean dispatch;
+      synchronized (batch) {
+        if (batch.next == null) {
+          batch.next = MonoProcessor.create();
+          batch.template = ctx;
+        }
+        round = batch.next;
+        dispatch = !batch.inFlight;
+        if (dispatch) {
+          batch.inFlight = true;
+          batch.next = null;
+        }
+      }
+
+      if (dispatch) {
+        dispatch(key, batch, round, ctx);
+      }
+      return round;
+    });
+  }
+
+  /**
+   * Returns the number of vbuckets (and replicas) which are currently observed.
+   */
+  public int size() {
+    return batches.size();
+  }
+
+  /**
+   * Returns the node which currently hosts the given vbucket (or replica), or null if it is not known yet.
+   * <p>
+   * This mirrors the node selection of the locator, but the request is still routed by it once it is sent.
+   *
+   * @param core the core to fetch the current config from.
+   * @param bucket the name of the bucket.
+   * @param partition the vbucket id.
+   * @param replica the replica to observe, 0 for the active.
+   * @return the node identifier or null if the bucket config or the vbucket is not available.
+   */
+  private static NodeIdentifier nodeFor(final Core core, final String bucket, final short partition,
+                                        final short replica) {
+    ClusterConfig clusterConfig = core.clusterConfig();
+    BucketConfig bucketConfig = clusterConfig == null ? null : clusterConfig.bucketConfig(bucket);
+    if (!(bucketConfig instanceof CouchbaseBucketConfig)) {
+      return null;
+    }
+
+    CouchbaseBucketConfig config = (CouchbaseBucketConfig) bucketConfig;
+    short index = replica > 0
+      ? config.nodeIndexForReplica(partition, replica - 1, false)
+      : config.nodeIndexForActive(partition, false);
+    return index < 0 ? null : config.nodeAtIndex(index).identifier();
+  }
+
+  /**
+   * Sends an observe round and, once it completed, the next one if more observations arrived in the meantime.
+   *
+   * @param key the key of the batch.
+   * @param batch the batch the round belongs to.
+   * @param round the processor which fans the response out to all observations of the round.
+   * @param template the context of one of the observations, used to build the request.
+   */
+  private void dispatch(final BatchKey key, final Batch batch, final MonoProcessor<ObserveViaSeqnoResponse> round,
+                        final ObserveContext template) {
+    Core core = template.core();
+    InternalSpan span = template.environment().requestTracer()
+      .internalSpan(ObserveViaSeqnoRequest.OPERATION_NAME, null);
+    // observe works on the whole vbucket, so the default collection is used to not trigger collection id lookups
+    ObserveViaSeqnoRequest request = new ObserveViaSeqnoRequest(template.timeout(), core.context(),
+      CollectionIdentifier.fromDefault(key.bucket), template.retryStrategy(), key.replica, key.active, key.partitionUUID,
+      template.key(), span);
+    core.send(request);
+
+    request.response().whenComplete((response, throwable) -> {
+      request.context().logicallyComplete();
+      if (throwable != null) {
+        round.onError(throwable);
+      } else {
+        round.onNext(response);
+      }
+
+      final MonoProcessor<ObserveViaSeqnoResponse> next;
+      final ObserveContext nextTemplate;
+      synchronized (batch) {
+        next = batch.next;
+        nextTemplate = batch.template;
+        if (next == null) {
+          batch.inFlight = false;
+          batches.remove(key, batch);
+        } else {
+          batch.next = null;
+        }
+      }
+
+      if (next != null) {
+        dispatch(key, batch, next, nextTemplate);
+      }
+    });
+  }
+
+  /**
+   * Holds the state of all observations of a single vbucket (and replica).
+   */
+  private static class Batch {
+
+    /**
+     * True while an observe round is in flight.
+     */
+    private boolean inFlight;
+
+    /**
+     * Collects the observations for the next round, null if there are none.
+     */
+    private MonoProcessor<ObserveViaSeqnoResponse> next;
+
+    /**
+     * The context of one of the observations in the next round.
+     */
+    private ObserveContext template;
+
+  }
+
+  /**
+   * Identifies the node and vbucket (and replica) which is observed.
+   * <p>
+   * The vbucket uuid is part of the key as well since the server answers relative to the uuid sent in the request.
+   */
+  private static class BatchKey {
+
+    private final NodeIdentifier node;
+    private final String bucket;
+    private final short partitionID;
+    private final long partitionUUID;
+    private final short replica;
+    private final boolean active;
+
+    BatchKey(final NodeIdentifier node, final String bucket, final short partitionID, final long partitionUUID,
+             final short replica, final boolean active) {
+      this.node = node;
+      this.bucket = bucket;
+      this.partitionID = partitionID;
+      this.partitionUUID = partitionUUID;
+      this.replica = replica;
+      this.active = active;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      BatchKey batchKey = (BatchKey) o;
+      return partitionID == batchKey.partitionID &&
+        partitionUUID == batchKey.partitionUUID &&
+        replica == batchKey.replica &&
+        active == batchKey.active &&
+        Objects.equals(node, batchKey.node) &&
+        Objects.equals(bucket, batchKey.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(node, bucket, partitionID, partitionUUID, replica, active);
+    }
+
+  }
+
+}
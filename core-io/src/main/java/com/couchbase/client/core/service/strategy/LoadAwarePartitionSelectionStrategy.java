@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+
+import java.util.List;
+
+/**
+ * Selects the key-value endpoint with the fewest in-flight requests, preferring the partition-pinned one.
+ * <p>
+ * As long as the endpoint the {@link PartitionSelectionStrategy} would pick is connected and not more loaded
+ * than the others, it is selected, so a partition stays on the same connection under even load. Otherwise the
+ * least loaded connected endpoint is chosen instead of sending the request into retry, which keeps a slow or
+ * reconnecting socket from stalling all of its partitions.
+ * <p>
+ * Note that requests for the same partition might be written to different connections and as a result can be
+ * processed out of order on the server.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class LoadAwarePartitionSelectionStrategy implements EndpointSelectionStrategy {
+
+  @Override
+  public <R extends Request<? extends Response>> Endpoint select(final R request, final List<Endpoint> endpoints) {
+    int size = endpoints.size();
+    if (size == 0) {
+      return null;
+    }
+
+    int pinned = size == 1 ? 0 : ((KeyValueRequest<?>) request).partition() % size;
+
+    // start at the pinned endpoint so it wins if the load is equal
+    Endpoint selected = null;
+    long selectedLoad = Long.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      Endpoint endpoint = endpoints.get((pinned + i) % size);
+      if (endpoint == null || endpoint.state() != EndpointState.CONNECTED || !endpoint.freeToWrite()) {
+        continue;
+      }
+
+      long load = endpoint.inFlightRequests();
+      if (load < selectedLoad) {
+        selected = endpoint;
+        selectedLoad = load;
+        if (load == 0) {
+          break;
+        }
+      }
+    }
+    return selected;
+  }
+
+}
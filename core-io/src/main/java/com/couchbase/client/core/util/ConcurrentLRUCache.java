@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent cache which evicts the least recently used entries once its capacity is exceeded.
+ *
+ * <p>Unlike the {@link LRUCache}, reads do not take a lock or reorder a linked list: every entry only keeps the
+ * (coarse-grained) timestamp of its last access. Once the capacity is exceeded, a single thread evicts the oldest
+ * tenth of the entries in one batch, so the recency order is approximated and the size can briefly go above the
+ * capacity while an eviction is in progress.</p>
+ *
+ * <p>Hits, misses and evictions are counted and can be used to judge if the capacity is sized properly.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ConcurrentLRUCache<K, V> {
+
+  /**
+   * The access timestamp is only updated if it is older than this, to avoid writes on every hit.
+   */
+  private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final int capacity;
+  private final int evictToSize;
+  private final Map<K, Entry<V>> entries;
+  private final AtomicBoolean evicting = new AtomicBoolean(false);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a new cache with the given capacity.
+   *
+   * @param capacity the maximum number of entries, needs to be greater than 0.
+   */
+  public ConcurrentLRUCache(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity needs to be greater than 0");
+    }
+    this.capacity = capacity;
+    this.evictToSize = Math.max(1, capacity - capacity / 10);
+    this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+  }
+
+  /**
+   * Returns the value for the given key, or null if not present.
+   *
+   * @param key the key to look up.
+   * @return the value if present, null otherwise.
+   */
+  public V get(final K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+
+    hits.increment();
+    entry.touch();
+    return entry.value;
+  }
+
+  /**
+   * Stores the value for the given key and evicts the least recently used entries if the capacity is exceeded.
+   *
+   * @param key the key to store.
+   * @param value the value to store.
+   */
+  public void put(final K key, final V value) {
+    entries.put(key, new Entry<>(value));
+    if (entries.size() > capacity) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the value for the given key.
+   *
+   * @param key the key to remove.
+   * @return the removed value if present, null otherwise.
+   */
+  public V remove(final K key) {
+    Entry<V> entry = entries.remove(key);
+    return entry == null ? null : entry.value;
+  }
+
+  /**
+   * Returns the current number of entries.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the maximum number of entries.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of lookups which found a value.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups which did not find a value.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of entries evicted because the capacity has been exceeded.
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Evicts the least recently used entries until the size is back to the eviction target.
+   *
+   * <p>If another thread is already evicting, this thread does not wait for it.</p>
+   */
+  private void evict() {
+    while (entries.size() > capacity && evicting.compareAndSet(false, true)) {
+      try {
+        // take a snapshot of the access times, since they keep changing while sorting
+        List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+          candidates.add(new Candidate<>(e.getKey(), e.getValue()));
+        }
+        candidates.sort((a, b) -> Long.compare(a.lastAccess, b.lastAccess));
+
+        int toEvict = candidates.size() - evictToSize;
+        for (int i = 0; i < toEvict; i++) {
+          Candidate<K, V> candidate = candidates.get(i);
+          if (entries.remove(candidate.key, candidate.entry)) {
+            evictions.increment();
+          }
+        }
+      } finally {
+        evicting.set(false);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrentLRUCache{" +
+      "capacity=" + capacity +
+      ", size=" + size() +
+      ", hits=" + hits() +
+      ", misses=" + misses() +
+      ", evictions=" + evictions() +
+      '}';
+  }
+
+  private static class Entry<V> {
+
+    private final V value;
+    private volatile long lastAccess;
+
+    Entry(final V value) {
+      this.value = value;
+      this.lastAccess = System.nanoTime();
+    }
+
+    void touch() {
+      long now = System.nanoTime();
+      if (now - lastAccess > TOUCH_GRANULARITY_NANOS) {
+        lastAccess = now;
+      }
+    }
+  }
+
+  private static class Candidate<K, V> {
+
+    private final K key;
+    private final Entry<V> entry;
+    private final long lastAccess;
+
+    Candidate(final K key, final Entry<V> entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+
+}
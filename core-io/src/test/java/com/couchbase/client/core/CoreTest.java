@@ -94,6 +94,7 @@ class CoreTest {
     when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
     when(mock101.disconnect()).thenReturn(Mono.empty());
 
 
@@ -104,6 +105,7 @@ class CoreTest {
     when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
     when(mock102.disconnect()).thenReturn(Mono.empty());
 
     final Map<String, Node> mocks = new HashMap<>();
@@ -153,14 +155,14 @@ class CoreTest {
     clusterConfig.setBucketConfig(twoNodeConfig);
     configs.onNext(clusterConfig);
 
-
-    verify(mock101, times(2))
+    // the first node did not change, so its services are not touched again
+    verify(mock101, times(1))
       .addService(ServiceType.VIEWS, 8092, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.MANAGER, 8091, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.QUERY, 8093, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.KV, 11210, Optional.of("travel-sample"));
 
     verify(mock102, times(1))
@@ -189,6 +191,7 @@ class CoreTest {
     when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
     when(mock101.disconnect()).thenReturn(Mono.empty());
 
 
@@ -199,6 +202,7 @@ class CoreTest {
     when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
     when(mock102.disconnect()).thenReturn(Mono.empty());
 
 
@@ -252,28 +256,107 @@ class CoreTest {
     clusterConfig.setBucketConfig(twoNodesConfigMore);
     configs.onNext(clusterConfig);
 
-    verify(mock101, times(2))
+    // only the newly added service is enabled, all others are left alone
+    verify(mock101, times(1))
       .addService(ServiceType.VIEWS, 8092, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.MANAGER, 8091, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.QUERY, 8093, Optional.empty());
-    verify(mock101, times(2))
+    verify(mock101, times(1))
       .addService(ServiceType.KV, 11210, Optional.of("travel-sample"));
 
-    verify(mock102, times(2))
+    verify(mock102, times(1))
       .addService(ServiceType.VIEWS, 8092, Optional.empty());
-    verify(mock102, times(2))
+    verify(mock102, times(1))
       .addService(ServiceType.MANAGER, 8091, Optional.empty());
-    verify(mock102, times(2))
+    verify(mock102, times(1))
       .addService(ServiceType.QUERY, 8093, Optional.empty());
-    verify(mock102, times(2))
+    verify(mock102, times(1))
       .addService(ServiceType.KV, 11210, Optional.of("travel-sample"));
 
     verify(mock102, times(1))
       .addService(ServiceType.SEARCH, 8094, Optional.empty());
   }
 
+  /**
+   * A config which only moves partitions between the same nodes must not touch any node or service.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void doesNotTouchServicesIfOnlyPartitionsMoved() {
+    final ConfigurationProvider configProvider = mock(ConfigurationProvider.class);
+    DirectProcessor<ClusterConfig> configs = DirectProcessor.create();
+    ClusterConfig clusterConfig = new ClusterConfig();
+    when(configProvider.configs()).thenReturn(configs);
+    when(configProvider.config()).thenReturn(clusterConfig);
+
+    Node mock101 = mock(Node.class);
+    when(mock101.identifier()).thenReturn(new NodeIdentifier("10.143.190.101", 8091));
+    when(mock101.addService(any(ServiceType.class), anyInt(), any(Optional.class)))
+      .thenReturn(Mono.empty());
+    when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
+      .thenReturn(Mono.empty());
+    when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
+    when(mock101.disconnect()).thenReturn(Mono.empty());
+
+    Node mock102 = mock(Node.class);
+    when(mock102.identifier()).thenReturn(new NodeIdentifier("10.143.190.102", 8091));
+    when(mock102.addService(any(ServiceType.class), anyInt(), any(Optional.class)))
+      .thenReturn(Mono.empty());
+    when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
+      .thenReturn(Mono.empty());
+    when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
+    when(mock102.disconnect()).thenReturn(Mono.empty());
+
+    final Map<String, Node> mocks = new HashMap<>();
+    mocks.put("10.143.190.101", mock101);
+    mocks.put("10.143.190.102", mock102);
+    new Core(ENV, AUTHENTICATOR, SeedNode.LOCALHOST) {
+      @Override
+      public ConfigurationProvider createConfigurationProvider() {
+        return configProvider;
+      }
+
+      @Override
+      protected Node createNode(final NodeIdentifier target, final Optional<String> alternate) {
+        return mocks.get(target.address());
+      }
+    };
+    configs.onNext(clusterConfig);
+
+    BucketConfig twoNodesConfig = BucketConfigParser.parse(
+      readResource("two_nodes_config.json", CoreTest.class),
+      ENV,
+      LOCALHOST
+    );
+    clusterConfig.setBucketConfig(twoNodesConfig);
+    configs.onNext(clusterConfig);
+
+    verify(mock101, times(1))
+      .addService(ServiceType.KV, 11210, Optional.of("travel-sample"));
+    verify(mock102, times(1))
+      .addService(ServiceType.KV, 11210, Optional.of("travel-sample"));
+    clearInvocations(mock101, mock102);
+
+    BucketConfig movedPartitionsConfig = BucketConfigParser.parse(
+      readResource("two_nodes_config_moved_partitions.json", CoreTest.class),
+      ENV,
+      LOCALHOST
+    );
+    clusterConfig.setBucketConfig(movedPartitionsConfig);
+    configs.onNext(clusterConfig);
+
+    verify(mock101, never()).addService(any(ServiceType.class), anyInt(), any(Optional.class));
+    verify(mock101, never()).removeService(any(ServiceType.class), any(Optional.class));
+    verify(mock101, never()).disconnect();
+    verify(mock102, never()).addService(any(ServiceType.class), anyInt(), any(Optional.class));
+    verify(mock102, never()).removeService(any(ServiceType.class), any(Optional.class));
+    verify(mock102, never()).disconnect();
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   void removeNodesAndServicesOnNewConfig() {
@@ -290,6 +373,7 @@ class CoreTest {
     when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
     when(mock101.disconnect()).thenReturn(Mono.empty());
 
     Node mock102 = mock(Node.class);
@@ -299,6 +383,7 @@ class CoreTest {
     when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
     when(mock102.disconnect()).thenReturn(Mono.empty());
 
 
@@ -374,6 +459,7 @@ class CoreTest {
     when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
     when(mock101.disconnect()).thenReturn(Mono.empty());
 
     Node mock102 = mock(Node.class);
@@ -383,6 +469,7 @@ class CoreTest {
     when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
     when(mock102.disconnect()).thenReturn(Mono.empty());
 
     final Map<String, Node> mocks = new HashMap<>();
@@ -460,6 +547,7 @@ class CoreTest {
     when(mock101.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock101.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock101.hasServicesEnabled()).thenReturn(true);
     when(mock101.disconnect()).thenReturn(Mono.empty());
 
 
@@ -470,6 +558,7 @@ class CoreTest {
     when(mock102.removeService(any(ServiceType.class), any(Optional.class)))
       .thenReturn(Mono.empty());
     when(mock102.serviceEnabled(any(ServiceType.class))).thenReturn(true);
+    when(mock102.hasServicesEnabled()).thenReturn(true);
     when(mock102.disconnect()).thenReturn(Mono.empty());
 
     final Map<String, Node> mocks = new HashMap<>();
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.EnumSet;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -31,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Verifies the functionality of the {@link DefaultEventBus}.
@@ -106,4 +108,60 @@ class DefaultEventBusTest {
     assertEquals(eventsReceived.get(), eventsSent);
   }
 
+  @Test
+  void wakesUpOnPublish() throws Exception {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .idleSleepDuration(Duration.ofMinutes(5))
+      .wakeUpOnPublish(true)
+      .build();
+
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe(event -> eventsReceived.incrementAndGet());
+    eventBus.start().block();
+
+    // give the event bus thread time to park for the (long) idle duration
+    Thread.sleep(200);
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(mock(Event.class)));
+    waitUntilCondition(() -> eventsReceived.get() == 1, Duration.ofSeconds(5));
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+  }
+
+  @Test
+  void receivesOnlySubscribedCategories() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+
+    AtomicInteger allReceived = new AtomicInteger();
+    AtomicInteger endpointReceived = new AtomicInteger();
+    eventBus.subscribe(event -> allReceived.incrementAndGet());
+    EventSubscription subscription = eventBus.subscribe(
+      event -> endpointReceived.incrementAndGet(),
+      EnumSet.of(Event.Category.ENDPOINT)
+    );
+    assertTrue(eventBus.hasSubscribers());
+
+    eventBus.start().block();
+
+    eventBus.publish(eventWithCategory(Event.Category.ENDPOINT));
+    eventBus.publish(eventWithCategory(Event.Category.REQUEST));
+    eventBus.publish(mock(Event.class));
+
+    waitUntilCondition(() -> allReceived.get() == 3);
+    assertEquals(1, endpointReceived.get());
+
+    subscription.unsubscribe();
+    eventBus.publish(eventWithCategory(Event.Category.ENDPOINT));
+    waitUntilCondition(() -> allReceived.get() == 4);
+    assertEquals(1, endpointReceived.get());
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+  }
+
+  private static Event eventWithCategory(final Event.Category category) {
+    Event event = mock(Event.class);
+    when(event.category()).thenReturn(category.path());
+    return event;
+  }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the functionality of the {@link AggregatingMeter}.
+ */
+class AggregatingMeterTest {
+
+  @Test
+  void reusesRecorderForSameNameAndTags() {
+    AggregatingMeter meter = AggregatingMeter.create(mock(EventBus.class), AggregatingMeterConfig.create());
+
+    ValueRecorder first = meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags("10.0.0.1:11210"));
+    assertSame(first, meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags("10.0.0.1:11210")));
+    assertNotSame(first, meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags("10.0.0.2:11210")));
+    assertNotSame(first, meter.valueRecorder(Meter.REQUEST_SERVER_LATENCY, tags("10.0.0.1:11210")));
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void emitsPercentilesPerInterval() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    ValueRecorder recorder = meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags("10.0.0.1:11210"));
+    for (int i = 1; i <= 1000; i++) {
+      recorder.recordValue(i);
+    }
+    meter.collectInterval();
+
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(eventBus).publish(captor.capture());
+    List<Map<String, Object>> latencies = ((LatencyMetricsAggregatedEvent) captor.getValue()).latencies();
+
+    assertEquals(1, latencies.size());
+    assertEquals(latencies, meter.latestInterval());
+    Map<String, Object> interval = latencies.get(0);
+    assertEquals(Meter.REQUEST_TOTAL_LATENCY, interval.get("name"));
+    assertEquals(1000L, interval.get("count"));
+    Map<String, Long> percentiles = (Map<String, Long>) interval.get("percentiles_us");
+    assertEquals(500L, (long) percentiles.get("50.0"));
+    assertEquals(990L, (long) percentiles.get("99.0"));
+    assertEquals(1000L, (long) percentiles.get("100.0"));
+  }
+
+  @Test
+  void doesNotEmitEmptyIntervals() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    meter.valueRecorder(Meter.REQUEST_TOTAL_LATENCY, tags("10.0.0.1:11210")).recordValue(100);
+    meter.collectInterval();
+    meter.collectInterval();
+
+    verify(eventBus).publish(any(Event.class));
+    assertTrue(meter.latestInterval().isEmpty());
+  }
+
+  private static Map<String, String> tags(final String node) {
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, "kv");
+    tags.put(Meter.TAG_NODE, node);
+    return tags;
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link RequestMetrics}.
+ */
+class RequestMetricsTest {
+
+  @Test
+  void recordsServerLatencyAsMicros() {
+    Meter meter = mock(Meter.class);
+    ValueRecorder total = mock(ValueRecorder.class);
+    ValueRecorder server = mock(ValueRecorder.class);
+    when(meter.valueRecorder(any(String.class), anyMap())).thenReturn(mock(ValueRecorder.class));
+    when(meter.valueRecorder(eq(Meter.REQUEST_TOTAL_LATENCY), anyMap())).thenReturn(total);
+    when(meter.valueRecorder(eq(Meter.REQUEST_SERVER_LATENCY), anyMap())).thenReturn(server);
+
+    new RequestMetrics(meter).record(request("10.0.0.1", "bucket"));
+
+    verify(total).recordValue(TimeUnit.MILLISECONDS.toMicros(5));
+    verify(server).recordValue(150);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void reusesRecordersPerNodeAndBucket() {
+    Meter meter = mock(Meter.class);
+    when(meter.valueRecorder(any(String.class), anyMap())).thenReturn(mock(ValueRecorder.class));
+    RequestMetrics metrics = new RequestMetrics(meter);
+
+    metrics.record(request("10.0.0.1", "bucket"));
+    metrics.record(request("10.0.0.1", "bucket"));
+    verify(meter, times(1)).valueRecorder(eq(Meter.REQUEST_TOTAL_LATENCY), anyMap());
+
+    metrics.record(request("10.0.0.2", "bucket"));
+    metrics.record(request("10.0.0.1", "other"));
+    metrics.record(request(null, null));
+    verify(meter, times(4)).valueRecorder(eq(Meter.REQUEST_TOTAL_LATENCY), anyMap());
+
+    ArgumentCaptor<Map<String, String>> tags = ArgumentCaptor.forClass(Map.class);
+    verify(meter, times(4)).valueRecorder(eq(Meter.REQUEST_SERVER_LATENCY), tags.capture());
+    Map<String, String> first = tags.getAllValues().get(0);
+    assertEquals(ServiceType.KV.ident(), first.get(Meter.TAG_SERVICE));
+    assertEquals("10.0.0.1:11210", first.get(Meter.TAG_NODE));
+    assertEquals("bucket", first.get(Meter.TAG_BUCKET));
+    assertEquals(2, tags.getAllValues().get(3).size());
+  }
+
+  private static GetRequest request(final String host, final String bucket) {
+    RequestContext ctx = mock(RequestContext.class);
+    when(ctx.lastDispatchedTo()).thenReturn(host == null ? null : new HostAndPort(host, 11210));
+    when(ctx.logicalRequestLatency()).thenReturn(TimeUnit.MILLISECONDS.toNanos(5));
+    when(ctx.dispatchLatency()).thenReturn(TimeUnit.MILLISECONDS.toNanos(1));
+    when(ctx.serverLatency()).thenReturn(150L);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.context()).thenReturn(ctx);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
+    when(request.bucket()).thenReturn(bucket);
+    return request;
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.events.tracing.OverThresholdRequestsRecordedEvent;
+import com.couchbase.client.core.env.ThresholdRequestTracerConfig;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.couchbase.client.core.cnc.RequestTracer.SERVICE_IDENTIFIER_KV;
+import static com.couchbase.client.core.cnc.RequestTracer.SERVICE_IDENTIFIER_QUERY;
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the sampling and reporting of the {@link ThresholdRequestTracer}.
+ * <p>
+ * All spans of the first interval are finished before the tracer is started, so the worker picks them up in a
+ * single, deterministic pass.
+ */
+class ThresholdRequestTracerTest {
+
+  private static final Duration EMIT_INTERVAL = Duration.ofMillis(300);
+
+  private EventBus eventBus;
+  private List<OverThresholdRequestsRecordedEvent> events;
+  private ThresholdRequestTracer tracer;
+
+  @BeforeEach
+  void beforeEach() {
+    events = new CopyOnWriteArrayList<>();
+    eventBus = mock(EventBus.class);
+    doAnswer(invocation -> {
+      Event event = invocation.getArgument(0);
+      if (event instanceof OverThresholdRequestsRecordedEvent) {
+        events.add((OverThresholdRequestsRecordedEvent) event);
+      }
+      return null;
+    }).when(eventBus).publish(any(Event.class));
+  }
+
+  @AfterEach
+  void afterEach() {
+    if (tracer != null) {
+      tracer.stop(Duration.ofSeconds(1)).block();
+    }
+  }
+
+  @Test
+  void keepsTopSamplesPerService() {
+    tracer = create(3, 1024);
+
+    for (long millis : asList(11L, 50L, 20L, 40L, 30L)) {
+      finish(ServiceType.KV, millis, 0);
+    }
+    for (long millis : asList(15L, 25L)) {
+      finish(ServiceType.QUERY, millis, 0);
+    }
+    tracer.start().block();
+
+    waitUntilCondition(() -> !events.isEmpty());
+    List<Map<String, Object>> output = events.get(0).overThreshold();
+    assertEquals(2, output.size());
+
+    Map<String, Object> kv = service(output, SERVICE_IDENTIFIER_KV);
+    assertEquals(5L, kv.get("count"));
+    assertEquals(asList(50L, 40L, 30L), totalMillis(kv));
+
+    Map<String, Object> query = service(output, SERVICE_IDENTIFIER_QUERY);
+    assertEquals(2L, query.get("count"));
+    assertEquals(asList(25L, 15L), totalMillis(query));
+  }
+
+  @Test
+  void countsRequestsWhichAreNotSampled() {
+    // the queue only holds 4 samples, so the others are dropped but still need to be counted
+    tracer = create(2, 4);
+
+    for (int i = 1; i <= 10; i++) {
+      finish(ServiceType.KV, 10 + i, 0);
+    }
+    finish(ServiceType.KV, 5, 0);
+    tracer.start().block();
+
+    waitUntilCondition(() -> !events.isEmpty());
+    Map<String, Object> kv = service(events.get(0).overThreshold(), SERVICE_IDENTIFIER_KV);
+    assertEquals(10L, kv.get("count"));
+    assertEquals(2, totalMillis(kv).size());
+  }
+
+  @Test
+  void resetsAdmissionFloorEveryInterval() {
+    tracer = create(2, 1024);
+
+    for (long millis : asList(100L, 200L, 300L)) {
+      finish(ServiceType.KV, millis, 0);
+    }
+    tracer.start().block();
+    waitUntilCondition(() -> events.size() == 1);
+    assertEquals(asList(300L, 200L), totalMillis(service(events.get(0).overThreshold(), SERVICE_IDENTIFIER_KV)));
+
+    // way below the floor of the previous interval, but it has been reset in the meantime
+    finish(ServiceType.KV, 20, 0);
+    waitUntilCondition(() -> events.size() == 2);
+    Map<String, Object> kv = service(events.get(1).overThreshold(), SERVICE_IDENTIFIER_KV);
+    assertEquals(1L, kv.get("count"));
+    assertEquals(asList(20L), totalMillis(kv));
+  }
+
+  @Test
+  void reportsServerDurationInMicros() {
+    tracer = create(2, 1024);
+
+    finish(ServiceType.KV, 20, 150);
+    tracer.start().block();
+
+    waitUntilCondition(() -> !events.isEmpty());
+    List<Map<String, Object>> top = top(service(events.get(0).overThreshold(), SERVICE_IDENTIFIER_KV));
+    assertEquals(150L, top.get(0).get("server_us"));
+    assertFalse(top.get(0).containsKey("encode_us"));
+  }
+
+  private ThresholdRequestTracer create(final int sampleSize, final int queueLength) {
+    return ThresholdRequestTracer.create(eventBus, ThresholdRequestTracerConfig.builder()
+      .emitInterval(EMIT_INTERVAL)
+      .sampleSize(sampleSize)
+      .queueLength(queueLength)
+      .kvThreshold(Duration.ofMillis(10))
+      .queryThreshold(Duration.ofMillis(10))
+      .build());
+  }
+
+  /**
+   * Finishes the span of a request which took the given time in total and on the server.
+   */
+  private void finish(final ServiceType serviceType, final long totalMillis, final long serverMicros) {
+    RequestContext ctx = mock(RequestContext.class);
+    Request<?> request = mock(Request.class);
+    doAnswer(invocation -> request).when(ctx).request();
+    when(request.context()).thenReturn(ctx);
+    when(request.serviceType()).thenReturn(serviceType);
+    when(ctx.logicalRequestLatency()).thenReturn(TimeUnit.MILLISECONDS.toNanos(totalMillis));
+    when(ctx.serverLatency()).thenReturn(serverMicros);
+
+    InternalSpan span = tracer.internalSpan("op", null);
+    span.requestContext(ctx);
+    span.finish();
+  }
+
+  private static Map<String, Object> service(final List<Map<String, Object>> output, final String ident) {
+    return output.stream().filter(m -> ident.equals(m.get("service"))).findFirst().orElseThrow(AssertionError::new);
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private static List<Map<String, Object>> top(final Map<String, Object> service) {
+    return (List<Map<String, Object>>) service.get("top");
+  }
+
+  private static List<Long> totalMillis(final Map<String, Object> service) {
+    return top(service)
+      .stream()
+      .map(entry -> TimeUnit.MICROSECONDS.toMillis((Long) entry.get("total_us")))
+      .collect(Collectors.toList());
+  }
+
+}
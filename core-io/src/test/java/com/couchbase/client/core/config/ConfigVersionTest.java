@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ConfigVersion}.
+ */
+class ConfigVersionTest {
+
+  @Test
+  void peeksTopLevelRevisionAndEpoch() {
+    assertEquals(new ConfigVersion(0, 1073), peek("{\"rev\":1073,\"name\":\"default\"}"));
+    assertEquals(new ConfigVersion(2, 15), peek("{ \"revEpoch\" : 2, \"name\": \"a\", \"rev\" : 15 }"));
+  }
+
+  @Test
+  void ignoresNestedAndQuotedRevisions() {
+    String raw = "{\"name\":\"rev\\\"\",\"nodes\":[{\"rev\":99}],\"ext\":{\"rev\":98},\"rev\":5}";
+    assertEquals(new ConfigVersion(0, 5), peek(raw));
+  }
+
+  @Test
+  void returnsNullWithoutRevision() {
+    assertNull(peek("{\"name\":\"default\",\"nodes\":[]}"));
+    assertNull(peek(""));
+  }
+
+  @Test
+  void doesNotModifyReaderIndex() {
+    ByteBuf raw = Unpooled.copiedBuffer("{\"rev\":1}", UTF_8);
+    ConfigVersion.peek(raw);
+    assertEquals(0, raw.readerIndex());
+    raw.release();
+  }
+
+  @Test
+  void detectsOutdatedConfigs() {
+    BucketConfig current = mock(BucketConfig.class);
+    when(current.rev()).thenReturn(10L);
+    when(current.revEpoch()).thenReturn(1L);
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig("default")).thenReturn(current);
+
+    assertTrue(isOutdated(clusterConfig, "{\"rev\":10,\"revEpoch\":1}"));
+    assertTrue(isOutdated(clusterConfig, "{\"rev\":11,\"revEpoch\":0}"));
+    assertFalse(isOutdated(clusterConfig, "{\"rev\":11,\"revEpoch\":1}"));
+    assertFalse(isOutdated(clusterConfig, "{\"rev\":1,\"revEpoch\":2}"));
+    assertFalse(isOutdated(clusterConfig, "{\"name\":\"default\"}"));
+    assertFalse(ConfigVersion.isOutdated(clusterConfig, "other", "{\"rev\":1}".getBytes(UTF_8)));
+  }
+
+  private static ConfigVersion peek(final String raw) {
+    return ConfigVersion.peek(Unpooled.wrappedBuffer(raw.getBytes(UTF_8)));
+  }
+
+  private static boolean isOutdated(final ClusterConfig clusterConfig, final String raw) {
+    return ConfigVersion.isOutdated(clusterConfig, "default", raw.getBytes(UTF_8));
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config.refresher;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.ConfigurationProvider;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
+import com.couchbase.client.core.msg.kv.CarrierBucketConfigRequest;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link KeyValueBucketRefresher}.
+ */
+class KeyValueBucketRefresherTest {
+
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+  private CoreEnvironment env;
+  private Core core;
+  private ConfigurationProvider provider;
+  private KeyValueBucketRefresher refresher;
+  private AtomicInteger configRequests;
+
+  @BeforeEach
+  void beforeEach() {
+    env = CoreEnvironment.builder()
+      .eventBus(new SimpleEventBus(true))
+      .ioConfig(IoConfig.configPollInterval(POLL_INTERVAL))
+      .build();
+
+    CoreContext coreContext = mock(CoreContext.class);
+    core = mock(Core.class);
+    when(core.context()).thenReturn(coreContext);
+    when(coreContext.environment()).thenReturn(env);
+
+    Map<ServiceType, Integer> services = new HashMap<>();
+    services.put(ServiceType.KV, 11210);
+    services.put(ServiceType.MANAGER, 8091);
+    NodeInfo node = new NodeInfo("127.0.0.1", services, Collections.emptyMap(), Collections.emptyMap());
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.nodes()).thenReturn(Collections.singletonList(node));
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig(any(String.class))).thenReturn(bucketConfig);
+    provider = mock(ConfigurationProvider.class);
+    when(provider.config()).thenReturn(clusterConfig);
+
+    // Failing the requests right away completes the poll, so the next one is only done after the interval.
+    configRequests = new AtomicInteger();
+    doAnswer(i -> {
+      configRequests.incrementAndGet();
+      CarrierBucketConfigRequest request = i.getArgument(0);
+      request.fail(new RuntimeException());
+      return null;
+    }).when(core).send(any(CarrierBucketConfigRequest.class));
+
+    refresher = new KeyValueBucketRefresher(provider, core) {
+      @Override
+      protected Duration pollerInterval() {
+        return POLL_INTERVAL;
+      }
+    };
+  }
+
+  @AfterEach
+  void afterEach() {
+    refresher.shutdown().block();
+    env.shutdown();
+  }
+
+  @Test
+  void pollsAtConfigPollInterval() {
+    refresher.register("bucket").block();
+    waitUntilCondition(() -> configRequests.get() >= 3);
+  }
+
+  /**
+   * Push is negotiated when the KV connections of the bucket are opened, which usually happens before the bucket
+   * is registered with the refresher.
+   */
+  @Test
+  void onlyPollsAtFallbackIntervalIfPushNegotiatedBeforeRegistration() throws Exception {
+    refresher.markPushEnabled("bucket");
+    refresher.register("bucket").block();
+
+    // the first poll happens right away, since the bucket has never been polled before
+    waitUntilCondition(() -> configRequests.get() == 1);
+    Thread.sleep(POLL_INTERVAL.toMillis() * 20);
+    assertEquals(1, configRequests.get());
+  }
+
+  /**
+   * While a bucket is rebalancing, it is polled on every tick even if the server pushes notifications.
+   */
+  @Test
+  void pollsTaintedBucketEvenIfPushEnabled() {
+    refresher.markPushEnabled("bucket");
+    refresher.register("bucket").block();
+    waitUntilCondition(() -> configRequests.get() == 1);
+
+    refresher.markTainted("bucket");
+    waitUntilCondition(() -> configRequests.get() >= 4);
+  }
+
+  @Test
+  void pollsAtConfigPollIntervalAgainAfterDeregistration() {
+    refresher.markPushEnabled("bucket");
+    refresher.deregister("bucket").block();
+
+    refresher.register("bucket").block();
+    waitUntilCondition(() -> configRequests.get() >= 3);
+  }
+
+}
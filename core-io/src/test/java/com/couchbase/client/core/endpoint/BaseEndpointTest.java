@@ -57,6 +57,7 @@ import java.util.function.Supplier;
 import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -366,6 +367,33 @@ class BaseEndpointTest {
     assertEquals(0, endpoint.outstandingRequests());
   }
 
+  /**
+   * Pipelined endpoints hand the requests off to the event loop, which then writes all of them
+   * with a single flush.
+   */
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void batchesWritesOnEventLoopIfPipelined() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    InstrumentedEndpoint endpoint = connectSuccessfully(channel, true);
+
+    Request<Response>[] requests = new Request[3];
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = mock(Request.class);
+      when(requests[i].response()).thenReturn(new CompletableFuture<>());
+      when(requests[i].context()).thenReturn(new RequestContext(ctx, requests[i]));
+      endpoint.send(requests[i]);
+    }
+
+    assertNull(channel.readOutbound());
+    channel.runPendingTasks();
+
+    for (Request<Response> request : requests) {
+      assertEquals(request, channel.readOutbound());
+    }
+    assertNull(channel.readOutbound());
+  }
+
   /**
    * Helper method to DRY up the case where we just need to connect properly.
    *
@@ -373,12 +401,26 @@ class BaseEndpointTest {
    * @return the connected endpoint.
    */
   private InstrumentedEndpoint connectSuccessfully(final Channel channel) {
+    return connectSuccessfully(channel, false);
+  }
+
+  /**
+   * Helper method to DRY up the case where we just need to connect properly.
+   *
+   * @param channel the channel into which it should connect.
+   * @param pipelined if the endpoint should be pipelined.
+   * @return the connected endpoint.
+   */
+  private InstrumentedEndpoint connectSuccessfully(final Channel channel, final boolean pipelined) {
     final CompletableFuture<Channel> cf = new CompletableFuture<>();
 
-    InstrumentedEndpoint endpoint = InstrumentedEndpoint.create(
+    InstrumentedEndpoint endpoint = new InstrumentedEndpoint(
+      LOCALHOST,
+      PORT,
       eventLoopGroup,
       ctx,
-      () -> Mono.fromFuture(cf)
+      () -> Mono.fromFuture(cf),
+      pipelined
     );
 
     endpoint.connect();
@@ -402,7 +444,13 @@ class BaseEndpointTest {
 
     InstrumentedEndpoint(String hostname, int port, EventLoopGroup eventLoopGroup,
                          ServiceContext ctx, Supplier<Mono<Channel>> channelSupplier) {
-      super(hostname, port, eventLoopGroup, ctx, CircuitBreakerConfig.enabled(false).build(), ServiceType.KV, false);
+      this(hostname, port, eventLoopGroup, ctx, channelSupplier, false);
+    }
+
+    InstrumentedEndpoint(String hostname, int port, EventLoopGroup eventLoopGroup,
+                         ServiceContext ctx, Supplier<Mono<Channel>> channelSupplier, boolean pipelined) {
+      super(hostname, port, eventLoopGroup, ctx, CircuitBreakerConfig.enabled(false).build(), ServiceType.KV,
+        pipelined);
       this.channelSupplier = channelSupplier;
     }
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link InFlightRequestTable}.
+ */
+class InFlightRequestTableTest {
+
+  @Test
+  void storesValueAndTimestamp() {
+    InFlightRequestTable<String> table = new InFlightRequestTable<>();
+    assertTrue(table.put(1, "one", 100));
+    assertTrue(table.put(-5, "minus five", 200));
+    assertEquals(2, table.size());
+
+    int slot = table.find(-5);
+    assertTrue(slot >= 0);
+    assertEquals("minus five", table.valueAt(slot));
+    assertEquals(200, table.timestampAt(slot));
+    table.removeAt(slot);
+
+    assertEquals(-1, table.find(-5));
+    assertEquals("one", table.remove(1));
+    assertNull(table.remove(1));
+    assertEquals(0, table.size());
+  }
+
+  @Test
+  void growsAndRejectsOverMaximumSize() {
+    InFlightRequestTable<Integer> table = new InFlightRequestTable<>(2, 100);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(table.put(i, i, i));
+    }
+    assertFalse(table.put(100, 100, 100));
+    assertTrue(table.put(50, 500, 500));
+    assertEquals(100, table.size());
+
+    for (int i = 0; i < 100; i++) {
+      int slot = table.find(i);
+      assertEquals(i == 50 ? 500 : i, table.valueAt(slot));
+    }
+  }
+
+  /**
+   * Runs random puts and removes against a small table with many collisions and compares with a
+   * {@link HashMap}, which makes sure that the backward shift on removal keeps all entries reachable.
+   */
+  @Test
+  void matchesHashMapUnderRandomChurn() {
+    InFlightRequestTable<Integer> table = new InFlightRequestTable<>(8, 64);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(128);
+      if (random.nextBoolean() && expected.size() < 64) {
+        table.put(key, i, i);
+        expected.put(key, i);
+      } else {
+        assertEquals(expected.remove(key), table.remove(key));
+      }
+      assertEquals(expected.size(), table.size());
+    }
+
+    for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      int slot = table.find(entry.getKey());
+      assertEquals(entry.getValue(), table.valueAt(slot));
+      assertEquals((long) entry.getValue(), table.timestampAt(slot));
+    }
+
+    Set<Integer> values = new HashSet<>();
+    table.forEachValue(values::add);
+    assertEquals(new HashSet<>(expected.values()), values);
+  }
+
+}
@@ -18,10 +18,15 @@ package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.ConfigurationProvider;
+import com.couchbase.client.core.config.ProposedBucketConfigContext;
+import com.couchbase.client.core.config.ProposedGlobalConfigContext;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
+import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.PasswordAuthenticator;
@@ -40,6 +45,7 @@ import com.couchbase.client.core.cnc.SimpleEventBus;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.time.Duration;
 import java.util.Arrays;
@@ -51,12 +57,21 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -263,4 +278,116 @@ class KeyValueMessageHandlerTest {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * The in-flight requests of the channel are reported to the endpoint so it can be used for load-aware selection.
+   */
+  @Test
+  void tracksInFlightRequestsOnEndpoint() {
+    AtomicInteger inFlight = new AtomicInteger();
+    BaseEndpoint endpoint = mock(BaseEndpoint.class);
+    doAnswer(invocation -> inFlight.addAndGet(invocation.getArgument(0)))
+      .when(endpoint).markRequestsInFlight(anyInt());
+
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(endpoint, CTX, Optional.of(BUCKET)));
+    try {
+      GetRequest request1 = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, FailFastRetryStrategy.INSTANCE, null);
+      GetRequest request2 = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, FailFastRetryStrategy.INSTANCE, null);
+      GetRequest request3 = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, FailFastRetryStrategy.INSTANCE, null);
+      channel.writeOutbound(request1, request2, request3);
+      assertEquals(3, inFlight.get());
+
+      ByteBuf getResponse = MemcacheProtocol.response(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+        MemcacheProtocol.Status.NOT_FOUND.status(), request1.opaque(), 0, Unpooled.EMPTY_BUFFER,
+        Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER);
+      channel.writeInbound(getResponse);
+      assertTrue(request1.response().isDone());
+      assertEquals(2, inFlight.get());
+
+      channel.close();
+      assertEquals(0, inFlight.get());
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Cluster map change notifications pushed by the server are proposed to the provider, unless they are not
+   * newer than the currently applied config.
+   */
+  @Test
+  void proposesPushedClustermapNotifications() {
+    ConfigurationProvider provider = mockProviderWithBucketRev(5);
+    EndpointContext ctx = endpointContext(provider);
+
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+    try {
+      ByteBuf outdated = clustermapNotification(channel, BUCKET, "{\"rev\":3}");
+      channel.writeInbound(outdated);
+      assertEquals(0, outdated.refCnt());
+      verify(provider, never()).proposeBucketConfig(any(ProposedBucketConfigContext.class));
+
+      ByteBuf current = clustermapNotification(channel, BUCKET, "{\"rev\":5}");
+      channel.writeInbound(current);
+      verify(provider, never()).proposeBucketConfig(any(ProposedBucketConfigContext.class));
+
+      channel.writeInbound(clustermapNotification(channel, BUCKET, "{\"rev\":7}"));
+      ArgumentCaptor<ProposedBucketConfigContext> proposed = ArgumentCaptor.forClass(ProposedBucketConfigContext.class);
+      verify(provider, times(1)).proposeBucketConfig(proposed.capture());
+      assertEquals(BUCKET, proposed.getValue().bucketName());
+      assertEquals("{\"rev\":7}", proposed.getValue().config());
+      assertEquals("127.0.0.1", proposed.getValue().origin());
+
+      channel.writeInbound(clustermapNotification(channel, "", "{\"rev\":1}"));
+      verify(provider, times(1)).proposeGlobalConfig(any(ProposedGlobalConfigContext.class));
+
+      assertNull(channel.readOutbound());
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Builds a cluster map change notification as it is sent by the server (magic 0x82), with the revision
+   * in the extras.
+   */
+  private static ByteBuf clustermapNotification(final EmbeddedChannel channel, final String bucket,
+                                                final String config) {
+    byte[] key = bucket.getBytes(UTF_8);
+    byte[] body = config.getBytes(UTF_8);
+    int extrasLength = 4;
+    return channel.alloc().buffer()
+      .writeByte(MemcacheProtocol.Magic.SERVER_REQUEST.magic())
+      .writeByte(MemcacheProtocol.ServerPushOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode())
+      .writeShort(key.length)
+      .writeByte(extrasLength)
+      .writeByte(0)
+      .writeShort(0)
+      .writeInt(extrasLength + key.length + body.length)
+      .writeInt(0)
+      .writeLong(0)
+      .writeInt(1)
+      .writeBytes(key)
+      .writeBytes(body);
+  }
+
+  private static ConfigurationProvider mockProviderWithBucketRev(final long rev) {
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.rev()).thenReturn(rev);
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig(BUCKET)).thenReturn(bucketConfig);
+
+    ConfigurationProvider provider = mock(ConfigurationProvider.class);
+    when(provider.collectionMap()).thenReturn(new CollectionMap());
+    when(provider.config()).thenReturn(clusterConfig);
+    return provider;
+  }
+
+  private static EndpointContext endpointContext(final ConfigurationProvider provider) {
+    Core core = mock(Core.class);
+    when(core.configurationProvider()).thenReturn(provider);
+    CoreContext coreContext = new CoreContext(core, 1, ENV, PasswordAuthenticator.create("foo", "bar"));
+    return new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
+      null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty());
+  }
+
+}
@@ -22,6 +22,8 @@ import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.DurabilityTimeoutCoercedEvent;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.env.Authenticator;
@@ -32,7 +34,13 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -123,5 +131,106 @@ class MemcacheProtocolTest {
     ReferenceCountUtil.release(result);
   }
 
+  /**
+   * Compresses and decompresses through both the array-backed and the direct buffer code paths and
+   * makes sure all combinations produce the original content.
+   */
+  @Test
+  void compressesAndDecompressesHeapAndDirectBuffers() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      sb.append("{\"name\":\"airline_").append(i).append("\",\"type\":\"airline\"},");
+    }
+    byte[] content = sb.toString().getBytes(UTF_8);
+    byte snappy = MemcacheProtocol.Datatype.SNAPPY.datatype();
+
+    for (boolean directInput : new boolean[] { false, true }) {
+      ByteBuf input = directInput ? ALLOC.directBuffer() : ALLOC.heapBuffer();
+      input.writeBytes(content);
+
+      ByteBuf compressed = MemcacheProtocol.tryCompression(ALLOC, input, 1.0);
+      assertNotNull(compressed);
+      assertTrue(compressed.readableBytes() < content.length);
+      assertEquals(0, input.readerIndex());
+      assertArrayEquals(content, MemcacheProtocol.tryDecompression(ByteBufUtil.getBytes(compressed), snappy));
+
+      ByteBuf direct = ALLOC.directBuffer().writeBytes(compressed, compressed.readerIndex(), compressed.readableBytes());
+      assertArrayEquals(content, MemcacheProtocol.tryDecompression(direct, snappy));
+      assertArrayEquals(content, MemcacheProtocol.tryDecompression(compressed, snappy));
+
+      ReferenceCountUtil.release(direct);
+      ReferenceCountUtil.release(compressed);
+      ReferenceCountUtil.release(input);
+    }
+  }
+
+  /**
+   * Makes sure direct buffers larger than a single snappy block are not cut off during compression.
+   */
+  @Test
+  void compressesAndDecompressesLargeDirectBuffers() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; sb.length() < 256 * 1024; i++) {
+      sb.append("{\"name\":\"airline_").append(i).append("\",\"type\":\"airline\"},");
+    }
+    byte[] content = sb.toString().getBytes(UTF_8);
+    byte snappy = MemcacheProtocol.Datatype.SNAPPY.datatype();
+
+    ByteBuf input = ALLOC.directBuffer().writeBytes(content);
+    assertFalse(input.hasArray());
+
+    ByteBuf compressed = MemcacheProtocol.tryCompression(ALLOC, input, 1.0);
+    assertNotNull(compressed);
+    assertTrue(compressed.readableBytes() < content.length);
+    assertArrayEquals(content, MemcacheProtocol.tryDecompression(ByteBufUtil.getBytes(compressed), snappy));
+
+    ByteBuf direct = ALLOC.directBuffer().writeBytes(compressed, compressed.readerIndex(), compressed.readableBytes());
+    assertArrayEquals(content, MemcacheProtocol.tryDecompression(direct, snappy));
+
+    ReferenceCountUtil.release(direct);
+    ReferenceCountUtil.release(compressed);
+    ReferenceCountUtil.release(input);
+  }
+
+  @Test
+  void extractsKeyFromMessage() {
+    ByteBuf extras = Unpooled.buffer().writeInt(1);
+    ByteBuf message = MemcacheProtocol.request(ALLOC, MemcacheProtocol.Opcode.GET, (byte) 0, (short) 0, 1, 0,
+      extras, Unpooled.copiedBuffer("my-key", UTF_8), Unpooled.copiedBuffer("body", UTF_8));
+
+    assertEquals("my-key", MemcacheProtocol.key(message).get().toString(UTF_8));
+    assertEquals("body", MemcacheProtocol.body(message).get().toString(UTF_8));
+    ReferenceCountUtil.release(message);
+
+    ByteBuf noKey = MemcacheProtocol.request(ALLOC, MemcacheProtocol.Opcode.GET, (byte) 0, (short) 0, 1, 0,
+      Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, Unpooled.copiedBuffer("body", UTF_8));
+    assertFalse(MemcacheProtocol.key(noKey).isPresent());
+    assertFalse(MemcacheProtocol.key(null).isPresent());
+    ReferenceCountUtil.release(noKey);
+  }
+
+  @Test
+  void doesNotReturnCompressedBufferBelowMinRatio() {
+    byte[] content = "not really compressible".getBytes(UTF_8);
+    assertNull(MemcacheProtocol.tryCompression(ALLOC, Unpooled.wrappedBuffer(content), 0.5));
+  }
+
+  @Test
+  void decompressesBodyFromDirectResponse() {
+    byte[] content = "{\"foo\":\"bar\",\"foo\":\"bar\",\"foo\":\"bar\",\"foo\":\"bar\"}".getBytes(UTF_8);
+    ByteBuf compressed = MemcacheProtocol.tryCompression(content, 1.0);
+    ByteBuf response = MemcacheProtocol.response(ALLOC, MemcacheProtocol.Opcode.GET,
+      MemcacheProtocol.Datatype.SNAPPY.datatype(), (short) 0, 1, 0, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER,
+      compressed);
+    ByteBuf direct = ALLOC.directBuffer().writeBytes(response);
+    assertFalse(direct.hasArray());
+
+    assertArrayEquals(content, MemcacheProtocol.bodyAsDecompressedBytes(response));
+    assertArrayEquals(content, MemcacheProtocol.bodyAsDecompressedBytes(direct));
+
+    ReferenceCountUtil.release(compressed);
+    ReferenceCountUtil.release(response);
+    ReferenceCountUtil.release(direct);
+  }
 
 }
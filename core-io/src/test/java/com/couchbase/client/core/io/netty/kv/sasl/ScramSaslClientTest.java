@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.sasl.SaslException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the SCRAM exchange of the {@link ScramSaslClient} against a server side computed independently.
+ */
+class ScramSaslClientTest {
+
+  private static final byte[] SALT = "some-salt-value".getBytes(UTF_8);
+  private static final int ITERATIONS = 4096;
+
+  @Test
+  void authenticatesWithoutCache() throws Exception {
+    authenticate(null, "user", "password");
+  }
+
+  @Test
+  void reusesCachedCredentials() throws Exception {
+    ScramCredentialCache cache = new ScramCredentialCache();
+
+    authenticate(cache, "user", "password");
+    assertEquals(0, cache.hits());
+    assertEquals(1, cache.misses());
+
+    authenticate(cache, "user", "password");
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  void doesNotReuseCredentialsForOtherPassword() throws Exception {
+    ScramCredentialCache cache = new ScramCredentialCache();
+
+    authenticate(cache, "user", "password");
+    authenticate(cache, "user", "otherPassword");
+    authenticate(cache, "otherUser", "password");
+    assertEquals(0, cache.hits());
+    assertEquals(3, cache.misses());
+  }
+
+  @Test
+  void rejectsWrongServerSignature() throws Exception {
+    ScramSaslClient client = new ScramSaslClient(
+      ScramSaslClientFactory.Mode.SCRAM_SHA256,
+      callbacks("user", "password"),
+      new ScramCredentialCache()
+    );
+    String clientNonce = new String(client.evaluateChallenge(new byte[0]), UTF_8).split(",r=")[1];
+    client.evaluateChallenge(serverFirstMessage(clientNonce).getBytes(UTF_8));
+
+    assertThrows(SaslException.class, () -> client.evaluateChallenge("v=AAAA".getBytes(UTF_8)));
+  }
+
+  /**
+   * Runs a full SCRAM-SHA256 exchange and verifies the client proof and the server signature on the way.
+   */
+  private static void authenticate(final ScramCredentialCache cache, final String username, final String password)
+    throws Exception {
+    ScramSaslClient client = new ScramSaslClient(
+      ScramSaslClientFactory.Mode.SCRAM_SHA256,
+      callbacks(username, password),
+      cache
+    );
+
+    String clientFirstMessage = new String(client.evaluateChallenge(new byte[0]), UTF_8);
+    String clientFirstMessageBare = clientFirstMessage.substring(3);
+    String clientNonce = clientFirstMessage.split(",r=")[1];
+
+    String serverFirstMessage = serverFirstMessage(clientNonce);
+    String clientFinalMessage = new String(client.evaluateChallenge(serverFirstMessage.getBytes(UTF_8)), UTF_8);
+    String clientFinalMessageNoProof = clientFinalMessage.substring(0, clientFinalMessage.indexOf(",p="));
+    byte[] proof = Base64.getDecoder().decode(clientFinalMessage.substring(clientFinalMessage.indexOf(",p=") + 3));
+
+    byte[] authMessage = (clientFirstMessageBare + "," + serverFirstMessage + "," + clientFinalMessageNoProof)
+      .getBytes(UTF_8);
+    byte[] saltedPassword = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+      .generateSecret(new PBEKeySpec(password.toCharArray(), SALT, ITERATIONS, 256))
+      .getEncoded();
+
+    byte[] clientKey = hmac(saltedPassword, "Client Key".getBytes(UTF_8));
+    byte[] clientSignature = hmac(MessageDigest.getInstance("SHA-256").digest(clientKey), authMessage);
+    for (int i = 0; i < clientKey.length; i++) {
+      clientKey[i] ^= clientSignature[i];
+    }
+    assertArrayEquals(clientKey, proof);
+
+    byte[] serverSignature = hmac(hmac(saltedPassword, "Server Key".getBytes(UTF_8)), authMessage);
+    String serverFinalMessage = "v=" + Base64.getEncoder().encodeToString(serverSignature);
+    assertEquals(0, client.evaluateChallenge(serverFinalMessage.getBytes(UTF_8)).length);
+    assertTrue(client.isComplete());
+  }
+
+  private static String serverFirstMessage(final String clientNonce) {
+    return "r=" + clientNonce + "server,s=" + Base64.getEncoder().encodeToString(SALT) + ",i=" + ITERATIONS;
+  }
+
+  private static byte[] hmac(final byte[] key, final byte[] data) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(key, "HmacSHA256"));
+    return mac.doFinal(data);
+  }
+
+  private static CallbackHandler callbacks(final String username, final String password) {
+    return callbacks -> {
+      for (Callback callback : callbacks) {
+        if (callback instanceof NameCallback) {
+          ((NameCallback) callback).setName(username);
+        } else if (callback instanceof PasswordCallback) {
+          ((PasswordCallback) callback).setPassword(password.toCharArray());
+        }
+      }
+    };
+  }
+
+}
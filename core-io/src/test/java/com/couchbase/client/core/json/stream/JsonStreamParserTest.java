@@ -18,6 +18,7 @@ package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
 import org.junit.jupiter.api.Test;
 
@@ -229,6 +230,12 @@ class JsonStreamParserTest {
       }));
   }
 
+  private enum ChunkType {
+    HEAP,
+    HEAP_WITH_OFFSET,
+    DIRECT
+  }
+
   private static class ResultChecker {
     private static class ListenerCheck {
       private final String jsonPointer;
@@ -273,26 +280,52 @@ class JsonStreamParserTest {
     }
 
     void check() throws IOException {
-      checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE);
+      for (ChunkType chunkType : ChunkType.values()) {
+        checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE, chunkType, false);
+        checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE, chunkType, true);
 
-      for (int i = 1; i <= min(32, json.length); i++) {
-        checkWithChunkSizeAndStreamWindow(i);
+        for (int i = 1; i <= min(32, json.length); i++) {
+          checkWithChunkSizeAndStreamWindow(i, chunkType, false);
+          checkWithChunkSizeAndStreamWindow(i, chunkType, true);
+        }
       }
     }
 
-    void checkWithChunkSizeAndStreamWindow(final int chunkSize) throws IOException {
+    void checkWithChunkSizeAndStreamWindow(final int chunkSize, final ChunkType chunkType,
+                                           final boolean compositeWindow) throws IOException {
       //System.out.println("testing with chunk size " + chunkSize);
       checks.forEach(c -> c.actual.clear()); // reset
 
-      try (JsonStreamParser parser = builder.build()) {
+      StreamWindow window = compositeWindow
+        ? new CompositeStreamWindow(UnpooledByteBufAllocator.DEFAULT)
+        : new CopyingStreamWindow(UnpooledByteBufAllocator.DEFAULT);
+
+      try (JsonStreamParser parser = builder.build(Unpooled.buffer(), window)) {
         ByteBuf buf = Unpooled.wrappedBuffer(json);
 
         parser.feed(Unpooled.buffer()); // make sure empty chunk doesn't break anything
 
         int offset = 0;
         while (buf.isReadable()) {
-          ByteBuf chunk = Unpooled.buffer();
-          chunk.writeBytes(buf, min(chunkSize, buf.readableBytes()));
+          int length = min(chunkSize, buf.readableBytes());
+          ByteBuf chunk;
+          switch (chunkType) {
+            case HEAP:
+              chunk = Unpooled.buffer();
+              chunk.writeBytes(buf, length);
+              break;
+            case HEAP_WITH_OFFSET:
+              // backing array with a non-zero array offset and reader index
+              byte[] padded = new byte[length + 2];
+              buf.readBytes(padded, 2, length);
+              chunk = Unpooled.wrappedBuffer(padded).slice(1, length + 1);
+              chunk.skipBytes(1);
+              break;
+            default:
+              chunk = Unpooled.directBuffer();
+              chunk.writeBytes(buf, length);
+              break;
+          }
 //          System.out.println("feeding (offset " + offset + ") : `" + chunk.toString(UTF_8) + "`");
           offset += chunkSize;
           parser.feed(chunk);
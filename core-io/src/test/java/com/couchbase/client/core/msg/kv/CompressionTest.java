@@ -17,6 +17,8 @@
 package com.couchbase.client.core.msg.kv;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.compression.CompressionPolicy;
+import com.couchbase.client.core.compression.DefaultSnappyCodec;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.env.CompressionConfig;
 import com.couchbase.client.core.io.CollectionIdentifier;
@@ -32,12 +34,14 @@ import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Optional;
 
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.datatype;
 import static com.couchbase.client.test.Util.readResource;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -239,9 +243,69 @@ class CompressionTest {
     ReferenceCountUtil.release(encoded);
   }
 
+  @Test
+  void doesNotCompressBinaryIfSkippedByPolicy() {
+    CompressionConfig config = CompressionConfig.policy(CompressionPolicy.skipBinary()).build();
+
+    AppendRequest append = new AppendRequest(timeout, coreContext, cid, retryStrategy, key, longContent,
+      cas, durability, null);
+    ByteBuf encodedAppend = append.encode(allocator, 0, ctx(config));
+    assertEquals(0, datatype(encodedAppend));
+    ReferenceCountUtil.release(encodedAppend);
+
+    UpsertRequest upsert = new UpsertRequest(key, longContent, expiry, CodecFlags.JSON_COMPAT_FLAGS, timeout,
+      coreContext, cid, retryStrategy, Optional.empty(), null);
+    ByteBuf encodedUpsert = upsert.encode(allocator, 0, ctx(config));
+    assertEquals(MemcacheProtocol.Datatype.SNAPPY.datatype(), datatype(encodedUpsert));
+    ReferenceCountUtil.release(encodedUpsert);
+  }
+
+  @Test
+  void doesNotCompressIfCollectionSkippedByPolicy() {
+    CompressionConfig config = CompressionConfig
+      .policy(CompressionPolicy.skipCollections(Collections.singleton(cid)))
+      .build();
+
+    UpsertRequest request = new UpsertRequest(key, longContent, expiry, flags, timeout,
+      coreContext, cid, retryStrategy, Optional.empty(), null);
+
+    ByteBuf encoded = request.encode(allocator, 0, ctx(config));
+    assertEquals(0, datatype(encoded));
+    assertEquals(Unpooled.wrappedBuffer(longContent), body(encoded).get());
+
+    ReferenceCountUtil.release(encoded);
+  }
+
+  @Test
+  void defaultCodecRoundTripsLargeDirectBuffers() {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 128 * 1024) {
+      sb.append(new String(longContent, UTF_8));
+    }
+    byte[] content = sb.toString().getBytes(UTF_8);
+
+    ByteBuf input = allocator.directBuffer().writeBytes(content);
+    ByteBuf compressed = DefaultSnappyCodec.INSTANCE.compress(allocator, input);
+    assertTrue(compressed.readableBytes() < content.length);
+    assertEquals(0, input.readerIndex());
+
+    ByteBuf directCompressed = allocator.directBuffer().writeBytes(compressed, compressed.readerIndex(),
+      compressed.readableBytes());
+    assertArrayEquals(content, DefaultSnappyCodec.INSTANCE.decompress(compressed));
+    assertArrayEquals(content, DefaultSnappyCodec.INSTANCE.decompress(directCompressed));
+
+    ReferenceCountUtil.release(directCompressed);
+    ReferenceCountUtil.release(compressed);
+    ReferenceCountUtil.release(input);
+  }
+
   private KeyValueChannelContext ctx(boolean enabled) {
+    return ctx(CompressionConfig.builder().enable(enabled).build());
+  }
+
+  private KeyValueChannelContext ctx(CompressionConfig config) {
     return new KeyValueChannelContext(
-      CompressionConfig.builder().enable(enabled).build(),
+      config,
       false,
       false,
       Optional.of(cid.bucket()),
@@ -17,12 +17,18 @@
 package com.couchbase.client.core.msg.kv;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Optional;
 
 import static com.couchbase.client.core.io.netty.kv.ProtocolVerifier.decodeHexDump;
 import static com.couchbase.client.test.Util.readResource;
@@ -30,6 +36,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -78,4 +85,26 @@ class GetRequestTest {
     assertEquals(0, decoded.flags());
   }
 
+  @Test
+  void reusesEncodedKeyUntilCollectionPrefixChanges() {
+    CollectionIdentifier collection = new CollectionIdentifier(
+      "bucket", Optional.of("scope"), Optional.of("collection")
+    );
+    CollectionMap collectionMap = new CollectionMap();
+    collectionMap.put(collection, new byte[] { 0x08 });
+    KeyValueChannelContext ctx = new KeyValueChannelContext(null, true, false, Optional.of("bucket"),
+      false, false, false, collectionMap, null, false);
+
+    GetRequest request = new GetRequest("key", TIMEOUT, CTX, collection, RETRY, null);
+
+    ByteBuf first = request.encodedKeyWithCollection(UnpooledByteBufAllocator.DEFAULT, ctx);
+    ByteBuf second = request.encodedKeyWithCollection(UnpooledByteBufAllocator.DEFAULT, ctx);
+    assertArrayEquals(new byte[] { 0x08, 'k', 'e', 'y' }, ByteBufUtil.getBytes(first));
+    assertSame(first.array(), second.array());
+
+    collectionMap.put(collection, new byte[] { 0x09 });
+    ByteBuf third = request.encodedKeyWithCollection(UnpooledByteBufAllocator.DEFAULT, ctx);
+    assertArrayEquals(new byte[] { 0x09, 'k', 'e', 'y' }, ByteBufUtil.getBytes(third));
+  }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the functionality of the {@link AdaptiveConcurrencyLimiter}.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void allowsUpToTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 200, null);
+    assertEquals(100, limiter.limit());
+    assertTrue(limiter.allows(99));
+    assertFalse(limiter.allows(100));
+  }
+
+  @Test
+  void growsWhileLatencyIsStable() {
+    ValueRecorder recorder = mock(ValueRecorder.class);
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 200, recorder);
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.onSample(100, false);
+    }
+
+    assertTrue(limiter.limit() > 100);
+    verify(recorder, atLeastOnce()).recordValue(anyLong());
+  }
+
+  @Test
+  void backsOffOnTimeouts() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 200, null);
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.onSample(0, true);
+    }
+
+    assertTrue(limiter.limit() < 100);
+    assertTrue(limiter.limit() >= 10);
+  }
+
+  @Test
+  void backsOffWhenLatencyDegrades() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 200, null);
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.onSample(100, false);
+    }
+    int healthyLimit = limiter.limit();
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.onSample(10000, false);
+    }
+    assertTrue(limiter.limit() < healthyLimit);
+  }
+
+  @Test
+  void rejectsInvalidLimits() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 10, 200, null));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(100, 0, 200, null));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(100, 10, 50, null));
+  }
+
+}
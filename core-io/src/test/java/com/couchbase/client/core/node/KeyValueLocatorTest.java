@@ -36,8 +36,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -233,4 +239,157 @@ class KeyValueLocatorTest {
     verify(request, times(1)).cancel(CancellationReason.TARGET_NODE_REMOVED);
   }
 
+  @Test
+  void partitionForKeyMatchesCrc32() {
+    Random random = new Random();
+    for (int i = 0; i < 1000; i++) {
+      byte[] key = new byte[random.nextInt(250)];
+      random.nextBytes(key);
+
+      CRC32 crc32 = new CRC32();
+      crc32.update(key, 0, key.length);
+      int expected = (int) ((crc32.getValue() >> 16) & 0x7fff) & 1023;
+
+      assertEquals(expected, KeyValueLocator.partitionForKey(key, 1024));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void usesRoutingTableIfBuiltForCurrentConfig() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(configMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", bucketMock));
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+    when(bucketMock.nodeIndexForActive(656, false)).thenReturn((short) 1);
+
+    locator.updateRoutingTables(configMock, nodes);
+    clearInvocations(bucketMock, node1Mock, node2Mock);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    locator.dispatch(getRequest, nodes, configMock, null);
+    verify(node2Mock, times(1)).send(getRequest);
+    verify(node1Mock, never()).send(getRequest);
+    verify(bucketMock, never()).nodeAtIndex(anyInt());
+    verify(node1Mock, never()).identifier();
+    verify(node2Mock, never()).identifier();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void keepsRoutingTableIfConfigUnchanged() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(configMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", bucketMock));
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+
+    locator.updateRoutingTables(configMock, nodes);
+    clearInvocations(bucketMock, node1Mock, node2Mock);
+
+    locator.updateRoutingTables(configMock, new ArrayList<>(nodes));
+    verify(bucketMock, never()).nodeAtIndex(anyInt());
+    verify(bucketMock, never()).nodeIndexForActive(anyInt(), eq(false));
+    verify(node1Mock, never()).identifier();
+    verify(node2Mock, never()).identifier();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reusesNodeLookupsIfOnlyPartitionsMoved() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    CouchbaseBucketConfig oldBucketMock = mock(CouchbaseBucketConfig.class);
+    when(oldBucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(oldBucketMock.numberOfPartitions()).thenReturn(1024);
+    when(oldBucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(oldBucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(oldBucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+    when(oldBucketMock.nodeIndexForActive(100, false)).thenReturn((short) 1);
+
+    ClusterConfig oldConfigMock = mock(ClusterConfig.class);
+    when(oldConfigMock.bucketConfig("bucket")).thenReturn(oldBucketMock);
+    when(oldConfigMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", oldBucketMock));
+
+    locator.updateRoutingTables(oldConfigMock, nodes);
+    clearInvocations(node1Mock, node2Mock);
+
+    // same nodes, but partition 656 moved from the first to the second node
+    CouchbaseBucketConfig newBucketMock = mock(CouchbaseBucketConfig.class);
+    when(newBucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(newBucketMock.numberOfPartitions()).thenReturn(1024);
+    when(newBucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(newBucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(newBucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+    when(newBucketMock.nodeIndexForActive(100, false)).thenReturn((short) 1);
+    when(newBucketMock.nodeIndexForActive(656, false)).thenReturn((short) 1);
+
+    ClusterConfig newConfigMock = mock(ClusterConfig.class);
+    when(newConfigMock.bucketConfig("bucket")).thenReturn(newBucketMock);
+    when(newConfigMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", newBucketMock));
+
+    locator.updateRoutingTables(newConfigMock, nodes);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    locator.dispatch(getRequest, nodes, newConfigMock, null);
+    verify(node2Mock, times(1)).send(getRequest);
+    verify(node1Mock, never()).send(getRequest);
+    verify(node1Mock, never()).identifier();
+    verify(node2Mock, never()).identifier();
+  }
+
 }
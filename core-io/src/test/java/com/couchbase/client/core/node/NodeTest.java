@@ -29,11 +29,17 @@ import com.couchbase.client.core.cnc.events.service.ServiceRemoveIgnoredEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceRemovedEvent;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.IoConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
 import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.retry.FailFastRetryStrategy;
+import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.Service;
 import com.couchbase.client.core.service.ServiceState;
 import com.couchbase.client.core.service.ServiceType;
@@ -43,8 +49,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.DirectProcessor;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -537,4 +546,82 @@ class NodeTest {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  void rejectsKeyValueRequestsOverConcurrencyLimit() {
+    CoreEnvironment env = CoreEnvironment.builder().ioConfig(IoConfig.enableKvConcurrencyLimit(true)).build();
+    try {
+      CoreContext ctx = new CoreContext(mock(Core.class), 1, env, mock(Authenticator.class));
+      final Service s = mock(Service.class);
+      Node node = new Node(ctx, mock(NodeIdentifier.class), NO_ALTERNATE) {
+        @Override
+        protected Service createService(ServiceType serviceType, int port, Optional<String> bucket) {
+          when(s.state()).thenReturn(ServiceState.CONNECTED);
+          when(s.states()).thenReturn(DirectProcessor.create());
+          when(s.type()).thenReturn(serviceType);
+          return s;
+        }
+      };
+      node.addService(ServiceType.KV, 11210, Optional.of("bucket")).block();
+
+      when(s.inFlightRequests()).thenReturn((long) AdaptiveConcurrencyLimiter.DEFAULT_INITIAL_LIMIT);
+      GetRequest rejected = new GetRequest("key", Duration.ofSeconds(1), ctx,
+        CollectionIdentifier.fromDefault("bucket"), FailFastRetryStrategy.INSTANCE, null);
+      node.send(rejected);
+
+      verify(s, never()).send(eq(rejected));
+      assertEquals(
+        CancellationReason.noMoreRetries(RetryReason.NODE_CONCURRENCY_LIMIT_REACHED),
+        rejected.cancellationReason()
+      );
+
+      when(s.inFlightRequests()).thenReturn((long) AdaptiveConcurrencyLimiter.DEFAULT_INITIAL_LIMIT - 1);
+      GetRequest accepted = new GetRequest("key", Duration.ofSeconds(1), ctx,
+        CollectionIdentifier.fromDefault("bucket"), FailFastRetryStrategy.INSTANCE, null);
+      node.send(accepted);
+
+      verify(s, times(1)).send(eq(accepted));
+    } finally {
+      env.shutdown();
+    }
+  }
+
+  @Test
+  void limitsKeyValueRequestsAcrossAllBuckets() {
+    CoreEnvironment env = CoreEnvironment.builder().ioConfig(IoConfig.enableKvConcurrencyLimit(true)).build();
+    try {
+      CoreContext ctx = new CoreContext(mock(Core.class), 1, env, mock(Authenticator.class));
+      final Map<String, Service> created = new HashMap<>();
+      Node node = new Node(ctx, mock(NodeIdentifier.class), NO_ALTERNATE) {
+        @Override
+        protected Service createService(ServiceType serviceType, int port, Optional<String> bucket) {
+          Service s = mock(Service.class);
+          when(s.state()).thenReturn(ServiceState.CONNECTED);
+          when(s.states()).thenReturn(DirectProcessor.create());
+          when(s.type()).thenReturn(serviceType);
+          created.put(bucket.orElse(null), s);
+          return s;
+        }
+      };
+      node.addService(ServiceType.KV, 11210, Optional.of("a")).block();
+      node.addService(ServiceType.KV, 11210, Optional.of("b")).block();
+
+      // neither bucket is at the limit on its own, but both together are
+      long half = AdaptiveConcurrencyLimiter.DEFAULT_INITIAL_LIMIT / 2;
+      when(created.get("a").inFlightRequests()).thenReturn(half);
+      when(created.get("b").inFlightRequests()).thenReturn(AdaptiveConcurrencyLimiter.DEFAULT_INITIAL_LIMIT - half);
+
+      GetRequest rejected = new GetRequest("key", Duration.ofSeconds(1), ctx,
+        CollectionIdentifier.fromDefault("a"), FailFastRetryStrategy.INSTANCE, null);
+      node.send(rejected);
+
+      verify(created.get("a"), never()).send(eq(rejected));
+      assertEquals(
+        CancellationReason.noMoreRetries(RetryReason.NODE_CONCURRENCY_LIMIT_REACHED),
+        rejected.cancellationReason()
+      );
+    } finally {
+      env.shutdown();
+    }
+  }
+
+}
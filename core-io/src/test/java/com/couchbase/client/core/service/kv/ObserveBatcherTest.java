@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.MutationToken;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import com.couchbase.client.core.node.NodeIdentifier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the {@link ObserveBatcher} shares observe rounds between mutations.
+ */
+class ObserveBatcherTest {
+
+  private static final CollectionIdentifier COLLECTION = CollectionIdentifier.fromDefault("bucket");
+
+  private static CoreEnvironment ENVIRONMENT;
+
+  private Core core;
+  private CoreContext coreContext;
+  private List<ObserveViaSeqnoRequest> sent;
+
+  @BeforeAll
+  static void beforeAll() {
+    ENVIRONMENT = CoreEnvironment.create();
+  }
+
+  @AfterAll
+  static void afterAll() {
+    ENVIRONMENT.shutdown();
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    sent = new CopyOnWriteArrayList<>();
+    core = mock(Core.class);
+    coreContext = new CoreContext(core, 1, ENVIRONMENT, mock(Authenticator.class));
+    when(core.context()).thenReturn(coreContext);
+    doAnswer(invocation -> {
+      sent.add(invocation.getArgument(0));
+      return null;
+    }).when(core).send(any(ObserveViaSeqnoRequest.class));
+  }
+
+  @Test
+  void sharesNextRoundWhileInFlight() {
+    ObserveBatcher batcher = new ObserveBatcher();
+
+    CompletableFuture<ObserveViaSeqnoResponse> first = batcher.observe(context("a", 1), (short) 0, true).toFuture();
+    assertEquals(1, sent.size());
+
+    // both arrive while the first round is in flight, so they have to wait for the next one
+    CompletableFuture<ObserveViaSeqnoResponse> second = batcher.observe(context("b", 2), (short) 0, true).toFuture();
+    CompletableFuture<ObserveViaSeqnoResponse> third = batcher.observe(context("c", 3), (short) 0, true).toFuture();
+    assertEquals(1, sent.size());
+
+    ObserveViaSeqnoResponse firstResponse = response(1);
+    sent.get(0).succeed(firstResponse);
+    assertSame(firstResponse, first.join());
+    assertFalse(second.isDone());
+    assertEquals(2, sent.size());
+
+    ObserveViaSeqnoResponse secondResponse = response(3);
+    sent.get(1).succeed(secondResponse);
+    assertSame(secondResponse, second.join());
+    assertSame(secondResponse, third.join());
+    assertEquals(2, sent.size());
+    assertEquals(0, batcher.size());
+  }
+
+  @Test
+  void observesVbucketsAndReplicasIndependently() {
+    ObserveBatcher batcher = new ObserveBatcher();
+
+    batcher.observe(context("a", 1), (short) 0, true).subscribe();
+    batcher.observe(context("a", 1), (short) 1, false).subscribe();
+    batcher.observe(context("b", 1, (short) 2), (short) 0, true).subscribe();
+
+    assertEquals(3, sent.size());
+    assertEquals(3, batcher.size());
+  }
+
+  @Test
+  void sharesRoundsAcrossCollections() {
+    ObserveBatcher batcher = new ObserveBatcher();
+    CollectionIdentifier other = new CollectionIdentifier("bucket", Optional.of("scope"), Optional.of("other"));
+
+    CompletableFuture<ObserveViaSeqnoResponse> first = batcher.observe(context("a", 1), (short) 0, true).toFuture();
+    CompletableFuture<ObserveViaSeqnoResponse> second = batcher
+      .observe(context("b", 2, (short) 1, other), (short) 0, true).toFuture();
+    CompletableFuture<ObserveViaSeqnoResponse> third = batcher
+      .observe(context("c", 3, (short) 1, other), (short) 0, true).toFuture();
+    assertEquals(1, sent.size());
+    assertEquals(1, batcher.size());
+
+    sent.get(0).succeed(response(1));
+    first.join();
+    assertEquals(2, sent.size());
+    assertEquals(CollectionIdentifier.fromDefault("bucket"), sent.get(1).collectionIdentifier());
+
+    ObserveViaSeqnoResponse secondResponse = response(3);
+    sent.get(1).succeed(secondResponse);
+    assertSame(secondResponse, second.join());
+    assertSame(secondResponse, third.join());
+  }
+
+  @Test
+  void doesNotJoinRoundToPreviousNodeAfterRebalance() {
+    NodeInfo oldNode = mock(NodeInfo.class);
+    when(oldNode.identifier()).thenReturn(new NodeIdentifier("10.0.0.1", 8091));
+    NodeInfo newNode = mock(NodeInfo.class);
+    when(newNode.identifier()).thenReturn(new NodeIdentifier("10.0.0.2", 8091));
+    CouchbaseBucketConfig bucketConfig = mock(CouchbaseBucketConfig.class);
+    when(bucketConfig.nodeAtIndex(0)).thenReturn(oldNode);
+    when(bucketConfig.nodeAtIndex(1)).thenReturn(newNode);
+    when(bucketConfig.nodeIndexForActive(1, false)).thenReturn((short) 0);
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig("bucket")).thenReturn(bucketConfig);
+    when(core.clusterConfig()).thenReturn(clusterConfig);
+
+    ObserveBatcher batcher = new ObserveBatcher();
+    batcher.observe(context("a", 1), (short) 0, true).subscribe();
+    assertEquals(1, sent.size());
+
+    // the vbucket moved while the first round is still in flight to the old node
+    when(bucketConfig.nodeIndexForActive(1, false)).thenReturn((short) 1);
+    batcher.observe(context("b", 2), (short) 0, true).subscribe();
+    assertEquals(2, sent.size());
+    assertEquals(2, batcher.size());
+  }
+
+  @Test
+  void fansOutErrors() {
+    ObserveBatcher batcher = new ObserveBatcher();
+
+    CompletableFuture<ObserveViaSeqnoResponse> first = batcher.observe(context("a", 1), (short) 0, true).toFuture();
+    sent.get(0).fail(new IllegalStateException());
+
+    assertEquals(IllegalStateException.class, first.handle((r, t) -> t).join().getClass());
+    assertEquals(0, batcher.size());
+  }
+
+  private ObserveContext context(final String key, final long seqno) {
+    return context(key, seqno, (short) 1);
+  }
+
+  private ObserveContext context(final String key, final long seqno, final short partition) {
+    return context(key, seqno, partition, COLLECTION);
+  }
+
+  private ObserveContext context(final String key, final long seqno, final short partition,
+                                 final CollectionIdentifier collection) {
+    return new ObserveContext(
+      coreContext,
+      Observe.ObservePersistTo.ACTIVE,
+      Observe.ObserveReplicateTo.NONE,
+      Optional.of(new MutationToken(partition, 1234, seqno, "bucket")),
+      0,
+      collection,
+      key,
+      false,
+      Duration.ofSeconds(1),
+      null
+    );
+  }
+
+  private static ObserveViaSeqnoResponse response(final long seqno) {
+    return new ObserveViaSeqnoResponse(ResponseStatus.SUCCESS, true, (short) 1, 1234, seqno, seqno,
+      Optional.empty(), Optional.empty());
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link LoadAwarePartitionSelectionStrategy}.
+ */
+class LoadAwarePartitionSelectionStrategyTest {
+
+  private final EndpointSelectionStrategy strategy = new LoadAwarePartitionSelectionStrategy();
+
+  @Test
+  void selectsPinnedIfEquallyLoaded() {
+    List<Endpoint> endpoints = Arrays.asList(
+      endpoint(EndpointState.CONNECTED, 3),
+      endpoint(EndpointState.CONNECTED, 3),
+      endpoint(EndpointState.CONNECTED, 3)
+    );
+
+    assertEquals(endpoints.get(0), strategy.select(request(12), endpoints));
+    assertEquals(endpoints.get(1), strategy.select(request(13), endpoints));
+    assertEquals(endpoints.get(2), strategy.select(request(14), endpoints));
+  }
+
+  @Test
+  void selectsLeastLoadedIfPinnedIsBusier() {
+    List<Endpoint> endpoints = Arrays.asList(
+      endpoint(EndpointState.CONNECTED, 10),
+      endpoint(EndpointState.CONNECTED, 5),
+      endpoint(EndpointState.CONNECTED, 2)
+    );
+
+    assertEquals(endpoints.get(2), strategy.select(request(12), endpoints));
+  }
+
+  @Test
+  void skipsEndpointsWhichAreNotConnected() {
+    List<Endpoint> endpoints = Arrays.asList(
+      endpoint(EndpointState.DISCONNECTED, 0),
+      endpoint(EndpointState.CONNECTED, 4),
+      endpoint(EndpointState.CONNECTING, 0)
+    );
+
+    assertEquals(endpoints.get(1), strategy.select(request(12), endpoints));
+  }
+
+  @Test
+  void selectsNullIfNoneConnected() {
+    List<Endpoint> endpoints = Arrays.asList(
+      endpoint(EndpointState.DISCONNECTED, 0),
+      endpoint(EndpointState.CONNECTING, 0)
+    );
+
+    assertNull(strategy.select(request(12), endpoints));
+    assertNull(strategy.select(request(12), Collections.emptyList()));
+  }
+
+  private static Endpoint endpoint(final EndpointState state, final long inFlight) {
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.state()).thenReturn(state);
+    when(endpoint.freeToWrite()).thenReturn(true);
+    when(endpoint.inFlightRequests()).thenReturn(inFlight);
+    return endpoint;
+  }
+
+  private static GetRequest request(final int partition) {
+    GetRequest request = mock(GetRequest.class);
+    when(request.partition()).thenReturn((short) partition);
+    return request;
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ConcurrentLRUCache}.
+ */
+class ConcurrentLRUCacheTest {
+
+  @Test
+  void countsHitsAndMisses() {
+    ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(10);
+
+    assertNull(cache.get("a"));
+    cache.put("a", "1");
+    assertEquals("1", cache.get("a"));
+    assertEquals("1", cache.remove("a"));
+    assertNull(cache.get("a"));
+
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedOnceFull() throws Exception {
+    ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(10);
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+
+    // make sure the first entry is accessed last
+    Thread.sleep(5);
+    assertNotNull(cache.get(0));
+
+    cache.put(10, 10);
+    assertTrue(cache.size() <= 10);
+    assertEquals(2, cache.evictions());
+    assertNotNull(cache.get(0));
+    assertNotNull(cache.get(10));
+  }
+
+  @Test
+  void rejectsInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentLRUCache<>(0));
+  }
+
+}
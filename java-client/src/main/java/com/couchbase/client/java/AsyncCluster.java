@@ -41,6 +41,7 @@ import com.couchbase.client.core.util.ConnectionStringUtil;
 import com.couchbase.client.java.analytics.AnalyticsAccessor;
 import com.couchbase.client.java.analytics.AnalyticsOptions;
 import com.couchbase.client.java.analytics.AnalyticsResult;
+import com.couchbase.client.java.analytics.StreamingAnalyticsResult;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.diagnostics.PingOptions;
@@ -55,10 +56,12 @@ import com.couchbase.client.java.manager.user.AsyncUserManager;
 import com.couchbase.client.java.query.QueryAccessor;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.StreamingQueryResult;
 import com.couchbase.client.java.search.SearchAccessor;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
+import com.couchbase.client.java.search.result.StreamingSearchResult;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
@@ -238,7 +241,7 @@ public class AsyncCluster {
     this.environment = environment;
     this.core = Core.create(environment.get(), authenticator, seedNodes);
     this.searchIndexManager = new AsyncSearchIndexManager(core);
-    this.queryAccessor = new QueryAccessor(core);
+    this.queryAccessor = new QueryAccessor(core, environment.get().preparedStatementCacheSize());
     this.userManager = new AsyncUserManager(core);
     this.bucketManager = new AsyncBucketManager(core);
     this.queryIndexManager = new AsyncQueryIndexManager(this);
@@ -324,6 +327,23 @@ public class AsyncCluster {
     return queryAccessor.queryAsync(queryRequest(statement, opts), opts, serializer);
   }
 
+  /**
+   * Performs a N1QL query with custom {@link QueryOptions} and streams the rows instead of buffering them.
+   * <p>
+   * See {@link StreamingQueryResult} on how the rows are back-pressured and why the result needs to be closed.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingQueryResult} once the response starts arriving successfully.
+   */
+  @Stability.Uncommitted
+  public CompletableFuture<StreamingQueryResult> queryStream(final String statement, final QueryOptions options) {
+    notNull(options, "QueryOptions", () -> new ReducedQueryErrorContext(statement));
+    final QueryOptions.Built opts = options.build();
+    JsonSerializer serializer = opts.serializer() == null ? environment.get().jsonSerializer() : opts.serializer();
+    return queryAccessor.queryStreaming(queryRequest(statement, opts), opts, serializer);
+  }
+
   /**
    * Helper method to construct the query request.
    *
@@ -378,6 +398,24 @@ public class AsyncCluster {
     return AnalyticsAccessor.analyticsQueryAsync(core, analyticsRequest(statement, opts), serializer);
   }
 
+  /**
+   * Performs an Analytics query with custom {@link AnalyticsOptions} and streams the rows instead of buffering them.
+   * <p>
+   * See {@link StreamingAnalyticsResult} on how the rows are back-pressured and why the result needs to be closed.
+   *
+   * @param statement the Analytics query statement as a raw string.
+   * @param options the custom options for this analytics query.
+   * @return the {@link StreamingAnalyticsResult} once the response starts arriving successfully.
+   */
+  @Stability.Uncommitted
+  public CompletableFuture<StreamingAnalyticsResult> analyticsQueryStream(final String statement,
+                                                                          final AnalyticsOptions options) {
+    notNull(options, "AnalyticsOptions", () -> new ReducedAnalyticsErrorContext(statement));
+    AnalyticsOptions.Built opts = options.build();
+    JsonSerializer serializer = opts.serializer() == null ? environment.get().jsonSerializer() : opts.serializer();
+    return AnalyticsAccessor.analyticsQueryStreaming(core, analyticsRequest(statement, opts), serializer);
+  }
+
   /**
    * Helper method to craft an analytics request.
    *
@@ -432,6 +470,26 @@ public class AsyncCluster {
     return SearchAccessor.searchQueryAsync(core, searchRequest(indexName, query, opts), serializer);
   }
 
+  /**
+   * Performs a Full Text Search (FTS) query with custom {@link SearchOptions} and streams the hits instead of
+   * buffering them.
+   * <p>
+   * See {@link StreamingSearchResult} on how the hits are back-pressured and why the result needs to be closed.
+   *
+   * @param query the query, in the form of a {@link SearchQuery}
+   * @param options the custom options for this query.
+   * @return the {@link StreamingSearchResult} once the response starts arriving successfully.
+   */
+  @Stability.Uncommitted
+  public CompletableFuture<StreamingSearchResult> searchQueryStream(final String indexName, final SearchQuery query,
+                                                                    final SearchOptions options) {
+    notNull(query, "SearchQuery", () -> new ReducedSearchErrorContext(indexName, null));
+    notNull(options, "SearchOptions", () -> new ReducedSearchErrorContext(indexName, query.export().toMap()));
+    SearchOptions.Built opts = options.build();
+    JsonSerializer serializer = opts.serializer() == null ? environment.get().jsonSerializer() : opts.serializer();
+    return SearchAccessor.searchQueryStreaming(core, searchRequest(indexName, query, opts), serializer);
+  }
+
   SearchRequest searchRequest(final String indexName, final SearchQuery query, final SearchOptions.Built opts) {
     notNullOrEmpty(indexName, "IndexName", () -> new ReducedSearchErrorContext(indexName, query.export().toMap()));
     JsonObject params = query.export();
@@ -23,6 +23,7 @@ import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
 import com.couchbase.client.core.env.TimeoutConfig;
 import com.couchbase.client.core.error.*;
 import com.couchbase.client.core.error.context.AggregateErrorContext;
@@ -30,6 +31,7 @@ import com.couchbase.client.core.error.context.CancellationErrorContext;
 import com.couchbase.client.core.error.context.ErrorContext;
 import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.msg.kv.GetAndLockRequest;
 import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
@@ -64,6 +66,7 @@ import com.couchbase.client.java.kv.GetAnyReplicaOptions;
 import com.couchbase.client.java.kv.GetOptions;
 import com.couchbase.client.java.kv.GetReplicaResult;
 import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.HedgedReadTracker;
 import com.couchbase.client.java.kv.InsertAccessor;
 import com.couchbase.client.java.kv.InsertOptions;
 import com.couchbase.client.java.kv.LookupInAccessor;
@@ -75,12 +78,15 @@ import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.MultiAccessor;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.PersistTo;
 import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceAccessor;
 import com.couchbase.client.java.kv.ReplaceOptions;
+import com.couchbase.client.java.kv.ReplicateTo;
 import com.couchbase.client.java.kv.StoreSemantics;
 import com.couchbase.client.java.kv.TouchAccessor;
 import com.couchbase.client.java.kv.TouchOptions;
@@ -94,11 +100,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -175,6 +184,11 @@ public class AsyncCollection {
    */
   private final CollectionIdentifier collectionIdentifier;
 
+  /**
+   * Keeps track of the budget and delay for hedged reads.
+   */
+  private final HedgedReadTracker hedgedReads = new HedgedReadTracker();
+
   /**
    * Creates a new {@link AsyncCollection}.
    *
@@ -265,12 +279,121 @@ public class AsyncCollection {
 
     final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
     if (opts.projections().isEmpty() && !opts.withExpiry()) {
-      return GetAccessor.get(core, fullGetRequest(id, opts), transcoder);
+      GetRequest request = fullGetRequest(id, opts);
+      return opts.hedge() ? hedgedGet(id, request, opts, transcoder) : GetAccessor.get(core, request, transcoder);
     } else {
       return GetAccessor.subdocGet(core, subdocGetRequest(id, opts), transcoder);
     }
   }
 
+  /**
+   * Dispatches a full doc fetch and, if it did not complete within the hedge delay, a single get to one replica.
+   * <p>
+   * The first successful response wins and the other request is cancelled. An error from the active is only
+   * returned if the hedge did not succeed before, and errors from the hedge are ignored since the active request
+   * always completes (at the latest once it times out). If the hedge wins, the time until then is fed into the
+   * dynamic delay as a lower bound of the latency of the active. Cancelling the active (i.e. because the subscriber
+   * stopped listening) also cancels the hedge with the same reason.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param request the get request against the active.
+   * @param opts custom options to change the default behavior.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return a {@link CompletableFuture} completing with the first result.
+   */
+  @Stability.Internal
+  CompletableFuture<GetResult> hedgedGet(final String id, final GetRequest request, final GetOptions.Built opts,
+                                         final Transcoder transcoder) {
+    hedgedReads.recordRead();
+    final long start = System.nanoTime();
+    final Duration delay = opts.hedgeDelay().orElseGet(hedgedReads::dynamicDelay);
+    final CompletableFuture<GetResult> result = new CompletableFuture<>();
+    final AtomicReference<GetRequest> hedge = new AtomicReference<>();
+
+    final Timeout hedgeTimeout = environment.timer().schedule(() -> {
+      if (result.isDone() || request.completed()) {
+        return;
+      }
+      int numReplicas = numberOfReplicas();
+      Duration remaining = request.timeout().minus(delay);
+      if (numReplicas < 1 || remaining.isNegative() || remaining.isZero() || !hedgedReads.tryAcquireHedge()) {
+        return;
+      }
+
+      ReplicaGetRequest replicaRequest = replicaGetRequest(
+        id, request, opts, (short) (ThreadLocalRandom.current().nextInt(numReplicas) + 1), remaining
+      );
+      hedge.set(replicaRequest);
+      GetAccessor.get(core, replicaRequest, transcoder).whenComplete((r, t) -> {
+        if (r != null && result.complete(r)) {
+          // the active took at least this long, so leaving it out would bias the delay towards the fast reads
+          hedgedReads.recordLatency(Math.max(System.nanoTime() - start, delay.toNanos()));
+          request.cancel(CancellationReason.SUPERSEDED);
+        }
+      });
+      if (result.isDone()) {
+        // the active completed while the hedge has been set up, so it would not have seen it
+        replicaRequest.cancel(request.cancelled() ? request.cancellationReason() : CancellationReason.SUPERSEDED);
+      }
+    }, delay);
+
+    GetAccessor.get(core, request, transcoder).whenComplete((r, t) -> {
+      if (hedgeTimeout != null) {
+        hedgeTimeout.cancel();
+      }
+      if (r != null) {
+        hedgedReads.recordLatency(System.nanoTime() - start);
+      }
+      if (r != null ? result.complete(r) : result.completeExceptionally(t)) {
+        GetRequest replicaRequest = hedge.get();
+        if (replicaRequest != null) {
+          replicaRequest.cancel(request.cancelled() ? request.cancellationReason() : CancellationReason.SUPERSEDED);
+        }
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Returns the tracker which keeps the budget and delay for hedged reads of this collection.
+   */
+  @Stability.Internal
+  HedgedReadTracker hedgedReads() {
+    return hedgedReads;
+  }
+
+  /**
+   * Returns the number of replicas configured for the bucket, or 0 if unknown or not a couchbase bucket.
+   */
+  private int numberOfReplicas() {
+    BucketConfig config = core.clusterConfig().bucketConfig(bucket);
+    return config instanceof CouchbaseBucketConfig ? ((CouchbaseBucketConfig) config).numberOfReplicas() : 0;
+  }
+
+  /**
+   * Helper method to create the replica get request which hedges a full doc fetch.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param request the get request against the active which is hedged.
+   * @param opts custom options to change the default behavior.
+   * @param replicaIndex the index of the replica to read from.
+   * @param timeout the time left until the active request times out.
+   * @return the replica get request.
+   */
+  private ReplicaGetRequest replicaGetRequest(final String id, final GetRequest request, final GetOptions.Built opts,
+                                              final short replicaIndex, final Duration timeout) {
+    InternalSpan span = environment.requestTracer().internalSpan(
+      ReplicaGetRequest.OPERATION_NAME,
+      opts.parentSpan().orElse(null)
+    );
+    ReplicaGetRequest replicaRequest = new ReplicaGetRequest(
+      id, timeout, coreContext, collectionIdentifier, request.retryStrategy(), replicaIndex, span
+    );
+    replicaRequest.context().clientContext(opts.clientContext());
+    return replicaRequest;
+  }
+
   /**
    * Helper method to create a get request for a full doc fetch.
    *
@@ -377,6 +500,60 @@ public class AsyncCollection {
     return request;
   }
 
+  /**
+   * Fetches many full documents at once with default options.
+   *
+   * <p>The requests are grouped by their target node and partition and dispatched in one burst, which has
+   * considerably less overhead than issuing a get per document when loading many documents at once.</p>
+   *
+   * @param ids the document ids to fetch.
+   * @return a {@link CompletableFuture} completing with the per-document results once all are loaded or failed.
+   */
+  @Stability.Volatile
+  public CompletableFuture<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches many full documents at once with custom options.
+   *
+   * <p>The options are applied to every document. Note that projections and fetching the expiry are not
+   * supported for multi gets.</p>
+   *
+   * @param ids the document ids to fetch.
+   * @param options custom options to change the default behavior.
+   * @return a {@link CompletableFuture} completing with the per-document results once all are loaded or failed.
+   */
+  @Stability.Volatile
+  public CompletableFuture<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids,
+                                                            final GetOptions options) {
+    notNull(options, "GetOptions");
+    final GetOptions.Built opts = options.build();
+    final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
+    return MultiAccessor.getMulti(core, getMultiRequests(ids, opts), transcoder);
+  }
+
+  /**
+   * Helper method to create the get requests for a multi get.
+   *
+   * @param ids the document ids to fetch.
+   * @param opts custom options to change the default behavior.
+   * @return the get requests, one per document id.
+   */
+  @Stability.Internal
+  List<GetRequest> getMultiRequests(final java.util.Collection<String> ids, final GetOptions.Built opts) {
+    notNull(ids, "Ids");
+    if (!opts.projections().isEmpty() || opts.withExpiry()) {
+      throw InvalidArgumentException.fromMessage("Projections and withExpiry are not supported with getMulti");
+    }
+
+    List<GetRequest> requests = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      requests.add(fullGetRequest(id, opts));
+    }
+    return requests;
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    * <p>
@@ -863,6 +1040,59 @@ public class AsyncCollection {
     return request;
   }
 
+  /**
+   * Upserts many full documents at once with default options.
+   *
+   * <p>The requests are grouped by their target node and partition and dispatched in one burst, which has
+   * considerably less overhead than issuing an upsert per document when writing many documents at once.</p>
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @return a {@link CompletableFuture} completing with the per-document results once all are written or failed.
+   */
+  @Stability.Volatile
+  public CompletableFuture<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts many full documents at once with custom options.
+   *
+   * <p>The options are applied to every document. Note that the legacy durability options (persistTo and
+   * replicateTo) are not supported for multi upserts, use the durability level instead.</p>
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @param options custom options to customize the upsert behavior.
+   * @return a {@link CompletableFuture} completing with the per-document results once all are written or failed.
+   */
+  @Stability.Volatile
+  public CompletableFuture<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents,
+                                                                    final UpsertOptions options) {
+    notNull(options, "UpsertOptions");
+    return MultiAccessor.upsertMulti(core, upsertMultiRequests(documents, options.build()));
+  }
+
+  /**
+   * Helper method to create the upsert requests for a multi upsert.
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @param opts custom options to customize the upsert behavior.
+   * @return the upsert requests, one per document.
+   */
+  @Stability.Internal
+  List<UpsertRequest> upsertMultiRequests(final Map<String, ?> documents, final UpsertOptions.Built opts) {
+    notNull(documents, "Documents");
+    if (opts.persistTo() != PersistTo.NONE || opts.replicateTo() != ReplicateTo.NONE) {
+      throw InvalidArgumentException.fromMessage("PersistTo and ReplicateTo are not supported with upsertMulti, "
+        + "use the durability level instead");
+    }
+
+    List<UpsertRequest> requests = new ArrayList<>(documents.size());
+    for (Map.Entry<String, ?> document : documents.entrySet()) {
+      requests.add(upsertRequest(document.getKey(), document.getValue(), opts));
+    }
+    return requests;
+  }
+
   /**
    * Replaces a full document which already exists with default options.
    *
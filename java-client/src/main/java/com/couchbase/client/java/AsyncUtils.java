@@ -16,11 +16,22 @@
 
 package com.couchbase.client.java;
 
+import com.couchbase.client.core.annotation.Stability;
+import reactor.core.publisher.Flux;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 public class AsyncUtils {
+
+  /**
+   * The number of rows requested (and buffered) at a time when streaming results into a blocking {@link Stream}.
+   */
+  @Stability.Internal
+  public static final int STREAM_BATCH_SIZE = 128;
+
   private AsyncUtils() {
     throw new AssertionError("not instantiable");
   }
@@ -58,4 +69,19 @@ public class AsyncUtils {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Helper method to consume the rows of a streaming result through a blocking {@link Stream}.
+   * <p>
+   * Only {@link #STREAM_BATCH_SIZE} rows are requested at a time, so the demand reaches the chunk parser and reading
+   * from the network is paused until the caller consumed them. Closing the stream cancels the rows.
+   *
+   * @param rows the rows to consume.
+   * @param <T> the generic type of the rows.
+   * @return the lazily populated stream, which needs to be closed if it is not fully consumed.
+   */
+  @Stability.Internal
+  public static <T> Stream<T> toBlockingStream(final Flux<T> rows) {
+    return rows.toStream(STREAM_BATCH_SIZE);
+  }
 }
@@ -29,6 +29,7 @@ import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.core.msg.search.SearchRequest;
 import com.couchbase.client.java.analytics.AnalyticsOptions;
 import com.couchbase.client.java.analytics.AnalyticsResult;
+import com.couchbase.client.java.analytics.StreamingAnalyticsResult;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.diagnostics.PingOptions;
 import com.couchbase.client.java.diagnostics.WaitUntilReadyOptions;
@@ -40,9 +41,11 @@ import com.couchbase.client.java.manager.search.SearchIndexManager;
 import com.couchbase.client.java.manager.user.UserManager;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.StreamingQueryResult;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
+import com.couchbase.client.java.search.result.StreamingSearchResult;
 
 import java.time.Duration;
 import java.util.Map;
@@ -393,6 +396,25 @@ public class Cluster {
     return block(async().query(statement, options));
   }
 
+  /**
+   * Performs a query against the query (N1QL) services with custom options and streams the rows instead of
+   * buffering them.
+   * <p>
+   * As opposed to {@link #query(String, QueryOptions)}, the rows are not buffered in memory up front: only a small
+   * batch is requested at a time, and reading from the network is paused until the caller consumed it. See
+   * {@link StreamingQueryResult} on how the rows are back-pressured and why the result needs to be closed.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingQueryResult} once the response starts arriving successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Uncommitted
+  public StreamingQueryResult queryStream(final String statement, final QueryOptions options) {
+    return block(async().queryStream(statement, options));
+  }
+
   /**
    * Performs an analytics query with default {@link AnalyticsOptions}.
    *
@@ -418,6 +440,22 @@ public class Cluster {
     return block(async().analyticsQuery(statement, options));
   }
 
+  /**
+   * Performs an analytics query with custom {@link AnalyticsOptions} and streams the rows instead of buffering them.
+   * <p>
+   * See {@link StreamingAnalyticsResult} on how the rows are back-pressured and why the result needs to be closed.
+   *
+   * @param statement the query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingAnalyticsResult} once the response starts arriving successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Uncommitted
+  public StreamingAnalyticsResult analyticsQueryStream(final String statement, final AnalyticsOptions options) {
+    return block(async().analyticsQueryStream(statement, options));
+  }
+
   /**
    * Performs a Full Text Search (FTS) query with default {@link SearchOptions}.
    *
@@ -443,6 +481,25 @@ public class Cluster {
     return block(asyncCluster.searchQuery(indexName, query, options));
   }
 
+  /**
+   * Performs a Full Text Search (FTS) query with custom {@link SearchOptions} and streams the hits instead of
+   * buffering them.
+   * <p>
+   * See {@link StreamingSearchResult} on how the hits are back-pressured and why the result needs to be closed.
+   *
+   * @param indexName the name of the search index to use.
+   * @param query the query, in the form of a {@link SearchQuery}
+   * @param options the custom options for this query.
+   * @return the {@link StreamingSearchResult} once the response starts arriving successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Uncommitted
+  public StreamingSearchResult searchQueryStream(final String indexName, final SearchQuery query,
+                                                 final SearchOptions options) {
+    return block(asyncCluster.searchQueryStream(indexName, query, options));
+  }
+
   /**
    * Opens a {@link Bucket} with the given name.
    *
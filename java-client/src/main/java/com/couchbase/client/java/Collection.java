@@ -48,6 +48,7 @@ import com.couchbase.client.java.kv.MapOptions;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.QueueOptions;
 import com.couchbase.client.java.kv.RemoveOptions;
@@ -198,6 +199,35 @@ public class Collection {
     return block(async().get(id, options));
   }
 
+  /**
+   * Fetches many full documents from this collection at once.
+   *
+   * <p>Documents which could not be loaded (i.e. because they do not exist) are reported through
+   * {@link MultiResult#errors()} instead of failing the whole operation.</p>
+   *
+   * @param ids the document ids to fetch.
+   * @return a {@link MultiResult} with the per-document results once all have been loaded or failed.
+   */
+  @Stability.Volatile
+  public MultiResult<GetResult> getMulti(final java.util.Collection<String> ids) {
+    return block(async().getMulti(ids));
+  }
+
+  /**
+   * Fetches many full documents from this collection at once with custom options.
+   *
+   * <p>Documents which could not be loaded (i.e. because they do not exist) are reported through
+   * {@link MultiResult#errors()} instead of failing the whole operation.</p>
+   *
+   * @param ids the document ids to fetch.
+   * @param options options to customize the get requests.
+   * @return a {@link MultiResult} with the per-document results once all have been loaded or failed.
+   */
+  @Stability.Volatile
+  public MultiResult<GetResult> getMulti(final java.util.Collection<String> ids, final GetOptions options) {
+    return block(async().getMulti(ids, options));
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration.
    * <p>
@@ -431,6 +461,35 @@ public class Collection {
     return block(async().upsert(id, content, options));
   }
 
+  /**
+   * Upserts many full documents into this collection at once.
+   *
+   * <p>Documents which could not be written are reported through {@link MultiResult#errors()} instead of
+   * failing the whole operation.</p>
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @return a {@link MultiResult} with the per-document results once all have been written or failed.
+   */
+  @Stability.Volatile
+  public MultiResult<MutationResult> upsertMulti(final Map<String, ?> documents) {
+    return block(async().upsertMulti(documents));
+  }
+
+  /**
+   * Upserts many full documents into this collection at once with custom options.
+   *
+   * <p>Documents which could not be written are reported through {@link MultiResult#errors()} instead of
+   * failing the whole operation.</p>
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @param options options to customize the upsert requests.
+   * @return a {@link MultiResult} with the per-document results once all have been written or failed.
+   */
+  @Stability.Volatile
+  public MultiResult<MutationResult> upsertMulti(final Map<String, ?> documents, final UpsertOptions options) {
+    return block(async().upsertMulti(documents, options));
+  }
+
   /**
    * Replaces a full document which already exists.
    *
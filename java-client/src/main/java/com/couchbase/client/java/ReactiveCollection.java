@@ -61,6 +61,8 @@ import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.MultiAccessor;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
@@ -78,6 +80,8 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -228,7 +232,11 @@ public class ReactiveCollection {
 
       if (opts.projections().isEmpty() && !opts.withExpiry()) {
         GetRequest request = asyncCollection.fullGetRequest(id, opts);
-        return Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
+        // cancelling the active request of a hedged read also cancels the hedge, if any
+        CompletableFuture<GetResult> response = opts.hedge()
+          ? asyncCollection.hedgedGet(id, request, opts, transcoder)
+          : GetAccessor.get(core, request, transcoder);
+        return Reactor.wrap(request, response, true);
       } else {
         SubdocGetRequest request = asyncCollection.subdocGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.subdocGet(core, request, transcoder), true);
@@ -236,6 +244,40 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Fetches many full documents at once with default options.
+   *
+   * @param ids the document ids to fetch.
+   * @return a {@link Mono} completing with the per-document results once all are loaded or failed.
+   */
+  @Stability.Volatile
+  public Mono<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches many full documents at once with custom options.
+   *
+   * <p>The options are applied to every document. Note that projections and fetching the expiry are not
+   * supported for multi gets.</p>
+   *
+   * @param ids the document ids to fetch.
+   * @param options custom options to change the default behavior.
+   * @return a {@link Mono} completing with the per-document results once all are loaded or failed.
+   */
+  @Stability.Volatile
+  public Mono<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids, final GetOptions options) {
+    return Mono.defer(() -> {
+      notNull(options, "GetOptions");
+      GetOptions.Built opts = options.build();
+      final Transcoder transcoder = opts.transcoder() == null ? environment().transcoder() : opts.transcoder();
+      List<GetRequest> requests = asyncCollection.getMultiRequests(ids, opts);
+      return Reactor
+        .toMono(() -> MultiAccessor.getMulti(core, requests, transcoder))
+        .doOnCancel(() -> MultiAccessor.cancel(requests));
+    });
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    * <p>
@@ -508,6 +550,39 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Upserts many full documents at once with default options.
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @return a {@link Mono} completing with the per-document results once all are written or failed.
+   */
+  @Stability.Volatile
+  public Mono<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts many full documents at once with custom options.
+   *
+   * <p>The options are applied to every document. Note that the legacy durability options (persistTo and
+   * replicateTo) are not supported for multi upserts, use the durability level instead.</p>
+   *
+   * @param documents the document contents to upsert, keyed by document id.
+   * @param options custom options to customize the upsert behavior.
+   * @return a {@link Mono} completing with the per-document results once all are written or failed.
+   */
+  @Stability.Volatile
+  public Mono<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents,
+                                                       final UpsertOptions options) {
+    return Mono.defer(() -> {
+      notNull(options, "UpsertOptions");
+      List<UpsertRequest> requests = asyncCollection.upsertMultiRequests(documents, options.build());
+      return Reactor
+        .toMono(() -> MultiAccessor.upsertMulti(core, requests))
+        .doOnCancel(() -> MultiAccessor.cancel(requests));
+    });
+  }
+
   /**
    * Replaces a full document which already exists with default options.
    *
@@ -51,6 +51,12 @@ public class AnalyticsAccessor {
     return analyticsQueryInternal(core, request).map(r -> new ReactiveAnalyticsResult(r, serializer));
   }
 
+  public static CompletableFuture<StreamingAnalyticsResult> analyticsQueryStreaming(final Core core,
+                                                                                   final AnalyticsRequest request,
+                                                                                   final JsonSerializer serializer) {
+    return analyticsQueryReactive(core, request, serializer).map(StreamingAnalyticsResult::new).toFuture();
+  }
+
   private static Mono<AnalyticsResponse> analyticsQueryInternal(final Core core, final AnalyticsRequest request) {
     core.send(request);
     return Reactor
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.analytics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.java.codec.TypeRef;
+import com.couchbase.client.java.json.JsonObject;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.couchbase.client.java.AsyncUtils.toBlockingStream;
+
+/**
+ * The result of an analytics query where the rows are streamed instead of buffered.
+ * <p>
+ * Only a small batch of rows is requested at a time, and reading from the network is paused until the caller
+ * consumed it, so arbitrarily large results can be processed with constant memory. The rows can only be consumed
+ * once, and the {@link #metaData()} only completes after all rows have been consumed (since it is sent by the server
+ * after the rows).
+ * <p>
+ * This result MUST be closed (i.e. through try-with-resources) if the rows are not fully consumed, otherwise the
+ * underlying response keeps occupying its connection.
+ *
+ * @since 3.1.0
+ */
+@Stability.Uncommitted
+public class StreamingAnalyticsResult implements AutoCloseable {
+
+  /**
+   * The underlying reactive result which streams the rows.
+   */
+  private final ReactiveAnalyticsResult result;
+
+  /**
+   * Set once the rows have been subscribed to, either by consuming or by closing.
+   */
+  private final AtomicBoolean rowsSubscribed = new AtomicBoolean(false);
+
+  /**
+   * The stream handed out to the user, if any.
+   */
+  private volatile Stream<?> rows;
+
+  /**
+   * Creates a new StreamingAnalyticsResult.
+   *
+   * @param result the underlying reactive result.
+   */
+  StreamingAnalyticsResult(final ReactiveAnalyticsResult result) {
+    this.result = result;
+  }
+
+  /**
+   * Returns a stream of all rows, converted into instances of the target class.
+   *
+   * @param target the target class to deserialize into.
+   * @return the lazily populated stream of rows.
+   * @throws DecodingFailureException if any row could not be successfully deserialized (while consuming).
+   * @throws IllegalStateException if the rows have already been consumed or the result has been closed.
+   */
+  public <T> Stream<T> rowsAs(final Class<T> target) {
+    return stream(result.rowsAs(target));
+  }
+
+  /**
+   * Returns a stream of all rows, converted into instances of the target type.
+   *
+   * @param target the target type to deserialize into.
+   * @return the lazily populated stream of rows.
+   * @throws DecodingFailureException if any row could not be successfully deserialized (while consuming).
+   * @throws IllegalStateException if the rows have already been consumed or the result has been closed.
+   */
+  public <T> Stream<T> rowsAs(final TypeRef<T> target) {
+    return stream(result.rowsAs(target));
+  }
+
+  /**
+   * Returns a stream of all rows, converted into {@link JsonObject}s.
+   *
+   * @return the lazily populated stream of rows.
+   * @throws DecodingFailureException if any row could not be successfully deserialized (while consuming).
+   * @throws IllegalStateException if the rows have already been consumed or the result has been closed.
+   */
+  public Stream<JsonObject> rowsAsObject() {
+    return rowsAs(JsonObject.class);
+  }
+
+  /**
+   * Returns the {@link AnalyticsMetaData} once all rows have been consumed and the trailer has arrived.
+   */
+  public CompletableFuture<AnalyticsMetaData> metaData() {
+    return result.metaData().toFuture();
+  }
+
+  /**
+   * Stops streaming the rows if they have not been consumed completely and releases the underlying response.
+   */
+  @Override
+  public void close() {
+    if (rowsSubscribed.compareAndSet(false, true)) {
+      // nobody consumed the rows, so cancel them right away (without decoding) to stop buffering
+      result.rowsAsObject().take(0).subscribe();
+    } else {
+      Stream<?> rows = this.rows;
+      if (rows != null) {
+        rows.close();
+      }
+    }
+  }
+
+  private <T> Stream<T> stream(final Flux<T> source) {
+    if (!rowsSubscribed.compareAndSet(false, true)) {
+      throw new IllegalStateException("The rows of a streaming result can only be consumed once");
+    }
+    Stream<T> stream = toBlockingStream(source);
+    this.rows = stream;
+    return stream;
+  }
+
+  @Override
+  public String toString() {
+    return "StreamingAnalyticsResult{" +
+      "rowsSubscribed=" + rowsSubscribed.get() +
+      '}';
+  }
+}
@@ -18,6 +18,7 @@ package com.couchbase.client.java.env;
 
 import com.couchbase.client.core.encryption.CryptoManager;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.java.ClusterOptions;
 import com.couchbase.client.java.codec.DefaultJsonSerializer;
 import com.couchbase.client.java.codec.JacksonJsonSerializer;
@@ -44,15 +45,22 @@ import static com.couchbase.client.core.util.Validators.notNull;
  */
 public class ClusterEnvironment extends CoreEnvironment {
 
+  /**
+   * The maximum number of prepared statements kept in the cache by default.
+   */
+  public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 5000;
+
   private final JsonSerializer jsonSerializer;
   private final Transcoder transcoder;
   private final Optional<CryptoManager> cryptoManager;
+  private final int preparedStatementCacheSize;
 
   private ClusterEnvironment(Builder builder) {
     super(builder);
     this.jsonSerializer = defaultIfNull(builder.jsonSerializer, () -> newDefaultSerializer(builder.cryptoManager));
     this.transcoder = defaultIfNull(builder.transcoder, () -> JsonTranscoder.create(jsonSerializer));
     this.cryptoManager = Optional.ofNullable(builder.cryptoManager);
+    this.preparedStatementCacheSize = builder.preparedStatementCacheSize;
   }
 
   /**
@@ -136,11 +144,19 @@ public class ClusterEnvironment extends CoreEnvironment {
     return cryptoManager;
   }
 
+  /**
+   * Returns the maximum number of prepared N1QL statements kept in the cache.
+   */
+  public int preparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
   public static class Builder extends CoreEnvironment.Builder<Builder> {
 
     private JsonSerializer jsonSerializer;
     private Transcoder transcoder;
     private CryptoManager cryptoManager;
+    private int preparedStatementCacheSize = DEFAULT_PREPARED_STATEMENT_CACHE_SIZE;
 
     Builder() {
       super();
@@ -203,6 +219,23 @@ public class ClusterEnvironment extends CoreEnvironment {
       return this;
     }
 
+    /**
+     * Customizes the maximum number of prepared N1QL statements kept in the cache.
+     * <p>
+     * Once the capacity is exceeded, the least recently used statements are evicted and need to be prepared
+     * again on their next use.
+     *
+     * @param preparedStatementCacheSize the maximum number of cached statements, needs to be greater than 0.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder preparedStatementCacheSize(final int preparedStatementCacheSize) {
+      if (preparedStatementCacheSize <= 0) {
+        throw InvalidArgumentException.fromMessage("The prepared statement cache size needs to be greater than 0");
+      }
+      this.preparedStatementCacheSize = preparedStatementCacheSize;
+      return this;
+    }
+
     /**
      * Turns this builder into a real {@link ClusterEnvironment}.
      *
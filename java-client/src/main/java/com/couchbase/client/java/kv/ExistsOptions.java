@@ -21,6 +21,11 @@ import com.couchbase.client.java.CommonOptions;
 
 public class ExistsOptions extends CommonOptions<ExistsOptions> {
 
+  /**
+   * Reused by {@link #build()}, see {@link GetOptions} for the rationale.
+   */
+  private final Built built = new Built();
+
   public static ExistsOptions existsOptions() {
     return new ExistsOptions();
   }
@@ -29,7 +34,7 @@ public class ExistsOptions extends CommonOptions<ExistsOptions> {
 
   @Stability.Internal
   public Built build() {
-    return new Built();
+    return built;
   }
 
   @Stability.Internal
@@ -21,10 +21,12 @@ import com.couchbase.client.java.CommonOptions;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.json.JsonObject;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.couchbase.client.core.util.CbStrings.isNullOrEmpty;
@@ -40,6 +42,12 @@ import static java.util.Collections.singletonList;
  */
 public class GetOptions extends CommonOptions<GetOptions> {
 
+  /**
+   * The built view only reads the fields of these options, so it is created once and handed out on every
+   * {@link #build()} (which avoids an allocation per operation when the same options are reused).
+   */
+  private final Built built = new Built();
+
   /**
    * If the expiration should also fetched with a get.
    */
@@ -50,6 +58,16 @@ public class GetOptions extends CommonOptions<GetOptions> {
    */
   private List<String> projections;
 
+  /**
+   * If the read should be hedged against a replica.
+   */
+  private boolean hedge;
+
+  /**
+   * The fixed delay before a hedge is sent, null if the dynamic delay should be used.
+   */
+  private Duration hedgeDelay;
+
   /**
    * Creates a new set of {@link GetOptions} with a {@link JsonObject} target.
    *
@@ -130,9 +148,47 @@ public class GetOptions extends CommonOptions<GetOptions> {
     return this;
   }
 
+  /**
+   * Hedges the read against a replica if the active did not respond within a dynamic delay.
+   * <p>
+   * The delay follows the p95 latency of previous hedged reads on the same collection, so only the slowest reads
+   * are hedged. See {@link #hedge(Duration)} for the details and caveats.
+   *
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions hedge() {
+    this.hedge = true;
+    this.hedgeDelay = null;
+    return this;
+  }
+
+  /**
+   * Hedges the read against a replica if the active did not respond within the given delay.
+   * <p>
+   * Once the delay passed, a single get is sent to one of the replicas and whichever response arrives first is
+   * returned, while the other request is cancelled. If the active responds with an error before the replica
+   * responded, the error is returned. Note that the replica might lag behind the active, so a hedged read can
+   * return a slightly stale document.
+   * <p>
+   * To make sure hedging does not overload the cluster when it is slow anyways, at most 5% of the hedge-enabled
+   * reads are hedged. Hedging only applies to full document fetches (no projections or expiry) on buckets with
+   * at least one replica configured, and the delay is subject to the granularity of the SDK timer.
+   *
+   * @param delay the delay after which the hedge is sent.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions hedge(final Duration delay) {
+    notNull(delay, "Hedge Delay");
+    this.hedge = true;
+    this.hedgeDelay = delay;
+    return this;
+  }
+
   @Stability.Internal
   public Built build() {
-    return new Built();
+    return built;
   }
 
   @Stability.Internal
@@ -152,6 +208,14 @@ public class GetOptions extends CommonOptions<GetOptions> {
       return transcoder;
     }
 
+    public boolean hedge() {
+      return hedge;
+    }
+
+    public Optional<Duration> hedgeDelay() {
+      return Optional.ofNullable(hedgeDelay);
+    }
+
   }
 
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the budget and the dynamic delay for hedged reads (see {@link GetOptions#hedge()}).
+ * <p>
+ * Every hedge-enabled read earns a fraction of a hedge, and every hedge sent spends a full one, so over time the
+ * number of hedges stays below the configured ratio of reads (with a small burst allowance). The dynamic delay is
+ * an online estimate of the p95 latency of the reads against the active, so only the slowest reads get hedged.
+ *
+ * @since 3.1.0
+ */
+@Stability.Internal
+public class HedgedReadTracker {
+
+  /**
+   * By default at most 5% of the reads can be hedged.
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+  /**
+   * By default at most 10 hedges can be sent in a burst.
+   */
+  public static final int DEFAULT_MAX_BURST = 10;
+
+  /**
+   * The quantile the dynamic delay estimates.
+   */
+  private static final double QUANTILE = 0.95;
+
+  /**
+   * The dynamic delay before the first samples arrived.
+   */
+  private static final long INITIAL_DELAY_MICROS = TimeUnit.MILLISECONDS.toMicros(10);
+
+  /**
+   * The dynamic delay never goes below this, so that fast reads are never hedged right away.
+   */
+  private static final long MIN_DELAY_MICROS = 500;
+
+  /**
+   * The budget is accounted in thousandths of a hedge so it can be kept in a single long.
+   */
+  private static final long MILLIS_PER_HEDGE = 1000;
+
+  private final long earnedPerRead;
+  private final long maxBudget;
+  private final AtomicLong budget;
+  private volatile long delayEstimateMicros = INITIAL_DELAY_MICROS;
+
+  /**
+   * Creates a new tracker with the default budget.
+   */
+  public HedgedReadTracker() {
+    this(DEFAULT_BUDGET_RATIO, DEFAULT_MAX_BURST);
+  }
+
+  /**
+   * Creates a new tracker with a custom budget.
+   *
+   * @param budgetRatio the maximum ratio of hedges to reads, between 0 and 1.
+   * @param maxBurst the maximum number of hedges which can be sent in a burst.
+   */
+  public HedgedReadTracker(final double budgetRatio, final int maxBurst) {
+    if (budgetRatio < 0 || budgetRatio > 1) {
+      throw new IllegalArgumentException("The budget ratio needs to be between 0 and 1");
+    }
+    if (maxBurst < 1) {
+      throw new IllegalArgumentException("The maximum burst needs to be greater than 0");
+    }
+    this.earnedPerRead = Math.round(budgetRatio * MILLIS_PER_HEDGE);
+    this.maxBudget = maxBurst * MILLIS_PER_HEDGE;
+    this.budget = new AtomicLong(0);
+  }
+
+  /**
+   * Records a hedge-enabled read, which earns its share of the hedge budget.
+   */
+  public void recordRead() {
+    long current;
+    do {
+      current = budget.get();
+      if (current >= maxBudget) {
+        return;
+      }
+    } while (!budget.compareAndSet(current, Math.min(maxBudget, current + earnedPerRead)));
+  }
+
+  /**
+   * Tries to spend a hedge from the budget.
+   *
+   * @return true if a hedge can be sent, false if the budget is exhausted.
+   */
+  public boolean tryAcquireHedge() {
+    long current;
+    do {
+      current = budget.get();
+      if (current < MILLIS_PER_HEDGE) {
+        return false;
+      }
+    } while (!budget.compareAndSet(current, current - MILLIS_PER_HEDGE));
+    return true;
+  }
+
+  /**
+   * Feeds the latency of a completed read against the active into the dynamic delay estimate.
+   * <p>
+   * The estimate takes a small step up if the sample is above it and an even smaller one down if not, so it settles
+   * where 95% of the samples are below. Concurrent updates may overwrite each other, which is fine for an estimate
+   * and keeps this off any lock on the read path.
+   *
+   * @param latencyNanos the latency of the read.
+   */
+  public void recordLatency(final long latencyNanos) {
+    long estimate = delayEstimateMicros;
+    long sample = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+    long step = Math.max(1, estimate / 32);
+    if (sample > estimate) {
+      estimate += Math.max(1, Math.round(step * QUANTILE));
+    } else {
+      estimate -= Math.max(1, Math.round(step * (1 - QUANTILE)));
+    }
+    delayEstimateMicros = Math.max(MIN_DELAY_MICROS, estimate);
+  }
+
+  /**
+   * Returns the current dynamic delay, which estimates the p95 latency of reads.
+   */
+  public Duration dynamicDelay() {
+    return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(delayEstimateMicros));
+  }
+
+  @Override
+  public String toString() {
+    return "HedgedReadTracker{" +
+      "budget=" + (budget.get() / (double) MILLIS_PER_HEDGE) +
+      ", dynamicDelay=" + dynamicDelay() +
+      '}';
+  }
+
+}
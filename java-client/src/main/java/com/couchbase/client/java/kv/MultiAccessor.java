@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
+import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.java.codec.Transcoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static com.couchbase.client.core.error.DefaultErrorUtil.keyValueStatusToException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Dispatches many KV requests at once and collects their outcome into a single {@link MultiResult}.
+ *
+ * <p>The requests are sorted by their target node and partition before they are sent, so that the requests
+ * for each node are handed off to its endpoints in one burst and end up being written (and flushed) together.
+ * Only a single callback per request is registered, which aggregates into one shared future.</p>
+ */
+@Stability.Internal
+public enum MultiAccessor {
+  ;
+
+  /**
+   * Dispatches all get requests and collects their results.
+   *
+   * @param core the core reference to dispatch into.
+   * @param requests the requests to dispatch.
+   * @param transcoder the transcoder used to decode the response bodies.
+   * @return a {@link CompletableFuture} which completes once all documents have been fetched (or failed).
+   */
+  public static CompletableFuture<MultiResult<GetResult>> getMulti(final Core core, final List<GetRequest> requests,
+                                                                   final Transcoder transcoder) {
+    return dispatch(core, requests, (GetRequest request, GetResponse response) -> {
+      if (response.status().success()) {
+        return new GetResult(response.content(), response.flags(), response.cas(), Optional.empty(), transcoder);
+      }
+      throw keyValueStatusToException(request, response);
+    });
+  }
+
+  /**
+   * Dispatches all upsert requests and collects their results.
+   *
+   * @param core the core reference to dispatch into.
+   * @param requests the requests to dispatch.
+   * @return a {@link CompletableFuture} which completes once all documents have been written (or failed).
+   */
+  public static CompletableFuture<MultiResult<MutationResult>> upsertMulti(final Core core,
+                                                                          final List<UpsertRequest> requests) {
+    return dispatch(core, requests, (UpsertRequest request, UpsertResponse response) -> {
+      if (response.status().success()) {
+        return new MutationResult(response.cas(), response.mutationToken());
+      }
+      throw keyValueStatusToException(request, response);
+    });
+  }
+
+  /**
+   * Cancels all requests which are still in-flight, i.e. if the caller is not interested in the result anymore.
+   *
+   * @param requests the requests to cancel.
+   */
+  public static void cancel(final List<? extends KeyValueRequest<?>> requests) {
+    for (KeyValueRequest<?> request : requests) {
+      request.cancel(CancellationReason.STOPPED_LISTENING);
+    }
+  }
+
+  private static <REQ extends KeyValueRequest<RES>, RES extends Response, T> CompletableFuture<MultiResult<T>>
+  dispatch(final Core core, final List<REQ> requests, final BiFunction<REQ, RES, T> converter) {
+    final CompletableFuture<MultiResult<T>> result = new CompletableFuture<>();
+    if (requests.isEmpty()) {
+      result.complete(new MultiResult<>(Collections.emptyMap(), Collections.emptyMap()));
+      return result;
+    }
+
+    final Map<String, T> results = new ConcurrentHashMap<>(requests.size());
+    final Map<String, Throwable> errors = new ConcurrentHashMap<>();
+    final AtomicInteger remaining = new AtomicInteger(requests.size());
+
+    for (REQ request : inDispatchOrder(core.clusterConfig(), requests)) {
+      request.response().whenComplete((response, throwable) -> {
+        String id = new String(request.key(), UTF_8);
+        try {
+          if (throwable != null) {
+            errors.put(id, throwable instanceof CompletionException ? throwable.getCause() : throwable);
+          } else {
+            results.put(id, converter.apply(request, response));
+          }
+        } catch (Throwable t) {
+          errors.put(id, t);
+        }
+        request.context().logicallyComplete();
+
+        if (remaining.decrementAndGet() == 0) {
+          result.complete(new MultiResult<>(results, errors));
+        }
+      });
+      core.send(request);
+    }
+    return result;
+  }
+
+  /**
+   * Sorts the requests by their active node and then by partition, if the bucket config is available.
+   *
+   * <p>The node index, partition and original position are packed into a single long per request, so sorting
+   * does not need any boxing or comparators.</p>
+   *
+   * @param clusterConfig the current cluster config.
+   * @param requests the requests to sort.
+   * @return the requests in the order they should be dispatched.
+   */
+  static <REQ extends KeyValueRequest<?>> List<REQ> inDispatchOrder(final ClusterConfig clusterConfig,
+                                                                    final List<REQ> requests) {
+    BucketConfig config = clusterConfig == null ? null : clusterConfig.bucketConfig(requests.get(0).bucket());
+    if (!(config instanceof CouchbaseBucketConfig) || requests.size() < 2) {
+      return requests;
+    }
+
+    CouchbaseBucketConfig cbc = (CouchbaseBucketConfig) config;
+    int numPartitions = cbc.numberOfPartitions();
+    if (numPartitions == 0) {
+      return requests;
+    }
+
+    long[] order = new long[requests.size()];
+    for (int i = 0; i < order.length; i++) {
+      int partition = KeyValueLocator.partitionForKey(requests.get(i).key(), numPartitions);
+      int node = cbc.nodeIndexForActive(partition, false) & 0x7FFF;
+      order[i] = ((long) node << 48) | ((long) partition << 32) | i;
+    }
+    Arrays.sort(order);
+
+    List<REQ> sorted = new ArrayList<>(order.length);
+    for (long o : order) {
+      sorted.add(requests.get((int) o));
+    }
+    return sorted;
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds the per-document outcome of a multi operation (i.e. a multi get or multi upsert).
+ *
+ * <p>Every document id passed into the operation is either present in the {@link #results()} if the operation
+ * succeeded, or in the {@link #errors()} with the exception that would have been raised by the single document
+ * variant (i.e. a {@link com.couchbase.client.core.error.DocumentNotFoundException} on a get).</p>
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class MultiResult<T> {
+
+  private final Map<String, T> results;
+  private final Map<String, Throwable> errors;
+
+  MultiResult(final Map<String, T> results, final Map<String, Throwable> errors) {
+    this.results = Collections.unmodifiableMap(results);
+    this.errors = Collections.unmodifiableMap(errors);
+  }
+
+  /**
+   * Returns the results of all documents which completed successfully, keyed by document id.
+   */
+  public Map<String, T> results() {
+    return results;
+  }
+
+  /**
+   * Returns the errors of all documents which failed, keyed by document id.
+   */
+  public Map<String, Throwable> errors() {
+    return errors;
+  }
+
+  /**
+   * Returns the result for the given document id if it completed successfully.
+   *
+   * @param id the document id.
+   * @return the result if present, empty if the document failed or was not part of the operation.
+   */
+  public Optional<T> get(final String id) {
+    return Optional.ofNullable(results.get(id));
+  }
+
+  /**
+   * Returns true if all documents completed successfully.
+   */
+  public boolean successful() {
+    return errors.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "MultiResult{" +
+      "results=" + results +
+      ", errors=" + errors +
+      '}';
+  }
+
+}
@@ -21,6 +21,11 @@ import com.couchbase.client.core.error.CasMismatchException;
 
 public class RemoveOptions extends CommonDurabilityOptions<RemoveOptions> {
 
+  /**
+   * Reused by {@link #build()}, see {@link GetOptions} for the rationale.
+   */
+  private final Built built = new Built();
+
   private long cas;
 
   private RemoveOptions() { }
@@ -51,7 +56,7 @@ public class RemoveOptions extends CommonDurabilityOptions<RemoveOptions> {
 
   @Stability.Internal
   public Built build() {
-    return new Built();
+    return built;
   }
 
   public class Built extends BuiltCommonDurabilityOptions {
@@ -27,6 +27,11 @@ import static com.couchbase.client.core.util.Validators.notNull;
 
 public class ReplaceOptions extends CommonDurabilityOptions<ReplaceOptions> {
 
+  /**
+   * Reused by {@link #build()}, see {@link GetOptions} for the rationale.
+   */
+  private final Built built = new Built();
+
   private Expiry expiry = Expiry.none();
   private Transcoder transcoder;
   private long cas;
@@ -103,7 +108,7 @@ public class ReplaceOptions extends CommonDurabilityOptions<ReplaceOptions> {
 
   @Stability.Internal
   public Built build() {
-    return new Built();
+    return built;
   }
 
   public class Built extends BuiltCommonDurabilityOptions {
@@ -26,6 +26,11 @@ import static com.couchbase.client.core.util.Validators.notNull;
 
 public class UpsertOptions extends CommonDurabilityOptions<UpsertOptions> {
 
+  /**
+   * Reused by {@link #build()}, see {@link GetOptions} for the rationale.
+   */
+  private final Built built = new Built();
+
   private Expiry expiry = Expiry.none();
   private Transcoder transcoder;
 
@@ -82,7 +87,7 @@ public class UpsertOptions extends CommonDurabilityOptions<UpsertOptions> {
 
   @Stability.Internal
   public Built build() {
-    return new Built();
+    return built;
   }
 
   public class Built extends BuiltCommonDurabilityOptions {
@@ -30,19 +30,19 @@ import com.couchbase.client.core.msg.query.QueryRequest;
 import com.couchbase.client.core.msg.query.QueryResponse;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
-import com.couchbase.client.core.util.LRUCache;
+import com.couchbase.client.core.util.ConcurrentLRUCache;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.json.JsonObject;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 import static com.couchbase.client.core.retry.RetryOrchestrator.capDuration;
@@ -61,16 +61,15 @@ import static com.couchbase.client.java.query.QueryOptions.queryOptions;
 public class QueryAccessor {
 
     /**
-     * The maximum number of prepared queries that will be kept around if the cache is enabled.
+     * Holds the query cache.
      */
-    private static final int QUERY_CACHE_SIZE = 5000;
+    private final ConcurrentLRUCache<String, QueryCacheEntry> queryCache;
 
     /**
-     * Holds the query cache.
+     * Holds the PREPAREs currently in flight per statement, so concurrent requests for the same statement
+     * wait for the first one instead of all preparing it.
      */
-    private final Map<String, QueryCacheEntry> queryCache = Collections.synchronizedMap(
-      new LRUCache<>(QUERY_CACHE_SIZE)
-    );
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlightPrepares = new ConcurrentHashMap<>();
 
     private final Core core;
 
@@ -79,8 +78,9 @@ public class QueryAccessor {
      */
     private volatile boolean enhancedPreparedEnabled = false;
 
-    public QueryAccessor(final Core core) {
+    public QueryAccessor(final Core core, final int queryCacheSize) {
         this.core = core;
+        this.queryCache = new ConcurrentLRUCache<>(queryCacheSize);
 
         core
           .configurationProvider()
@@ -105,6 +105,14 @@ public class QueryAccessor {
         enhancedPreparedEnabled = caps != null && caps.contains(ClusterCapabilities.ENHANCED_PREPARED_STATEMENTS);
     }
 
+    /**
+     * Returns the prepared statement cache, which also exposes hit, miss and eviction counts.
+     */
+    @Stability.Internal
+    public ConcurrentLRUCache<String, ?> preparedStatementCache() {
+        return queryCache;
+    }
+
     /**
      * Performs a N1QL query and returns the result as a future.
      *
@@ -141,6 +149,19 @@ public class QueryAccessor {
         return queryInternal(request, options, options.adhoc(), serializer).map(r -> new ReactiveQueryResult(r, serializer));
     }
 
+    /**
+     * Performs a N1QL query and returns a result which streams the rows instead of buffering them.
+     *
+     * @param request the request to perform.
+     * @param options query options to use.
+     * @return the future once the response starts arriving.
+     */
+    public CompletableFuture<StreamingQueryResult> queryStreaming(final QueryRequest request,
+                                                                  final QueryOptions.Built options,
+                                                                  final JsonSerializer serializer) {
+        return queryReactive(request, options, serializer).map(StreamingQueryResult::new).toFuture();
+    }
+
     /**
      * Internal method to dispatch the request into the core and return it as a mono.
      *
@@ -172,19 +193,62 @@ public class QueryAccessor {
      * <p>The code also checks if the cache entry is still valid, to handle the upgrade scenario an potentially
      * flush the cache entry in this case to then execute with the newer approach.</p>
      *
+     * <p>If the same statement is already being prepared by another request, this request waits until the
+     * statement is cached and then executes it, instead of issuing its own PREPARE. If the other PREPARE fails,
+     * this request prepares the statement on its own.</p>
+     *
      * @param request the request to perform.
      * @param options query options to use.
      * @return the mono once the result is complete.
      */
     private Mono<QueryResponse> maybePrepareAndExecute(final QueryRequest request, final QueryOptions.Built options,
                                                        final JsonSerializer serializer) {
+        return maybePrepareAndExecute(request, options, serializer, true);
+    }
+
+    private Mono<QueryResponse> maybePrepareAndExecute(final QueryRequest request, final QueryOptions.Built options,
+                                                       final JsonSerializer serializer, final boolean deduplicate) {
         final QueryCacheEntry cacheEntry = queryCache.get(request.statement());
         boolean enhancedEnabled = enhancedPreparedEnabled;
 
         if (cacheEntry != null && cacheEntryStillValid(cacheEntry, enhancedEnabled)) {
             return queryInternal(buildExecuteRequest(cacheEntry, request, options), options, true, serializer)
                 .onErrorResume(new PreparedRetryFunction(request, options, serializer));
-        } else if (enhancedEnabled) {
+        } else if (!deduplicate) {
+            return prepareAndExecute(request, options, serializer, enhancedEnabled);
+        }
+
+        return Mono.defer(() -> {
+            final String statement = request.statement();
+            final CompletableFuture<Void> prepare = new CompletableFuture<>();
+            final CompletableFuture<Void> inFlight = inFlightPrepares.putIfAbsent(statement, prepare);
+
+            if (inFlight != null) {
+                // handle() gives us an independent stage, so cancelling this request does not affect the others
+                return Mono
+                  .fromFuture(inFlight.handle((v, t) -> v))
+                  .then(Mono.defer(() -> maybePrepareAndExecute(request, options, serializer, false)));
+            }
+
+            return prepareAndExecute(request, options, serializer, enhancedEnabled)
+              .doFinally(signalType -> {
+                  inFlightPrepares.remove(statement, prepare);
+                  prepare.complete(null);
+              });
+        });
+    }
+
+    /**
+     * Prepares the statement (and with enhanced prepared statements also executes it at the same time).
+     *
+     * @param request the request to perform.
+     * @param options query options to use.
+     * @param enhancedEnabled if enhanced prepared statements are enabled.
+     * @return the mono once the result is complete.
+     */
+    private Mono<QueryResponse> prepareAndExecute(final QueryRequest request, final QueryOptions.Built options,
+                                                  final JsonSerializer serializer, final boolean enhancedEnabled) {
+        if (enhancedEnabled) {
             return queryInternal(buildPrepareRequest(request, options), options, true, serializer)
               .flatMap(qr -> {
                   Optional<String> preparedName = qr.header().prepared();
@@ -193,17 +257,14 @@ public class QueryAccessor {
                         new CouchbaseException("No prepared name present but must be, this is a query bug!")
                       );
                   }
-                  queryCache.put(
-                    request.statement(),
-                    new QueryCacheEntry(false, null, preparedName.get())
-                  );
+                  prepared(request.statement(), new QueryCacheEntry(false, null, preparedName.get()));
                   return Mono.just(qr);
               });
         } else {
             return queryReactive(buildPrepareRequest(request, options), queryOptions().build(), serializer)
               .flatMap(result -> result.rowsAsObject().next())
               .map(row -> {
-                  queryCache.put(
+                  prepared(
                     request.statement(),
                     new QueryCacheEntry(
                       true,
@@ -217,6 +278,20 @@ public class QueryAccessor {
         }
     }
 
+    /**
+     * Stores the prepared statement in the cache and releases requests waiting for it.
+     *
+     * @param statement the statement which got prepared.
+     * @param entry the cache entry for the statement.
+     */
+    private void prepared(final String statement, final QueryCacheEntry entry) {
+        queryCache.put(statement, entry);
+        CompletableFuture<Void> inFlight = inFlightPrepares.remove(statement);
+        if (inFlight != null) {
+            inFlight.complete(null);
+        }
+    }
+
     /**
      * Builds the request to prepare a prepared statement.
      *
@@ -29,6 +29,9 @@ import java.util.List;
 
 /**
  * The result of a N1QL query, including rows and associated metadata.
+ * <p>
+ * All rows are buffered before the result is returned. To process large results without holding all rows in
+ * memory, use {@link com.couchbase.client.java.Cluster#queryStream(String, QueryOptions)} instead.
  *
  * @since 3.0.0
  */
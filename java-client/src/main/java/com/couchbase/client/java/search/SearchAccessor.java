@@ -34,6 +34,7 @@ import com.couchbase.client.java.search.result.SearchMetrics;
 import com.couchbase.client.java.search.result.SearchResult;
 import com.couchbase.client.java.search.result.SearchRow;
 import com.couchbase.client.java.search.result.SearchStatus;
+import com.couchbase.client.java.search.result.StreamingSearchResult;
 import com.couchbase.client.java.search.result.TermSearchFacetResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -87,6 +88,12 @@ public class SearchAccessor {
           .doFinally(signalType -> request.context().logicallyComplete());
     }
 
+    public static CompletableFuture<StreamingSearchResult> searchQueryStreaming(final Core core,
+                                                                                final SearchRequest request,
+                                                                                final JsonSerializer serializer) {
+        return searchQueryReactive(core, request, serializer).map(StreamingSearchResult::new).toFuture();
+    }
+
     private static Map<String, SearchFacetResult> parseFacets(final SearchChunkTrailer trailer) {
       byte[] rawFacets = trailer.facets();
       if (rawFacets == null || rawFacets.length == 0 || Arrays.equals(rawFacets, NULL)) {
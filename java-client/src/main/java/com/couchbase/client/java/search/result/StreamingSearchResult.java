@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.search.result;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.java.search.SearchMetaData;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.couchbase.client.java.AsyncUtils.toBlockingStream;
+
+/**
+ * The result of a search query where the hits are streamed instead of buffered.
+ * <p>
+ * Only a small batch of hits is requested at a time, and reading from the network is paused until the caller
+ * consumed it, so arbitrarily large results can be processed with constant memory. The hits can only be consumed
+ * once, and both the {@link #facets()} and the {@link #metaData()} only complete after all hits have been consumed
+ * (since they are sent by the server after the hits).
+ * <p>
+ * This result MUST be closed (i.e. through try-with-resources) if the hits are not fully consumed, otherwise the
+ * underlying response keeps occupying its connection.
+ *
+ * @since 3.1.0
+ */
+@Stability.Uncommitted
+public class StreamingSearchResult implements AutoCloseable {
+
+    /**
+     * The underlying reactive result which streams the hits.
+     */
+    private final ReactiveSearchResult result;
+
+    /**
+     * Set once the hits have been subscribed to, either by consuming or by closing.
+     */
+    private final AtomicBoolean rowsSubscribed = new AtomicBoolean(false);
+
+    /**
+     * The stream handed out to the user, if any.
+     */
+    private volatile Stream<SearchRow> rows;
+
+    /**
+     * Creates a new StreamingSearchResult.
+     *
+     * @param result the underlying reactive result.
+     */
+    @Stability.Internal
+    public StreamingSearchResult(final ReactiveSearchResult result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns a stream of all search hits.
+     *
+     * @return the lazily populated stream of hits.
+     * @throws IllegalStateException if the hits have already been consumed or the result has been closed.
+     */
+    public Stream<SearchRow> rows() {
+        if (!rowsSubscribed.compareAndSet(false, true)) {
+            throw new IllegalStateException("The rows of a streaming result can only be consumed once");
+        }
+        Stream<SearchRow> stream = toBlockingStream(result.rows());
+        this.rows = stream;
+        return stream;
+    }
+
+    /**
+     * Returns the facets (if any) once all hits have been consumed and the trailer has arrived.
+     */
+    public CompletableFuture<Map<String, SearchFacetResult>> facets() {
+        return result.facets().toFuture();
+    }
+
+    /**
+     * Returns the {@link SearchMetaData} once all hits have been consumed and the trailer has arrived.
+     */
+    public CompletableFuture<SearchMetaData> metaData() {
+        return result.metaData().toFuture();
+    }
+
+    /**
+     * Stops streaming the hits if they have not been consumed completely and releases the underlying response.
+     */
+    @Override
+    public void close() {
+        if (rowsSubscribed.compareAndSet(false, true)) {
+            // nobody consumed the hits, so cancel them right away (without decoding) to stop buffering
+            result.rows().take(0).subscribe();
+        } else {
+            Stream<SearchRow> rows = this.rows;
+            if (rows != null) {
+                rows.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingSearchResult{" +
+          "rowsSubscribed=" + rowsSubscribed.get() +
+          '}';
+    }
+}
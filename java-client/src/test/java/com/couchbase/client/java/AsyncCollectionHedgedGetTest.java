@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
+import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.HedgedReadTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.couchbase.client.java.kv.GetOptions.getOptions;
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how hedged reads in the {@link AsyncCollection} race the active against a replica.
+ */
+class AsyncCollectionHedgedGetTest {
+
+  private static final Duration HEDGE_DELAY = Duration.ofMillis(1);
+
+  private static ClusterEnvironment ENVIRONMENT;
+
+  private AsyncCollection collection;
+  private List<GetRequest> sent;
+
+  @BeforeAll
+  static void beforeAll() {
+    ENVIRONMENT = ClusterEnvironment.create();
+  }
+
+  @AfterAll
+  static void afterAll() {
+    ENVIRONMENT.shutdown();
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    sent = new CopyOnWriteArrayList<>();
+    Core core = mock(Core.class);
+    CoreContext coreContext = new CoreContext(core, 1, ENVIRONMENT, mock(Authenticator.class));
+    when(core.context()).thenReturn(coreContext);
+    doAnswer(invocation -> {
+      sent.add(invocation.getArgument(0));
+      return null;
+    }).when(core).send(any(GetRequest.class));
+
+    CouchbaseBucketConfig bucketConfig = mock(CouchbaseBucketConfig.class);
+    when(bucketConfig.numberOfReplicas()).thenReturn(1);
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig(anyString())).thenReturn(bucketConfig);
+    when(core.clusterConfig()).thenReturn(clusterConfig);
+
+    collection = new AsyncCollection("_default", "_default", "bucket", core, ENVIRONMENT);
+  }
+
+  @Test
+  void hedgeWins() {
+    earnHedge();
+    long delayBefore = collection.hedgedReads().dynamicDelay().toNanos();
+
+    CompletableFuture<GetResult> result = collection.get("id", getOptions().hedge());
+    GetRequest active = sent.get(0);
+    waitUntilCondition(() -> sent.size() == 2);
+    GetRequest replica = sent.get(1);
+    assertTrue(replica instanceof ReplicaGetRequest);
+
+    replica.succeed(response("replica"));
+    assertEquals("replica", result.join().contentAs(String.class));
+    assertEquals(CancellationReason.SUPERSEDED, active.cancellationReason());
+
+    // the superseded active is still accounted for with at least the delay it had before being hedged
+    assertTrue(collection.hedgedReads().dynamicDelay().toNanos() > delayBefore);
+  }
+
+  @Test
+  void activeWins() {
+    earnHedge();
+
+    CompletableFuture<GetResult> result = collection.get("id", getOptions().hedge(HEDGE_DELAY));
+    GetRequest active = sent.get(0);
+    waitUntilCondition(() -> sent.size() == 2);
+    GetRequest replica = sent.get(1);
+
+    active.succeed(response("active"));
+    assertEquals("active", result.join().contentAs(String.class));
+    assertEquals(CancellationReason.SUPERSEDED, replica.cancellationReason());
+  }
+
+  @Test
+  void activeErrorsBeforeHedge() throws Exception {
+    earnHedge();
+
+    CompletableFuture<GetResult> result = collection.get("id", getOptions().hedge(Duration.ofMillis(100)));
+    RuntimeException error = new RuntimeException("active failed");
+    sent.get(0).fail(error);
+
+    CompletionException thrown = assertThrows(CompletionException.class, result::join);
+    assertSame(error, thrown.getCause());
+
+    // the hedge is not sent once the active completed
+    Thread.sleep(300);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  void doesNotHedgeIfBudgetExhausted() throws Exception {
+    CompletableFuture<GetResult> result = collection.get("id", getOptions().hedge(HEDGE_DELAY));
+    Thread.sleep(100);
+    assertEquals(1, sent.size());
+    assertFalse(result.isDone());
+
+    sent.get(0).succeed(response("active"));
+    assertEquals("active", result.join().contentAs(String.class));
+    assertNull(sent.get(0).cancellationReason());
+  }
+
+  @Test
+  void cancelsActiveAndHedgeIfSubscriberStopsListening() {
+    earnHedge();
+
+    ReactiveCollection reactive = new ReactiveCollection(collection);
+    Disposable subscription = reactive.get("id", getOptions().hedge(HEDGE_DELAY)).subscribe();
+    GetRequest active = sent.get(0);
+    waitUntilCondition(() -> sent.size() == 2);
+    GetRequest replica = sent.get(1);
+
+    subscription.dispose();
+    assertEquals(CancellationReason.STOPPED_LISTENING, active.cancellationReason());
+    assertEquals(CancellationReason.STOPPED_LISTENING, replica.cancellationReason());
+  }
+
+  @Test
+  void doesNotHedgeIfSubscriberStoppedListeningBeforeDelay() throws Exception {
+    earnHedge();
+
+    ReactiveCollection reactive = new ReactiveCollection(collection);
+    Disposable subscription = reactive.get("id", getOptions().hedge(Duration.ofMillis(100))).subscribe();
+    GetRequest active = sent.get(0);
+
+    subscription.dispose();
+    assertEquals(CancellationReason.STOPPED_LISTENING, active.cancellationReason());
+
+    Thread.sleep(300);
+    assertEquals(1, sent.size());
+  }
+
+  /**
+   * Performs enough reads which complete right away to earn the budget for a single hedge.
+   */
+  private void earnHedge() {
+    int reads = (int) Math.ceil(1 / HedgedReadTracker.DEFAULT_BUDGET_RATIO);
+    for (int i = 0; i < reads; i++) {
+      CompletableFuture<GetResult> result = collection.get("warmup", getOptions().hedge(Duration.ofSeconds(1)));
+      sent.get(sent.size() - 1).succeed(response("warmup"));
+      result.join();
+    }
+    sent.clear();
+  }
+
+  /**
+   * Creates a successful response with the content as a JSON string.
+   */
+  private static GetResponse response(final String content) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.content()).thenReturn(("\"" + content + "\"").getBytes(UTF_8));
+    return response;
+  }
+
+}
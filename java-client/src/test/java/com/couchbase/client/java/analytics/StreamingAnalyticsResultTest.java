@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.analytics;
+
+import com.couchbase.client.core.msg.analytics.AnalyticsChunkHeader;
+import com.couchbase.client.core.msg.analytics.AnalyticsChunkRow;
+import com.couchbase.client.core.msg.analytics.AnalyticsChunkTrailer;
+import com.couchbase.client.core.msg.analytics.AnalyticsResponse;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the back-pressure and cancellation of the {@link StreamingAnalyticsResult}.
+ */
+class StreamingAnalyticsResultTest {
+
+  private static final AnalyticsChunkHeader HEADER = new AnalyticsChunkHeader(
+    "request-id", Optional.empty(), Optional.empty()
+  );
+
+  @Test
+  void requestsRowsInBatches() {
+    AtomicLong requested = new AtomicLong();
+    Flux<AnalyticsChunkRow> rows = rows(10_000).doOnRequest(requested::addAndGet);
+
+    try (StreamingAnalyticsResult result = result(rows, Mono.never())) {
+      Iterator<JsonObject> iterator = result.rowsAsObject().iterator();
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, iterator.next().getInt("i"));
+      }
+      assertEquals(128, requested.get());
+    }
+  }
+
+  @Test
+  void cancelsRowsIfClosedBeforeConsumed() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    AtomicLong requested = new AtomicLong();
+    Flux<AnalyticsChunkRow> rows = Flux.<AnalyticsChunkRow>never()
+      .doOnRequest(requested::addAndGet)
+      .doOnCancel(() -> cancelled.set(true));
+
+    StreamingAnalyticsResult result = result(rows, Mono.never());
+    result.close();
+
+    assertTrue(cancelled.get());
+    assertEquals(0, requested.get());
+    assertThrows(IllegalStateException.class, result::rowsAsObject);
+  }
+
+  @Test
+  void cancelsRowsIfClosedWhileConsumed() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    Flux<AnalyticsChunkRow> rows = rows(10_000).doOnCancel(() -> cancelled.set(true));
+
+    StreamingAnalyticsResult result = result(rows, Mono.never());
+    Stream<JsonObject> stream = result.rowsAsObject();
+    stream.iterator().next();
+    result.close();
+
+    assertTrue(cancelled.get());
+  }
+
+  @Test
+  void completesMetaDataAfterRows() {
+    MonoProcessor<AnalyticsChunkTrailer> trailer = MonoProcessor.create();
+
+    try (StreamingAnalyticsResult result = result(rows(3), trailer)) {
+      CompletableFuture<AnalyticsMetaData> metaData = result.metaData();
+      List<JsonObject> rows = result.rowsAsObject().collect(Collectors.toList());
+      assertEquals(3, rows.size());
+      assertFalse(metaData.isDone());
+
+      trailer.onNext(new AnalyticsChunkTrailer("success", "{}".getBytes(UTF_8), Optional.empty(), Optional.empty()));
+      assertEquals("request-id", metaData.join().requestId());
+    }
+  }
+
+  private static Flux<AnalyticsChunkRow> rows(final int count) {
+    return Flux.range(0, count).map(i -> new AnalyticsChunkRow(("{\"i\":" + i + "}").getBytes(UTF_8)));
+  }
+
+  private static StreamingAnalyticsResult result(final Flux<AnalyticsChunkRow> rows,
+                                                 final Mono<AnalyticsChunkTrailer> trailer) {
+    AnalyticsResponse response = mock(AnalyticsResponse.class);
+    when(response.header()).thenReturn(HEADER);
+    when(response.rows()).thenReturn(rows);
+    when(response.trailer()).thenReturn(trailer);
+    return new StreamingAnalyticsResult(new ReactiveAnalyticsResult(response, DefaultJsonSerializer.create()));
+  }
+
+}
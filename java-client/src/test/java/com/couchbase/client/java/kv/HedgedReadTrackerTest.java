@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link HedgedReadTracker}.
+ */
+class HedgedReadTrackerTest {
+
+  @Test
+  void capsHedgesToBudgetRatio() {
+    HedgedReadTracker tracker = new HedgedReadTracker(0.05, 10);
+    assertFalse(tracker.tryAcquireHedge());
+
+    int hedges = 0;
+    for (int i = 0; i < 1000; i++) {
+      tracker.recordRead();
+      if (tracker.tryAcquireHedge()) {
+        hedges++;
+      }
+    }
+    assertEquals(50, hedges);
+  }
+
+  @Test
+  void limitsBurst() {
+    HedgedReadTracker tracker = new HedgedReadTracker(0.5, 2);
+    for (int i = 0; i < 100; i++) {
+      tracker.recordRead();
+    }
+
+    assertTrue(tracker.tryAcquireHedge());
+    assertTrue(tracker.tryAcquireHedge());
+    assertFalse(tracker.tryAcquireHedge());
+  }
+
+  @Test
+  void dynamicDelayConvergesToP95() {
+    HedgedReadTracker tracker = new HedgedReadTracker();
+    for (int i = 0; i < 100_000; i++) {
+      // uniform latencies between 0 and 100ms, so the p95 is at 95ms
+      tracker.recordLatency(TimeUnit.MICROSECONDS.toNanos((i * 7919L) % 100_000));
+    }
+
+    long delayMillis = tracker.dynamicDelay().toMillis();
+    assertTrue(delayMillis >= 90 && delayMillis <= 100, "Unexpected delay " + delayMillis);
+  }
+
+  @Test
+  void dynamicDelayHasLowerBound() {
+    HedgedReadTracker tracker = new HedgedReadTracker();
+    for (int i = 0; i < 100_000; i++) {
+      tracker.recordLatency(0);
+    }
+    assertEquals(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(500)), tracker.dynamicDelay());
+  }
+
+  @Test
+  void rejectsInvalidBudget() {
+    assertThrows(IllegalArgumentException.class, () -> new HedgedReadTracker(1.5, 10));
+    assertThrows(IllegalArgumentException.class, () -> new HedgedReadTracker(0.05, 0));
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the dispatch and aggregation of the {@link MultiAccessor}.
+ */
+class MultiAccessorTest {
+
+  @Test
+  void sortsRequestsByNodeAndPartition() {
+    GetRequest a = request("a", new CompletableFuture<>());
+    GetRequest b = request("b", new CompletableFuture<>());
+    GetRequest c = request("c", new CompletableFuture<>());
+
+    int partitionA = KeyValueLocator.partitionForKey(a.key(), 1024);
+    int partitionC = KeyValueLocator.partitionForKey(c.key(), 1024);
+
+    CouchbaseBucketConfig bucketConfig = mock(CouchbaseBucketConfig.class);
+    when(bucketConfig.numberOfPartitions()).thenReturn(1024);
+    when(bucketConfig.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 1);
+    when(bucketConfig.nodeIndexForActive(partitionC, false)).thenReturn((short) 0);
+    when(bucketConfig.nodeIndexForActive(partitionA, false)).thenReturn((short) 2);
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig("bucket")).thenReturn(bucketConfig);
+
+    List<GetRequest> sorted = MultiAccessor.inDispatchOrder(clusterConfig, Arrays.asList(a, b, c));
+    assertEquals(Arrays.asList(c, b, a), sorted);
+  }
+
+  @Test
+  void aggregatesResultsAndErrors() {
+    CompletableFuture<GetResponse> found = new CompletableFuture<>();
+    CompletableFuture<GetResponse> failed = new CompletableFuture<>();
+    List<GetRequest> requests = Arrays.asList(request("found", found), request("failed", failed));
+
+    CompletableFuture<MultiResult<GetResult>> result = MultiAccessor.getMulti(
+      mock(Core.class),
+      requests,
+      JsonTranscoder.create(DefaultJsonSerializer.create())
+    );
+
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.content()).thenReturn("{}".getBytes(UTF_8));
+    found.complete(response);
+    assertFalse(result.isDone());
+
+    RuntimeException error = new RuntimeException("failed");
+    failed.completeExceptionally(error);
+    assertTrue(result.isDone());
+
+    MultiResult<GetResult> multiResult = result.join();
+    assertFalse(multiResult.successful());
+    assertTrue(multiResult.get("found").isPresent());
+    assertEquals(error, multiResult.errors().get("failed"));
+  }
+
+  private static GetRequest request(final String key, final CompletableFuture<GetResponse> response) {
+    GetRequest request = mock(GetRequest.class);
+    when(request.key()).thenReturn(key.getBytes(UTF_8));
+    when(request.bucket()).thenReturn("bucket");
+    when(request.response()).thenReturn(response);
+    when(request.context()).thenReturn(mock(RequestContext.class));
+    return request;
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.msg.query.QueryChunkHeader;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
+import com.couchbase.client.core.msg.query.QueryChunkTrailer;
+import com.couchbase.client.core.msg.query.QueryResponse;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.couchbase.client.java.AsyncUtils.STREAM_BATCH_SIZE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the back-pressure, cancellation and metadata of the {@link StreamingQueryResult}.
+ */
+class StreamingQueryResultTest {
+
+    private static final QueryChunkHeader HEADER = new QueryChunkHeader(
+        "request-id", Optional.empty(), Optional.empty(), Optional.empty()
+    );
+
+    @Test
+    void boundsDemandToBatchSize() {
+        AtomicLong requested = new AtomicLong();
+        AtomicLong emitted = new AtomicLong();
+        Flux<QueryChunkRow> rows = rows(10_000)
+            .doOnRequest(requested::addAndGet)
+            .doOnNext(row -> emitted.incrementAndGet());
+
+        try (StreamingQueryResult result = result(rows, Mono.never())) {
+            Iterator<JsonObject> iterator = result.rowsAsObject().iterator();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, iterator.next().getInt("i"));
+            }
+            assertEquals(STREAM_BATCH_SIZE, requested.get());
+            assertTrue(emitted.get() <= STREAM_BATCH_SIZE);
+        }
+    }
+
+    @Test
+    void requestsNextBatchOnlyOnceConsumed() {
+        AtomicLong requested = new AtomicLong();
+        Flux<QueryChunkRow> rows = rows(10_000).doOnRequest(requested::addAndGet);
+
+        try (StreamingQueryResult result = result(rows, Mono.never())) {
+            Iterator<JsonObject> iterator = result.rowsAsObject().iterator();
+            for (int i = 0; i < STREAM_BATCH_SIZE * 2; i++) {
+                assertEquals(i, iterator.next().getInt("i"));
+            }
+            assertTrue(requested.get() <= STREAM_BATCH_SIZE * 3);
+        }
+    }
+
+    @Test
+    void cancelsRowsIfClosedBeforeConsumed() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicLong requested = new AtomicLong();
+        Flux<QueryChunkRow> rows = Flux.<QueryChunkRow>never()
+            .doOnRequest(requested::addAndGet)
+            .doOnCancel(() -> cancelled.set(true));
+
+        StreamingQueryResult result = result(rows, Mono.never());
+        result.close();
+
+        assertTrue(cancelled.get());
+        assertEquals(0, requested.get());
+        assertThrows(IllegalStateException.class, result::rowsAsObject);
+    }
+
+    @Test
+    void cancelsRowsIfClosedWhileConsumed() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<QueryChunkRow> rows = rows(10_000).doOnCancel(() -> cancelled.set(true));
+
+        StreamingQueryResult result = result(rows, Mono.never());
+        Stream<JsonObject> stream = result.rowsAsObject();
+        stream.iterator().next();
+        result.close();
+
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void completesMetaDataAfterRows() {
+        MonoProcessor<QueryChunkTrailer> trailer = MonoProcessor.create();
+
+        try (StreamingQueryResult result = result(rows(3), trailer)) {
+            CompletableFuture<QueryMetaData> metaData = result.metaData();
+            List<JsonObject> rows = result.rowsAsObject().collect(Collectors.toList());
+            assertEquals(3, rows.size());
+            assertFalse(metaData.isDone());
+
+            trailer.onNext(new QueryChunkTrailer("success", Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty()));
+            assertEquals("request-id", metaData.join().requestId());
+            assertEquals(QueryStatus.SUCCESS, metaData.join().status());
+        }
+    }
+
+    private static Flux<QueryChunkRow> rows(final int count) {
+        return Flux.range(0, count).map(i -> new QueryChunkRow(("{\"i\":" + i + "}").getBytes(UTF_8)));
+    }
+
+    private static StreamingQueryResult result(final Flux<QueryChunkRow> rows, final Mono<QueryChunkTrailer> trailer) {
+        QueryResponse response = mock(QueryResponse.class);
+        when(response.header()).thenReturn(HEADER);
+        when(response.rows()).thenReturn(rows);
+        when(response.trailer()).thenReturn(trailer);
+        return new StreamingQueryResult(new ReactiveQueryResult(response, DefaultJsonSerializer.create()));
+    }
+
+}
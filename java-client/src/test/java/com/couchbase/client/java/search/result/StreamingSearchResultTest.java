@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.search.result;
+
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.search.SearchMetaData;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the back-pressure and cancellation of the {@link StreamingSearchResult}.
+ */
+class StreamingSearchResultTest {
+
+    @Test
+    void requestsHitsInBatches() {
+        AtomicLong requested = new AtomicLong();
+        Flux<SearchRow> rows = rows(10_000).doOnRequest(requested::addAndGet);
+
+        try (StreamingSearchResult result = result(rows, Mono.never(), Mono.never())) {
+            Iterator<SearchRow> iterator = result.rows().iterator();
+            for (int i = 0; i < 10; i++) {
+                assertEquals("id-" + i, iterator.next().id());
+            }
+            assertEquals(128, requested.get());
+        }
+    }
+
+    @Test
+    void cancelsHitsIfClosedBeforeConsumed() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicLong requested = new AtomicLong();
+        Flux<SearchRow> rows = Flux.<SearchRow>never()
+            .doOnRequest(requested::addAndGet)
+            .doOnCancel(() -> cancelled.set(true));
+
+        StreamingSearchResult result = result(rows, Mono.never(), Mono.never());
+        result.close();
+
+        assertTrue(cancelled.get());
+        assertEquals(0, requested.get());
+        assertThrows(IllegalStateException.class, result::rows);
+    }
+
+    @Test
+    void cancelsHitsIfClosedWhileConsumed() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<SearchRow> rows = rows(10_000).doOnCancel(() -> cancelled.set(true));
+
+        StreamingSearchResult result = result(rows, Mono.never(), Mono.never());
+        result.rows().iterator().next();
+        result.close();
+
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void completesFacetsAndMetaDataAfterHits() {
+        MonoProcessor<Map<String, SearchFacetResult>> facets = MonoProcessor.create();
+        MonoProcessor<SearchMetaData> metaData = MonoProcessor.create();
+
+        try (StreamingSearchResult result = result(rows(3), facets, metaData)) {
+            CompletableFuture<Map<String, SearchFacetResult>> facetsFuture = result.facets();
+            CompletableFuture<SearchMetaData> metaDataFuture = result.metaData();
+            assertEquals(3, result.rows().count());
+            assertFalse(facetsFuture.isDone());
+            assertFalse(metaDataFuture.isDone());
+
+            SearchMetaData trailer = mock(SearchMetaData.class);
+            facets.onNext(Collections.emptyMap());
+            metaData.onNext(trailer);
+            assertTrue(facetsFuture.join().isEmpty());
+            assertSame(trailer, metaDataFuture.join());
+        }
+    }
+
+    private static Flux<SearchRow> rows(final int count) {
+        return Flux.range(0, count).map(i -> new SearchRow("index", "id-" + i, 1.0, JsonObject.create(),
+            Optional.empty(), Collections.emptyMap(), null, DefaultJsonSerializer.create()));
+    }
+
+    private static StreamingSearchResult result(final Flux<SearchRow> rows,
+                                                final Mono<Map<String, SearchFacetResult>> facets,
+                                                final Mono<SearchMetaData> metaData) {
+        return new StreamingSearchResult(new ReactiveSearchResult(rows, facets, metaData));
+    }
+
+}